@@ -0,0 +1,341 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.Game;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Move;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.InvalidMoveException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A strategy searching the game tree with negamax and alpha-beta pruning.
+ *
+ * <p>
+ * The search deepens one ply at a time until its time budget runs out and plays the best move of
+ * the deepest search it finished. The moves are tried in the order most likely to cut the search
+ * short: the best move found for the position before, from the transposition table; then the
+ * killer moves, which caused a cut-off at the same ply elsewhere in the tree; then the rest by how
+ * often they caused cut-offs so far, the history heuristic; and passing last. Positions are judged
+ * by a pluggable evaluator, and a decided position (see PassAlive) ends a line like a finished
+ * game.
+ * </p>
+ */
+public class AlphaBetaStrategy implements Strategy {
+
+  private static final String NAME = "AlphaBeta";
+  public static final long DEFAULT_TIME_BUDGET = 1000;
+  public static final long DEFAULT_TABLE_BYTES = 16L << 20;
+  private static final int MAX_DEPTH = 64;
+  private static final int INFINITY = 1_000_000;
+  private static final int PASS = -1;
+  // far enough to never come, near enough not to overflow when added to System.nanoTime
+  private static final long FOREVER = Long.MAX_VALUE / 4;
+
+  private final Evaluator evaluator;
+  private final long timeBudget;
+  private final TranspositionTable table;
+  private volatile int completedDepth;
+
+  /**
+   * Construct the strategy judging positions by area score, with the default time budget.
+   */
+  public AlphaBetaStrategy() {
+    this(Evaluator.areaScore(), DEFAULT_TIME_BUDGET,
+        new TranspositionTable(DEFAULT_TABLE_BYTES));
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param evaluator  The evaluator judging the positions at the end of the search.
+   * @param timeBudget The time to search for a move in milliseconds.
+   * @param table      The transposition table, which may be shared with other searches.
+   */
+  public AlphaBetaStrategy(Evaluator evaluator, long timeBudget, TranspositionTable table) {
+    this.evaluator = evaluator;
+    this.timeBudget = timeBudget;
+    this.table = table;
+  }
+
+  /**
+   * Get the name of the strategy used.
+   *
+   * @return The name of the strategy.
+   */
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * Determine the move based on the chosen strategy.
+   *
+   * @param game the game in which the move should be determined
+   * @return the move.
+   */
+  @Override
+  public Move determineMove(Game game) {
+    return determineMove(game, SearchControl.within(timeBudget));
+  }
+
+  /**
+   * Determine the move, searching until the time budget or the control runs out, whichever is
+   * first. The best move of every finished depth is offered to the control.
+   *
+   * @param game    the game in which the move should be determined
+   * @param control the deadline and cancellation of the search
+   * @return the move.
+   */
+  @Override
+  public Move determineMove(Game game, SearchControl control) {
+    Search search = new Search((GoGame) game, control,
+        Math.min(timeBudget * 1_000_000, control.remainingNanos()));
+    GoMove best = search.deepen((GoGame) game);
+    completedDepth = search.completedDepth;
+    return best != null ? best : new GoMove(game.getTurn());
+  }
+
+  /**
+   * Search the position the opponent is to move in until cancelled, ignoring the time budget. The
+   * results stay in the transposition table, where the next search finds the positions after the
+   * opponent's likely replies already searched.
+   *
+   * @param game    the game, with the opponent on turn
+   * @param control the cancellation of the pondering
+   */
+  @Override
+  public void ponder(Game game, SearchControl control) {
+    new Search((GoGame) game, control, Math.min(FOREVER, control.remainingNanos()))
+        .deepen((GoGame) game);
+  }
+
+  /**
+   * Get the depth of the last search that finished in time.
+   *
+   * @return The number of plies.
+   */
+  public int getCompletedDepth() {
+    return completedDepth;
+  }
+
+  public TranspositionTable getTable() {
+    return table;
+  }
+
+  /**
+   * The state of one search for a move.
+   */
+  private final class Search {
+
+    private final SearchControl control;
+    private final long deadline;
+    private final int passSlot;
+    private final int[][] killers = new int[MAX_DEPTH][2];
+    private final int[] history;
+    private int completedDepth;
+    // the best move of the first depth so far, while it has not finished
+    private GoMove firstDepthBest;
+
+    private Search(GoGame game, SearchControl control, long budget) {
+      this.control = control;
+      this.deadline = System.nanoTime() + budget;
+      int fields = game.getBoard().getDim() * game.getBoard().getDim();
+      passSlot = fields;
+      history = new int[fields + 1];
+      for (int[] killer : killers) {
+        killer[0] = TranspositionTable.NO_MOVE;
+        killer[1] = TranspositionTable.NO_MOVE;
+      }
+    }
+
+    /**
+     * Search one ply deeper at a time until out of time or depth, offering the best move of every
+     * depth finished to the control. Until the first depth finishes, its best move so far is
+     * offered instead, starting with the first move in order, so running out of time early on a
+     * large board does not turn into a pass.
+     */
+    private GoMove deepen(GoGame game) {
+      GoMove best = null;
+      try {
+        while (completedDepth < MAX_DEPTH) {
+          best = root(game, completedDepth + 1);
+          control.offer(best);
+          completedDepth++;
+        }
+      } catch (SearchTimeout e) {
+        // keep the move of the deepest search finished
+        if (best == null) {
+          best = firstDepthBest;
+        }
+      }
+      return best;
+    }
+
+    private GoMove root(GoGame game, int depth) {
+      GoMove bestMove = null;
+      int alpha = -INFINITY;
+      List<GoMove> moves = orderedMoves(game, ttMove(table.probe(key(game))), 0);
+      if (depth == 1 && !moves.isEmpty()) {
+        offerFirstDepth(moves.getFirst());
+      }
+      for (GoMove move : moves) {
+        int score = -negamax(play(game, move), depth - 1, -INFINITY, -alpha, 1);
+        if (bestMove == null || score > alpha) {
+          alpha = score;
+          bestMove = move;
+          if (depth == 1) {
+            offerFirstDepth(move);
+          }
+        }
+      }
+      if (bestMove != null) {
+        table.store(key(game), depth, alpha, tableMove(index(bestMove)),
+            TranspositionTable.EXACT);
+      }
+      return bestMove;
+    }
+
+    private void offerFirstDepth(GoMove move) {
+      firstDepthBest = move;
+      control.offer(move);
+    }
+
+    private int negamax(GoGame game, int depth, int alpha, int beta, int ply) {
+      if (System.nanoTime() - deadline > 0 || control.isCancelled()) {
+        throw SearchTimeout.INSTANCE;
+      }
+      if (depth == 0 || game.isGameover() || ply >= MAX_DEPTH || game.isDecided()) {
+        return evaluator.evaluate(game, game.getTurn().getStone());
+      }
+      long key = key(game);
+      long entry = table.probe(key);
+      if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+        int score = TranspositionTable.score(entry);
+        switch (TranspositionTable.bound(entry)) {
+          case TranspositionTable.EXACT -> {
+            return score;
+          }
+          case TranspositionTable.LOWER_BOUND -> alpha = Math.max(alpha, score);
+          default -> beta = Math.min(beta, score);
+        }
+        if (alpha >= beta) {
+          return score;
+        }
+      }
+      int originalAlpha = alpha;
+      int best = -INFINITY;
+      int bestMove = TranspositionTable.NO_MOVE;
+      for (GoMove move : orderedMoves(game, ttMove(entry), ply)) {
+        int score = -negamax(play(game, move), depth - 1, -beta, -alpha, ply + 1);
+        if (score > best) {
+          best = score;
+          bestMove = index(move);
+        }
+        alpha = Math.max(alpha, score);
+        if (alpha >= beta) {
+          rememberCutoff(move, depth, ply);
+          break;
+        }
+      }
+      int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+          : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+      table.store(key, depth, best, tableMove(bestMove), bound);
+      return best;
+    }
+
+    private void rememberCutoff(GoMove move, int depth, int ply) {
+      if (move.isPass()) {
+        return;
+      }
+      int index = index(move);
+      if (killers[ply][0] != index) {
+        killers[ply][1] = killers[ply][0];
+        killers[ply][0] = index;
+      }
+      history[index] += depth * depth;
+    }
+
+    private List<GoMove> orderedMoves(GoGame game, int ttMove, int ply) {
+      List<GoMove> moves = new ArrayList<>();
+      for (Move move : game.getValidMoves()) {
+        moves.add((GoMove) move);
+      }
+      moves.sort(Comparator.comparingInt((GoMove move) -> order(move, ttMove, ply)).reversed());
+      return moves;
+    }
+
+    private int order(GoMove move, int ttMove, int ply) {
+      int index = index(move);
+      if (index == ttMove) {
+        return Integer.MAX_VALUE;
+      } else if (index == killers[ply][0]) {
+        return Integer.MAX_VALUE - 1;
+      } else if (index == killers[ply][1]) {
+        return Integer.MAX_VALUE - 2;
+      } else if (move.isPass()) {
+        return -1;
+      }
+      return history[index];
+    }
+
+    private int ttMove(long entry) {
+      if (entry == TranspositionTable.MISS) {
+        return TranspositionTable.NO_MOVE;
+      }
+      int move = TranspositionTable.move(entry);
+      return move == PASS ? passSlot : move;
+    }
+
+    private int tableMove(int index) {
+      return index == passSlot ? PASS : index;
+    }
+
+    private int index(GoMove move) {
+      return move.isPass() ? passSlot : move.getIndex();
+    }
+  }
+
+  private GoGame play(GoGame game, GoMove move) {
+    GoGame child = game.deepCopy();
+    try {
+      child.doMove(move);
+    } catch (InvalidMoveException e) {
+      // the move came from the valid moves of the same position
+      throw new IllegalStateException(e);
+    }
+    return child;
+  }
+
+  /**
+   * The key of a position in the transposition table: the position hash with the side to move
+   * hashed as a stone on a virtual intersection just past the board, and, if the last move was a
+   * pass, a black stone on the virtual intersection after that. A pass there ends the game, so the
+   * same stones after a pass are searched differently. The rest of the ko history is not part of
+   * the key.
+   */
+  static long key(GoGame game) {
+    Board board = game.getBoard();
+    int size = board.getDim() * board.getDim();
+    long key = board.positionHash() ^ Board.zobrist(size, game.getTurn().getStone());
+    if (game.getLastMove() instanceof GoMove last && last.isPass()) {
+      key ^= Board.zobrist(size + 1, Stone.BLACK);
+    }
+    return key;
+  }
+
+  /**
+   * Thrown deep in the search when the time is up. Carries no stack trace, as it is not an error.
+   */
+  private static final class SearchTimeout extends RuntimeException {
+
+    private static final SearchTimeout INSTANCE = new SearchTimeout();
+
+    private SearchTimeout() {
+      super(null, null, false, false);
+    }
+  }
+}
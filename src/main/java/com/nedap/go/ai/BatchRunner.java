@@ -0,0 +1,73 @@
+package com.nedap.go.ai;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * What the command line runs that play many games share, like Tournament and SelfPlay: reading
+ * their options and playing the games on a thread pool.
+ */
+public final class BatchRunner {
+
+  private BatchRunner() {
+  }
+
+  /**
+   * Get the value of a command line option, given as the name followed by the value.
+   *
+   * @param args     The command line.
+   * @param name     The name, e.g. {@code --games}.
+   * @param fallback The value if the option is not given.
+   * @return The value.
+   */
+  public static String option(String[] args, String name, String fallback) {
+    for (int i = 0; i + 1 < args.length; i++) {
+      if (args[i].equals(name)) {
+        return args[i + 1];
+      }
+    }
+    return fallback;
+  }
+
+  /**
+   * Run tasks on a new thread pool and wait for all of them. The pool is shut down afterwards,
+   * also when a task fails.
+   *
+   * @param threads The number of threads of the pool.
+   * @param tasks   The tasks, e.g. one per game.
+   * @param <T>     The result of a task.
+   * @return The results, in the order of the tasks.
+   * @throws UncheckedIOException  If a task threw one, unwrapped.
+   * @throws IllegalStateException If another task failed, or the wait was interrupted.
+   */
+  public static <T> List<T> runAll(int threads, List<? extends Callable<T>> tasks) {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<T>> futures = new ArrayList<>(tasks.size());
+      for (Callable<T> task : tasks) {
+        futures.add(pool.submit(task));
+      }
+      List<T> results = new ArrayList<>(futures.size());
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the games", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof UncheckedIOException io) {
+        throw io;
+      }
+      throw new IllegalStateException("A game failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.Game;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Move;
+
+/**
+ * A strategy that looks the position up in an opening book before asking another strategy, and
+ * remembers what that strategy chose.
+ *
+ * <p>
+ * The book only covers the opening: the first moves of a game, unless the system property
+ * go.book.moves says how many. After those, and whenever the opponent just passed, the strategy
+ * is asked without the book, so the book neither grows into a cache of the whole game nor
+ * overrules how the strategy answers a pass.
+ * </p>
+ */
+public class BookStrategy implements Strategy {
+
+  public static final int DEFAULT_OPENING_MOVES = 20;
+
+  private final Strategy strategy;
+  private final OpeningBook book;
+  private final int openingMoves;
+
+  /**
+   * Use the book shared by every player of the given strategy.
+   *
+   * @param strategy The strategy asked for positions not in the book.
+   */
+  public BookStrategy(Strategy strategy) {
+    this(strategy, OpeningBook.shared(strategy.getName()));
+  }
+
+  /**
+   * Construct the strategy with its own book.
+   *
+   * @param strategy The strategy asked for positions not in the book.
+   * @param book     The book to use.
+   */
+  public BookStrategy(Strategy strategy, OpeningBook book) {
+    this(strategy, book, Integer.getInteger("go.book.moves", DEFAULT_OPENING_MOVES));
+  }
+
+  /**
+   * Construct the strategy with its own book and opening length.
+   *
+   * @param strategy     The strategy asked for positions not in the book.
+   * @param book         The book to use.
+   * @param openingMoves The number of moves of a game, passes included, in which the book is
+   *                     used.
+   */
+  public BookStrategy(Strategy strategy, OpeningBook book, int openingMoves) {
+    this.strategy = strategy;
+    this.book = book;
+    this.openingMoves = openingMoves;
+  }
+
+  /**
+   * Get the name of the strategy used.
+   *
+   * @return The name of the strategy asked for positions not in the book.
+   */
+  @Override
+  public String getName() {
+    return strategy.getName();
+  }
+
+  /**
+   * Determine the move from the book, or from the strategy if the book has no valid move for the
+   * position, e.g. because the ko rule forbids it this time, or is not to be used (see above).
+   *
+   * @param game the game in which the move should be determined
+   * @return the move.
+   */
+  @Override
+  public Move determineMove(Game game) {
+    return determineMove(game, SearchControl.unlimited());
+  }
+
+  /**
+   * Determine the move like determineMove(Game), giving the strategy the time of the control. A
+   * move the strategy returned because it was stopped is not stored.
+   *
+   * @param game    the game in which the move should be determined
+   * @param control the deadline and cancellation of the search
+   * @return the move.
+   */
+  @Override
+  public Move determineMove(Game game, SearchControl control) {
+    if (!(game instanceof GoGame goGame) || !inOpening(goGame)) {
+      return strategy.determineMove(game, control);
+    }
+    GoMove booked = book.lookup(goGame);
+    if (booked != null && game.isValidMove(booked)) {
+      return booked;
+    }
+    Move move = strategy.determineMove(game, control);
+    if (!control.shouldStop()) {
+      book.store(goGame, move);
+    }
+    return move;
+  }
+
+  private boolean inOpening(GoGame game) {
+    return game.getMoveCount() < openingMoves
+        && !(game.getLastMove() instanceof GoMove last && last.isPass());
+  }
+
+  @Override
+  public void ponder(Game game, SearchControl control) {
+    strategy.ponder(game, control);
+  }
+
+  @Override
+  public void observeMove(Move move) {
+    strategy.observeMove(move);
+  }
+
+  public OpeningBook getBook() {
+    return book;
+  }
+}
@@ -3,18 +3,46 @@ package com.nedap.go.ai;
 
 import com.nedap.go.model.AbstractPlayer;
 import com.nedap.go.model.Game;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
 import com.nedap.go.model.Move;
 import com.nedap.go.model.Stone;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Class for AI players.
  */
 public class ComputerPlayer extends AbstractPlayer {
 
+  /**
+   * The time to answer a move in milliseconds, unless set by the system property go.bot.budget.
+   */
+  public static final long DEFAULT_TIME_BUDGET = 5000;
+  private static final long PONDER_STOP_WAIT = 100;
+  private static final long SEARCH_STOP_WAIT = 500;
+  private static final ExecutorService SEARCHES = Executors.newVirtualThreadPerTaskExecutor();
+
   Stone stone;
 
   Strategy strategy;
 
+  private long timeBudget = Long.getLong("go.bot.budget", DEFAULT_TIME_BUDGET);
+  private volatile boolean pondering = Boolean.getBoolean("go.bot.ponder");
+  private volatile SearchControl ponderControl;
+  private Future<?> ponderSearch;
+  private final Queue<Move> observed = new ConcurrentLinkedQueue<>();
+  // held by the searches and pondering of the strategy, see determineMove
+  private final ReentrantLock searchLock = new ReentrantLock();
+
   /**
    * Constructs the ComputerPlayer with the desired stone and strategy.
    *
@@ -51,16 +79,179 @@ public class ComputerPlayer extends AbstractPlayer {
     this.strategy = strategy;
   }
 
+  public long getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * Set the time the player has to answer a move.
+   *
+   * @param timeBudget The time in milliseconds.
+   */
+  public void setTimeBudget(long timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
+  public boolean isPondering() {
+    return pondering;
+  }
+
   /**
-   * Determines the next move, if the game still has available moves.
+   * Switch pondering on or off; off by default unless the system property go.bot.ponder is set.
+   *
+   * @param pondering True to let the strategy think while the opponent is on turn.
+   */
+  public void setPondering(boolean pondering) {
+    this.pondering = pondering;
+    if (!pondering) {
+      stopPondering();
+    }
+  }
+
+  /**
+   * Let the strategy think about the game in the background while the opponent is on turn, if
+   * pondering is on. Stopped by stopPondering or the next determineMove.
+   *
+   * @param game The game, with the opponent on turn.
+   */
+  public synchronized void startPondering(Game game) {
+    stopPondering();
+    if (!pondering || game.isGameover()) {
+      return;
+    }
+    SearchControl control = SearchControl.unlimited();
+    Game copy = game.deepCopy();
+    ponderControl = control;
+    Strategy pondering = strategy;
+    ponderSearch = SEARCHES.submit(() -> {
+      searchLock.lock();
+      try {
+        deliverObserved(pondering);
+        pondering.ponder(copy, control);
+      } finally {
+        searchLock.unlock();
+      }
+    });
+  }
+
+  /**
+   * Stop pondering and wait a moment for the strategy to let go of the processor, so it does not
+   * compete with the search for the next move.
+   */
+  public synchronized void stopPondering() {
+    if (ponderControl == null) {
+      return;
+    }
+    ponderControl.cancel();
+    try {
+      ponderSearch.get(PONDER_STOP_WAIT, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      // pondering is only a head start, whatever happened to it
+    }
+    ponderControl = null;
+    ponderSearch = null;
+  }
+
+  /**
+   * Tell the strategy to stop pondering without waiting for it, for threads that must not block,
+   * such as the one reading from the network. The next determineMove or stopPondering waits for it
+   * to let go of the processor.
+   */
+  public void cancelPondering() {
+    SearchControl control = ponderControl;
+    if (control != null) {
+      control.cancel();
+    }
+  }
+
+  /**
+   * Tell the strategy a move was played in the game, by either player, so it can keep what it
+   * found about the position after it. Returns at once: the strategy may still be pondering, so the
+   * move is handed over before its next search or pondering starts.
+   *
+   * @param move The move played.
+   */
+  public void observeMove(Move move) {
+    observed.add(move);
+  }
+
+  // called holding the search lock
+  private void deliverObserved(Strategy strategy) {
+    Move move;
+    while ((move = observed.poll()) != null) {
+      strategy.observeMove(move);
+    }
+  }
+
+  /**
+   * Determines the next move, if the game still has available moves. The strategy runs on a copy
+   * of the game in its own thread. If it has not answered when the time budget is up, it is
+   * cancelled and given a moment to stop. Then the best move it offered so far is played, else the
+   * move it returned on stopping, or a pass if there is neither. Once the game is decided the
+   * player passes without asking the strategy, as nothing played can change the winner.
+   *
+   * <p>
+   * A strategy keeps state between calls that is not safe to share between threads, such as its
+   * random generator, so its searches and pondering hold the search lock of the player: a search
+   * that ignores its cancellation for too long delays the next search, which still answers within
+   * its own budget, instead of running alongside it. The searches run on virtual threads, so this
+   * is a ReentrantLock rather than a monitor, which would pin the carrier thread while it is held.
+   * </p>
    *
    * @param game the current game
    * @return the player's choice
    */
   @Override
   public Move determineMove(Game game) {
-    return strategy.determineMove(game);
+    stopPondering();
+    if (game instanceof GoGame goGame && goGame.isDecided()) {
+      return new GoMove(game.getTurn());
+    }
+    SearchControl control = SearchControl.within(timeBudget);
+    Game copy = game.deepCopy();
+    Strategy searching = strategy;
+    CompletableFuture<Move> search = CompletableFuture.supplyAsync(() -> {
+      searchLock.lock();
+      try {
+        deliverObserved(searching);
+        return searching.determineMove(copy, control);
+      } finally {
+        searchLock.unlock();
+      }
+    }, SEARCHES);
+    try {
+      return search.get(control.remainingNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      control.cancel();
+      Move stopped = awaitStopped(search);
+      Move best = control.bestSoFar() != null ? control.bestSoFar() : stopped;
+      return best != null ? best : new GoMove(game.getTurn());
+    } catch (InterruptedException e) {
+      control.cancel();
+      Thread.currentThread().interrupt();
+      return new GoMove(game.getTurn());
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Strategy " + strategy.getName() + " failed", e.getCause());
+    }
+  }
 
+  /**
+   * Wait a moment for a cancelled search to stop.
+   *
+   * @param search The search.
+   * @return The move it returned, or null if it did not stop in time or failed.
+   */
+  private static Move awaitStopped(CompletableFuture<Move> search) {
+    try {
+      return search.get(SEARCH_STOP_WAIT, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      // the best move offered is played instead
+    }
+    return null;
   }
 
   /**
@@ -0,0 +1,31 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.Stone;
+
+/**
+ * Judges a position for a searching strategy.
+ */
+@FunctionalInterface
+public interface Evaluator {
+
+  /**
+   * Evaluate the position of the game.
+   *
+   * @param game  The game in the position to evaluate.
+   * @param stone The player the score is for.
+   * @return The score; higher is better for the player, and the score for the other player must
+   *       be its negation.
+   */
+  int evaluate(GoGame game, Stone stone);
+
+  /**
+   * The difference in area score (stones plus surrounded territory) between the player and the
+   * opponent.
+   *
+   * @return The evaluator.
+   */
+  static Evaluator areaScore() {
+    return (game, stone) -> game.getScore(stone) - game.getScore(stone.other());
+  }
+}
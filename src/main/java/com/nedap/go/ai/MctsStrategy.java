@@ -0,0 +1,464 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.Game;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Move;
+import com.nedap.go.model.PassAlive;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A strategy searching the game tree with Monte Carlo simulations: games played out to the end
+ * with a playout policy (see PatternPolicy), whose results are counted in the nodes they passed.
+ *
+ * <p>
+ * Every simulation walks down the tree from the current position, choosing the child with the
+ * best value, until it reaches a leaf. A leaf visited often enough is expanded with all legal
+ * moves but filling an own eye, and a pass. From there the game is played out by the policy and
+ * scored, or cut short once it is decided (see PassAlive), which is checked every few moves as it
+ * takes a pass of Benson's algorithm. The value of a child mixes its own win rate with its AMAF win rate (RAVE): the win rate
+ * of all simulations through its parent in which the same player played the same intersection
+ * later on. The AMAF statistics grow with every simulation for many moves at once, so they steer
+ * the search long before the moves have enough visits of their own; their weight fades as the
+ * visits come in.
+ * </p>
+ *
+ * <p>
+ * The tree is kept between moves. The moves played in the game, reported by observeMove, walk the
+ * root down to the node of the new position, and the next search starts from the simulations
+ * already made below it. Without reports the new position is looked up among the children and
+ * grandchildren of the old root by its hash. The nodes live in a NodePool of a fixed size: when it
+ * is full, the subtree of the root is copied to a second pool and the rest dropped, and if the
+ * subtree alone fills the pool, the tree stops growing while the simulations go on.
+ * </p>
+ */
+public class MctsStrategy implements Strategy {
+
+  private static final String NAME = "Mcts";
+  public static final long DEFAULT_TIME_BUDGET = 1000;
+  public static final long DEFAULT_POOL_BYTES = 8L << 20;
+  private static final int PASS = -1;
+  // the number of visits at which a node's own win rate weighs as much as its AMAF win rate
+  private static final double RAVE_EQUIVALENCE = 1000;
+  private static final double EXPLORATION = 0.2;
+  // the value of a move without any simulations, above any win rate so it gets tried
+  private static final double FIRST_PLAY_URGENCY = 1.1;
+  private static final int EXPAND_AFTER = 2;
+  private static final int OFFER_EVERY = 64;
+  // playout moves between two checks whether the game is decided
+  private static final int DECIDED_EVERY = 16;
+  // far enough to never come, near enough not to overflow when added to System.nanoTime
+  private static final long FOREVER = Long.MAX_VALUE / 4;
+  private static final byte NOBODY = 0;
+
+  private final PatternPolicy policy;
+  private final RandomGenerator random;
+  private final long timeBudget;
+  private final long poolBytes;
+  private int maxSimulations = Integer.MAX_VALUE;
+  private NodePool pool;
+  private NodePool spare;
+  private int root = NodePool.NONE;
+  private Stone rootTurn;
+  private int reusedVisits;
+  // the nodes and moves of the current simulation, and who played each intersection first
+  private int[] path = new int[64];
+  private int[] moves = new int[256];
+  private int[] candidates = new int[0];
+  private byte[] amafColor = new byte[0];
+
+  /**
+   * Construct the strategy with the default policy, time budget and memory, and a generator of its
+   * own (see Randomness).
+   */
+  public MctsStrategy() {
+    this(Randomness.stream());
+  }
+
+  /**
+   * Construct the strategy with the default policy, time budget and memory.
+   *
+   * @param random The generator for the simulations, used by this strategy only.
+   */
+  public MctsStrategy(RandomGenerator random) {
+    this(new PatternPolicy(), random, DEFAULT_TIME_BUDGET, DEFAULT_POOL_BYTES);
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param policy     The policy playing out the simulations.
+   * @param random     The generator for the simulations, used by this strategy only.
+   * @param timeBudget The time to search for a move in milliseconds.
+   * @param poolBytes  The memory for the nodes of the tree; twice as much is taken once the tree
+   *                   has filled it.
+   */
+  public MctsStrategy(PatternPolicy policy, RandomGenerator random, long timeBudget,
+      long poolBytes) {
+    this.policy = policy;
+    this.random = random;
+    this.timeBudget = timeBudget;
+    this.poolBytes = poolBytes;
+  }
+
+  /**
+   * Get the name of the strategy used.
+   *
+   * @return The name of the strategy.
+   */
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * Set the number of simulations after which a search stops, if its time is not up before.
+   *
+   * @param maxSimulations The number of simulations per search.
+   */
+  public void setMaxSimulations(int maxSimulations) {
+    this.maxSimulations = maxSimulations;
+  }
+
+  /**
+   * Get the number of simulations the last search found already made in the tree when it started.
+   *
+   * @return The visits of the root at the start of the last search.
+   */
+  public synchronized int getReusedVisits() {
+    return reusedVisits;
+  }
+
+  /**
+   * Determine the move based on the chosen strategy.
+   *
+   * @param game the game in which the move should be determined
+   * @return the move.
+   */
+  @Override
+  public Move determineMove(Game game) {
+    return determineMove(game, SearchControl.within(timeBudget));
+  }
+
+  /**
+   * Determine the move, simulating until the time budget or the control runs out, whichever is
+   * first. The most visited move is offered to the control now and then, and played at the end.
+   *
+   * @param game    the game in which the move should be determined
+   * @param control the deadline and cancellation of the search
+   * @return the move.
+   */
+  @Override
+  public synchronized Move determineMove(Game game, SearchControl control) {
+    GoGame goGame = (GoGame) game;
+    search(goGame, control, Math.min(timeBudget * 1_000_000, control.remainingNanos()));
+    GoMove best = bestMove(goGame);
+    return best != null ? best : policy.choose(goGame, random);
+  }
+
+  /**
+   * Simulate from the position with the opponent on turn until the control is cancelled, growing
+   * the tree the next search starts from.
+   *
+   * @param game    the game, with the opponent on turn
+   * @param control the cancellation of the pondering
+   */
+  @Override
+  public synchronized void ponder(Game game, SearchControl control) {
+    search((GoGame) game, control, Math.min(FOREVER, control.remainingNanos()));
+  }
+
+  /**
+   * Move the root of the tree to the child of the move, keeping what was found below it.
+   *
+   * @param move the move played in the game, by either player
+   */
+  @Override
+  public synchronized void observeMove(Move move) {
+    if (root == NodePool.NONE || !(move instanceof GoMove goMove)) {
+      return;
+    }
+    int played = goMove.isPass() ? PASS : goMove.getIndex();
+    int first = pool.getFirstChild(root);
+    for (int child = first; first != NodePool.NONE && child < first + pool.getChildCount(root);
+        child++) {
+      if (pool.getMove(child) == played && pool.getVisits(child) > 0) {
+        root = child;
+        rootTurn = rootTurn.other();
+        return;
+      }
+    }
+    root = NodePool.NONE;
+  }
+
+  private void search(GoGame game, SearchControl control, long nanos) {
+    long end = System.nanoTime() + nanos;
+    int size = game.getBoard().getDim() * game.getBoard().getDim();
+    locate(game);
+    reusedVisits = pool.getVisits(root);
+    if (amafColor.length != size) {
+      amafColor = new byte[size];
+      candidates = new int[size];
+    }
+    for (int simulations = 0; simulations < maxSimulations && !control.shouldStop()
+        && System.nanoTime() < end; simulations++) {
+      if (pool.size() + size + 1 > pool.capacity() && root != 0) {
+        compact();
+      }
+      simulate(game);
+      if (simulations % OFFER_EVERY == OFFER_EVERY - 1) {
+        control.offer(bestMove(game));
+      }
+    }
+  }
+
+  /**
+   * Find the node of the position of the game: the root, or one of the nodes one or two moves
+   * below it, else start a new tree.
+   */
+  private void locate(GoGame game) {
+    if (pool == null) {
+      pool = new NodePool(poolBytes);
+    }
+    long hash = game.getBoard().positionHash();
+    Stone turn = game.getTurn().getStone();
+    if (root != NodePool.NONE) {
+      int node = root;
+      if (turn != rootTurn) {
+        node = findChild(root, hash);
+      } else if (pool.getHash(root) != hash) {
+        node = NodePool.NONE;
+        int first = pool.getFirstChild(root);
+        for (int child = first; first != NodePool.NONE && node == NodePool.NONE
+            && child < first + pool.getChildCount(root); child++) {
+          node = findChild(child, hash);
+        }
+      }
+      if (node != NodePool.NONE) {
+        root = node;
+        rootTurn = turn;
+        return;
+      }
+    }
+    pool.clear();
+    root = pool.allocate(1);
+    pool.setHash(root, hash);
+    rootTurn = turn;
+  }
+
+  private int findChild(int node, long hash) {
+    int first = pool.getFirstChild(node);
+    for (int child = first; first != NodePool.NONE && child < first + pool.getChildCount(node);
+        child++) {
+      if (pool.getVisits(child) > 0 && pool.getHash(child) == hash) {
+        return child;
+      }
+    }
+    return NodePool.NONE;
+  }
+
+  /**
+   * Drop all nodes but the subtree of the root, by copying it to the spare pool.
+   */
+  private void compact() {
+    if (spare == null) {
+      spare = new NodePool(poolBytes);
+    }
+    root = pool.copySubtree(root, spare);
+    NodePool full = pool;
+    pool = spare;
+    spare = full;
+  }
+
+  /**
+   * Run one simulation: down the tree, out to the end of the game, and back up with the result.
+   */
+  private void simulate(GoGame game) {
+    GoGame simulation = game.deepCopy();
+    int size = game.getBoard().getDim() * game.getBoard().getDim();
+    int node = root;
+    int depth = 0;
+    int plies = 0;
+    path[0] = root;
+    while (!simulation.isGameover()) {
+      if (pool.getFirstChild(node) == NodePool.NONE && (node != root
+          && pool.getVisits(node) < EXPAND_AFTER || !expand(node, simulation))) {
+        break;
+      }
+      node = select(node);
+      int move = pool.getMove(node);
+      play(simulation, move);
+      pool.setHash(node, simulation.getBoard().positionHash());
+      plies = record(plies, move);
+      if (++depth == path.length) {
+        path = Arrays.copyOf(path, 2 * depth);
+      }
+      path[depth] = node;
+    }
+    int limit = plies + 2 * size;
+    Stone decided = null;
+    for (int played = 1; !simulation.isGameover() && plies < limit; played++) {
+      GoMove move = policy.choose(simulation, random);
+      simulation.replayMove(move);
+      plies = record(plies, move.isPass() ? PASS : move.getIndex());
+      if (played % DECIDED_EVERY == 0
+          && (decided = PassAlive.of(simulation.getBoard()).getDecidedWinner()) != null) {
+        break;
+      }
+    }
+    double result;
+    if (decided != null) {
+      result = decided == Stone.BLACK ? 1 : 0;
+    } else {
+      int margin = simulation.getScoreMargin();
+      result = margin > 0 ? 1 : margin < 0 ? 0 : 0.5;
+    }
+    backPropagate(depth, plies, result);
+  }
+
+  private int record(int plies, int move) {
+    if (plies == moves.length) {
+      moves = Arrays.copyOf(moves, 2 * plies);
+    }
+    moves[plies] = move;
+    return plies + 1;
+  }
+
+  private static void play(GoGame simulation, int move) {
+    Player player = simulation.getTurn();
+    simulation.replayMove(move == PASS ? new GoMove(player) : new GoMove(player, move));
+  }
+
+  /**
+   * Give a node a child for every legal move the policy would play, and one for passing.
+   *
+   * @return False if the pool has no room for the children.
+   */
+  private boolean expand(int node, GoGame simulation) {
+    Board board = simulation.getBoard();
+    Player player = simulation.getTurn();
+    int count = 0;
+    for (int index = 0; index < candidates.length; index++) {
+      if (board.isEmpty(index) && policy.weight(board.getPattern(index), player.getStone()) > 0
+          && simulation.isValidMove(new GoMove(player, index))) {
+        candidates[count++] = index;
+      }
+    }
+    int first = pool.allocate(count + 1);
+    if (first == NodePool.NONE) {
+      return false;
+    }
+    for (int i = 0; i < count; i++) {
+      pool.setMove(first + i, candidates[i]);
+    }
+    pool.setMove(first + count, PASS);
+    pool.setChildren(node, first, count + 1);
+    return true;
+  }
+
+  /**
+   * Choose the child with the highest value: its win rate mixed with its AMAF win rate, plus a
+   * bonus for being visited little. Ties are broken at random.
+   */
+  private int select(int node) {
+    int first = pool.getFirstChild(node);
+    double logVisits = Math.log(pool.getVisits(node) + 1);
+    int best = first;
+    double bestValue = Double.NEGATIVE_INFINITY;
+    for (int child = first; child < first + pool.getChildCount(node); child++) {
+      double value = value(child, logVisits) + random.nextDouble() * 1e-6;
+      if (value > bestValue) {
+        best = child;
+        bestValue = value;
+      }
+    }
+    return best;
+  }
+
+  private double value(int child, double logParentVisits) {
+    int visits = pool.getVisits(child);
+    int amafVisits = pool.getAmafVisits(child);
+    if (visits == 0 && amafVisits == 0) {
+      return FIRST_PLAY_URGENCY;
+    }
+    double winRate = visits > 0 ? pool.getWins(child) / visits : 0;
+    double amafRate = amafVisits > 0 ? pool.getAmafWins(child) / amafVisits : 0;
+    double beta = amafVisits > 0
+        ? Math.sqrt(RAVE_EQUIVALENCE / (3.0 * visits + RAVE_EQUIVALENCE)) : 0;
+    return (1 - beta) * winRate + beta * amafRate
+        + EXPLORATION * Math.sqrt(logParentVisits / (visits + 1));
+  }
+
+  /**
+   * Count the result in the nodes of the path, and in the AMAF statistics of their children whose
+   * move the player on turn played later in the simulation.
+   *
+   * @param depth The depth of the last node of the path.
+   * @param plies The number of moves of the simulation.
+   * @param black The result for black: 1 for a win, 0.5 for a draw, 0 for a loss.
+   */
+  private void backPropagate(int depth, int plies, double black) {
+    Arrays.fill(amafColor, NOBODY);
+    for (int ply = plies - 1; ply > depth; ply--) {
+      markFirst(ply);
+    }
+    for (int d = depth; d >= 0; d--) {
+      if (d < plies) {
+        markFirst(d);
+      }
+      Stone toMove = color(d);
+      double result = toMove == Stone.BLACK ? black : 1 - black;
+      int node = path[d];
+      int first = pool.getFirstChild(node);
+      for (int child = first; first != NodePool.NONE && child < first + pool.getChildCount(node);
+          child++) {
+        int move = pool.getMove(child);
+        if (move != PASS && amafColor[move] == code(toMove)) {
+          pool.visitAmaf(child, result);
+        }
+      }
+      // the move into this node was made by the other player
+      pool.visit(node, 1 - result);
+    }
+  }
+
+  private void markFirst(int ply) {
+    if (moves[ply] != PASS) {
+      amafColor[moves[ply]] = code(color(ply));
+    }
+  }
+
+  private Stone color(int ply) {
+    return ply % 2 == 0 ? rootTurn : rootTurn.other();
+  }
+
+  private static byte code(Stone stone) {
+    return (byte) (stone == Stone.BLACK ? 1 : 2);
+  }
+
+  /**
+   * Get the most visited move of the root.
+   *
+   * @return The move, or null if no move has been simulated yet.
+   */
+  private GoMove bestMove(GoGame game) {
+    int first = pool.getFirstChild(root);
+    int best = NodePool.NONE;
+    for (int child = first; first != NodePool.NONE && child < first + pool.getChildCount(root);
+        child++) {
+      if (pool.getVisits(child) > 0
+          && (best == NodePool.NONE || pool.getVisits(child) > pool.getVisits(best))) {
+        best = child;
+      }
+    }
+    if (best == NodePool.NONE) {
+      return null;
+    }
+    int move = pool.getMove(best);
+    return move == PASS ? new GoMove(game.getTurn()) : new GoMove(game.getTurn(), move);
+  }
+}
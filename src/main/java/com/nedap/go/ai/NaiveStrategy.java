@@ -2,10 +2,29 @@ package com.nedap.go.ai;
 
 import com.nedap.go.model.Game;
 import com.nedap.go.model.Move;
+import java.util.random.RandomGenerator;
 
 public class NaiveStrategy implements Strategy {
 
     private static final String NAME = "Naive";
+    private final RandomGenerator random;
+
+    /**
+     * Construct the strategy with a generator of its own (see Randomness).
+     */
+    public NaiveStrategy() {
+        this(Randomness.stream());
+    }
+
+    /**
+     * Construct the strategy.
+     *
+     * @param random The generator to choose the moves with, used by this strategy only.
+     */
+    public NaiveStrategy(RandomGenerator random) {
+        this.random = random;
+    }
+
     /**
      * Get the name of the strategy used.
      *
@@ -24,7 +43,7 @@ public class NaiveStrategy implements Strategy {
      */
     @Override
     public Move determineMove(Game game) {
-        int moveIndex = (int) (Math.random()*game.getValidMoves().size());
+        int moveIndex = random.nextInt(game.getValidMoves().size());
         return game.getValidMoves().get(moveIndex);
     }
 }
@@ -0,0 +1,211 @@
+package com.nedap.go.ai;
+
+/**
+ * The nodes of a search tree in a fixed number of parallel arrays, one entry per node, instead of
+ * an object per node, so a search allocates nothing and the garbage collector has nothing to do.
+ *
+ * <p>
+ * A node holds its move, the position hash after it (0 until it is first visited), its visits and
+ * wins, its AMAF visits and wins (see MctsStrategy), and where its children are. The children of
+ * a node are allocated together, so they are a run of consecutive nodes. Nodes are only ever
+ * allocated, never freed one by one: once the pool is full, copySubtree moves the part of the tree
+ * still in use to another pool, leaving the rest behind.
+ * </p>
+ */
+public class NodePool {
+
+  public static final int NONE = -1;
+  /**
+   * The memory one node takes in the arrays.
+   */
+  public static final int BYTES_PER_NODE = 44;
+
+  private final int[] move;
+  private final long[] hash;
+  private final int[] firstChild;
+  private final int[] childCount;
+  private final int[] visits;
+  private final double[] wins;
+  private final int[] amafVisits;
+  private final double[] amafWins;
+  private int size;
+
+  /**
+   * Construct a pool using at most the given memory.
+   *
+   * @param bytes The memory for the pool, at least enough for 16 nodes is taken.
+   */
+  public NodePool(long bytes) {
+    int capacity = (int) Math.max(16, Math.min(bytes / BYTES_PER_NODE, 1 << 28));
+    move = new int[capacity];
+    hash = new long[capacity];
+    firstChild = new int[capacity];
+    childCount = new int[capacity];
+    visits = new int[capacity];
+    wins = new double[capacity];
+    amafVisits = new int[capacity];
+    amafWins = new double[capacity];
+  }
+
+  public int capacity() {
+    return move.length;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Forget all nodes.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Allocate consecutive nodes without statistics or children.
+   *
+   * @param count The number of nodes.
+   * @return The first of the nodes, or NONE if the pool has no room for them.
+   */
+  public int allocate(int count) {
+    if (size + count > move.length) {
+      return NONE;
+    }
+    int first = size;
+    for (int node = first; node < first + count; node++) {
+      move[node] = 0;
+      hash[node] = 0L;
+      firstChild[node] = NONE;
+      childCount[node] = 0;
+      visits[node] = 0;
+      wins[node] = 0;
+      amafVisits[node] = 0;
+      amafWins[node] = 0;
+    }
+    size += count;
+    return first;
+  }
+
+  /**
+   * Copy a node and everything below it to another pool, which is cleared first. The nodes are
+   * copied breadth first, the children of a node together as they were.
+   *
+   * @param root   The node to copy.
+   * @param target The pool to copy to.
+   * @return The copy of the node in the target. If the target has no room for everything, the
+   *     nodes that did not fit are left out, and the last ones copied lose their children.
+   */
+  public int copySubtree(int root, NodePool target) {
+    target.clear();
+    int copy = target.allocate(1);
+    copyNode(root, target, copy);
+    // the copies still point to the children in this pool, until their turn comes
+    for (int node = copy; node < target.size; node++) {
+      int from = target.firstChild[node];
+      if (from == NONE) {
+        continue;
+      }
+      int count = target.childCount[node];
+      int children = target.allocate(count);
+      if (children == NONE) {
+        // the nodes from here on keep no children
+        for (int leaf = node; leaf < target.size; leaf++) {
+          target.setChildren(leaf, NONE, 0);
+        }
+        break;
+      }
+      for (int i = 0; i < count; i++) {
+        copyNode(from + i, target, children + i);
+      }
+      target.firstChild[node] = children;
+    }
+    return copy;
+  }
+
+  private void copyNode(int from, NodePool target, int to) {
+    target.move[to] = move[from];
+    target.hash[to] = hash[from];
+    target.firstChild[to] = firstChild[from];
+    target.childCount[to] = childCount[from];
+    target.visits[to] = visits[from];
+    target.wins[to] = wins[from];
+    target.amafVisits[to] = amafVisits[from];
+    target.amafWins[to] = amafWins[from];
+  }
+
+  public int getMove(int node) {
+    return move[node];
+  }
+
+  public void setMove(int node, int move) {
+    this.move[node] = move;
+  }
+
+  public long getHash(int node) {
+    return hash[node];
+  }
+
+  public void setHash(int node, long hash) {
+    this.hash[node] = hash;
+  }
+
+  public int getFirstChild(int node) {
+    return firstChild[node];
+  }
+
+  public int getChildCount(int node) {
+    return childCount[node];
+  }
+
+  /**
+   * Attach children to a node.
+   *
+   * @param node  The node.
+   * @param first The first of the children, allocated together.
+   * @param count The number of children.
+   */
+  public void setChildren(int node, int first, int count) {
+    firstChild[node] = first;
+    childCount[node] = count;
+  }
+
+  public int getVisits(int node) {
+    return visits[node];
+  }
+
+  public double getWins(int node) {
+    return wins[node];
+  }
+
+  public int getAmafVisits(int node) {
+    return amafVisits[node];
+  }
+
+  public double getAmafWins(int node) {
+    return amafWins[node];
+  }
+
+  /**
+   * Count a visit of a node.
+   *
+   * @param node   The node.
+   * @param result 1 for a win of the player who made the move of the node, 0.5 for a draw, 0 for
+   *               a loss.
+   */
+  public void visit(int node, double result) {
+    visits[node]++;
+    wins[node] += result;
+  }
+
+  /**
+   * Count a simulation in which the move of a node was played later on by the same player.
+   *
+   * @param node   The node.
+   * @param result As for visit.
+   */
+  public void visitAmaf(int node, double result) {
+    amafVisits[node]++;
+    amafWins[node] += result;
+  }
+}
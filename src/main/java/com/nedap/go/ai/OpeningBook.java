@@ -0,0 +1,248 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Move;
+import com.nedap.go.model.Stone;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the moves a strategy chose, keyed by position, so the openings that repeat in every
+ * game are computed once.
+ *
+ * <p>
+ * Positions that are rotations or reflections of each other share an entry: the key is the
+ * smallest Zobrist hash over the 8 symmetries of the board, together with the dimension and the
+ * side to move, and the move is stored in the orientation of that key. The book holds at most a
+ * fixed number of positions and forgets the least recently used one when full. It can be saved to
+ * and loaded from a file, least recently used position first, so a reloaded book evicts in the
+ * same order.
+ * </p>
+ */
+public class OpeningBook {
+
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+  private static final int MAGIC = 0x474F4231;
+  private static final int SYMMETRIES = 8;
+  private static final Map<String, OpeningBook> SHARED = new ConcurrentHashMap<>();
+  private static final Map<Integer, int[][]> TRANSFORMS = new ConcurrentHashMap<>();
+
+  private final int capacity;
+  private final LinkedHashMap<Long, Short> entries;
+
+  /**
+   * Construct an empty book.
+   *
+   * @param capacity The number of positions kept at most.
+   */
+  public OpeningBook(int capacity) {
+    this.capacity = capacity;
+    entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, Short> eldest) {
+        return size() > OpeningBook.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * Get the book shared by every player of a strategy. When the system property go.book.dir is
+   * set, the book is loaded from the file named after the strategy in that directory and saved
+   * back when the program exits; go.book.entries sets its capacity.
+   *
+   * @param strategyName The name of the strategy filling the book.
+   * @return The book of the strategy.
+   */
+  public static OpeningBook shared(String strategyName) {
+    return SHARED.computeIfAbsent(strategyName, OpeningBook::createShared);
+  }
+
+  private static OpeningBook createShared(String strategyName) {
+    int capacity = Integer.getInteger("go.book.entries", DEFAULT_CAPACITY);
+    String directory = System.getProperty("go.book.dir");
+    if (directory == null) {
+      return new OpeningBook(capacity);
+    }
+    Path file = Path.of(directory, strategyName + ".book");
+    OpeningBook book;
+    try {
+      book = load(file, capacity);
+    } catch (IOException e) {
+      // a damaged book is only a lost cache, start over and overwrite it on exit
+      book = new OpeningBook(capacity);
+    }
+    OpeningBook saved = book;
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        saved.save(file);
+      } catch (IOException ignored) {
+        // the book is a cache, losing it only costs time
+      }
+    }));
+    return book;
+  }
+
+  /**
+   * Load a book from a file written by save. A missing file gives an empty book.
+   *
+   * @param file     The file to read.
+   * @param capacity The number of positions kept at most.
+   * @return The book.
+   * @throws IOException If the file cannot be read or is not a book.
+   */
+  public static OpeningBook load(Path file, int capacity) throws IOException {
+    OpeningBook book = new OpeningBook(capacity);
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException(file + " is not an opening book");
+      }
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        book.entries.put(in.readLong(), in.readShort());
+      }
+    } catch (NoSuchFileException e) {
+      return book;
+    } catch (EOFException e) {
+      throw new IOException(file + " is truncated", e);
+    }
+    return book;
+  }
+
+  /**
+   * Save the book, replacing the file at once so a crash never leaves half a book.
+   *
+   * @param file The file to write.
+   * @throws IOException If the file cannot be written.
+   */
+  public synchronized void save(Path file) throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(entries.size());
+      for (Map.Entry<Long, Short> entry : entries.entrySet()) {
+        out.writeLong(entry.getKey());
+        out.writeShort(entry.getValue());
+      }
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Find the move stored for the position of the game, turned to the orientation of its board.
+   *
+   * @param game The game whose position is looked up.
+   * @return The move, or null if the position is not in the book.
+   */
+  public GoMove lookup(GoGame game) {
+    Board board = game.getBoard();
+    int[][] transforms = transforms(board.getDim());
+    int symmetry = canonicalSymmetry(board, transforms);
+    Short stored;
+    synchronized (this) {
+      stored = entries.get(key(board, transforms[symmetry], game.getTurn().getStone()));
+    }
+    if (stored == null) {
+      return null;
+    }
+    int[] transform = transforms[symmetry];
+    for (int index = 0; index < transform.length; index++) {
+      if (transform[index] == stored) {
+        return new GoMove(game.getTurn(), index);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remember the move chosen in the position of the game. Passes are not stored, since whether to
+   * pass depends on more than the position.
+   *
+   * @param game The game before the move.
+   * @param move The move chosen.
+   */
+  public void store(GoGame game, Move move) {
+    if (!(move instanceof GoMove goMove) || goMove.isPass()) {
+      return;
+    }
+    Board board = game.getBoard();
+    int[][] transforms = transforms(board.getDim());
+    int[] transform = transforms[canonicalSymmetry(board, transforms)];
+    long key = key(board, transform, game.getTurn().getStone());
+    synchronized (this) {
+      entries.put(key, (short) transform[goMove.getIndex()]);
+    }
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  private static int canonicalSymmetry(Board board, int[][] transforms) {
+    int best = 0;
+    long bestHash = hash(board, transforms[0]);
+    for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++) {
+      long hash = hash(board, transforms[symmetry]);
+      if (Long.compareUnsigned(hash, bestHash) < 0) {
+        best = symmetry;
+        bestHash = hash;
+      }
+    }
+    return best;
+  }
+
+  private static long key(Board board, int[] transform, Stone turn) {
+    // the side to move is hashed as a stone on a virtual intersection just past the board
+    return hash(board, transform) ^ Board.zobrist(transform.length, turn);
+  }
+
+  private static long hash(Board board, int[] transform) {
+    long hash = 0L;
+    for (int index = 0; index < transform.length; index++) {
+      hash ^= Board.zobrist(transform[index], board.getField(index));
+    }
+    return hash;
+  }
+
+  /**
+   * The 8 symmetries of a board of the given dimension, as tables from an index to the index it is
+   * moved to. Symmetry 0 is the identity.
+   */
+  private static int[][] transforms(int dim) {
+    return TRANSFORMS.computeIfAbsent(dim, d -> {
+      int[][] transforms = new int[SYMMETRIES][d * d];
+      for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+        for (int row = 0; row < d; row++) {
+          for (int col = 0; col < d; col++) {
+            int r = (symmetry & 4) == 0 ? row : col;
+            int c = (symmetry & 4) == 0 ? col : row;
+            r = (symmetry & 1) == 0 ? r : d - 1 - r;
+            c = (symmetry & 2) == 0 ? c : d - 1 - c;
+            transforms[symmetry][row * d + col] = r * d + c;
+          }
+        }
+      }
+      return transforms;
+    });
+  }
+}
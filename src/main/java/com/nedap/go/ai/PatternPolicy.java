@@ -0,0 +1,198 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.Neighbours;
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses moves at random, each empty intersection with a weight looked up by its 3x3 pattern (see
+ * Board.getPattern), as playouts do.
+ *
+ * <p>
+ * The board keeps the pattern of every intersection up to date as stones are placed and captured,
+ * so weighing a candidate is one table read. A move is sampled by rejection: an intersection is
+ * drawn uniformly and kept with a chance of its weight over the largest weight, until one is kept
+ * and legal. As long as the board has empty intersections with fair weights this takes a few draws
+ * per move, whatever the size of the board, instead of listing all valid moves. When the draws
+ * keep failing, e.g. near the end of a game, the weights of all empty intersections are summed up
+ * and one is chosen exactly. The policy passes once no intersection has a weight left.
+ * </p>
+ *
+ * <p>
+ * The weights are for black to play; those for white follow by swapping the colors. The default
+ * table rewards contact with the opponent and avoids filling own eyes and empty edges; any other
+ * table, e.g. learned from self-play samples, can be given instead.
+ * </p>
+ */
+public class PatternPolicy {
+
+  /**
+   * The number of patterns: two bits for each of the eight intersections around.
+   */
+  public static final int PATTERNS = 1 << 2 * Neighbours.AROUND;
+  public static final int MAX_WEIGHT = 100;
+  // draws per intersection of the board before choosing exactly
+  private static final int TRIES = 2;
+  private static final int[] ORTHOGONAL = {1, 3, 4, 6};
+  private static final int[] DIAGONAL = {0, 2, 5, 7};
+
+  private final int[] black;
+  private final int[] white;
+
+  /**
+   * Construct the policy with the default weights.
+   */
+  public PatternPolicy() {
+    this(defaultWeights());
+  }
+
+  /**
+   * Construct the policy.
+   *
+   * @param weights The weight of every pattern for black to play, from 0 to MAX_WEIGHT.
+   */
+  public PatternPolicy(int[] weights) {
+    if (weights.length != PATTERNS) {
+      throw new IllegalArgumentException("Expected " + PATTERNS + " weights");
+    }
+    black = weights.clone();
+    white = new int[PATTERNS];
+    for (int pattern = 0; pattern < PATTERNS; pattern++) {
+      if (black[pattern] < 0 || black[pattern] > MAX_WEIGHT) {
+        throw new IllegalArgumentException("Weight " + black[pattern] + " of pattern " + pattern);
+      }
+      white[swapColors(pattern)] = black[pattern];
+    }
+  }
+
+  /**
+   * Swap black and white in a pattern.
+   *
+   * @param pattern The pattern.
+   * @return The pattern with every black stone white and every white stone black.
+   */
+  public static int swapColors(int pattern) {
+    int swapped = 0;
+    for (int i = 0; i < Neighbours.AROUND; i++) {
+      int code = pattern >> 2 * i & 3;
+      if (code == 1 || code == 2) {
+        code = 3 - code;
+      }
+      swapped |= code << 2 * i;
+    }
+    return swapped;
+  }
+
+  /**
+   * Make the default table: a weight per pattern for black to play.
+   *
+   * @return The weights.
+   */
+  public static int[] defaultWeights() {
+    int own = Board.patternCode(Stone.BLACK);
+    int opponent = Board.patternCode(Stone.WHITE);
+    int edge = Board.patternCode(null);
+    int[] weights = new int[PATTERNS];
+    for (int pattern = 0; pattern < PATTERNS; pattern++) {
+      int ownOrthogonal = count(pattern, ORTHOGONAL, own);
+      int opponentOrthogonal = count(pattern, ORTHOGONAL, opponent);
+      int edgeOrthogonal = count(pattern, ORTHOGONAL, edge);
+      int opponentDiagonal = count(pattern, DIAGONAL, opponent);
+      int edgeDiagonal = count(pattern, DIAGONAL, edge);
+      int weight;
+      if (ownOrthogonal + edgeOrthogonal == 4) {
+        // an eye of our own, false when the opponent holds enough of its corners
+        boolean falseEye = opponentDiagonal >= (edgeDiagonal > 0 ? 1 : 2);
+        weight = falseEye ? 2 : 0;
+      } else if (opponentOrthogonal + edgeOrthogonal == 4) {
+        // an eye of the opponent, only worth it when it captures
+        weight = 1;
+      } else if (edgeOrthogonal > 0 && count(pattern, ORTHOGONAL, 0) + count(pattern, DIAGONAL, 0)
+          + edgeOrthogonal + edgeDiagonal == Neighbours.AROUND) {
+        // an empty edge
+        weight = 2;
+      } else {
+        weight = 10 + 20 * opponentOrthogonal + 6 * ownOrthogonal + 4 * opponentDiagonal;
+        if (ownOrthogonal > 0 && opponentOrthogonal > 0) {
+          // hane, cut or block
+          weight += 20;
+        }
+      }
+      weights[pattern] = Math.min(weight, MAX_WEIGHT);
+    }
+    return weights;
+  }
+
+  private static int count(int pattern, int[] slots, int code) {
+    int count = 0;
+    for (int slot : slots) {
+      if ((pattern >> 2 * slot & 3) == code) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Get the weight of a pattern.
+   *
+   * @param pattern The pattern around the intersection.
+   * @param toMove  The color to play.
+   * @return The weight, from 0 to MAX_WEIGHT.
+   */
+  public int weight(int pattern, Stone toMove) {
+    return (toMove == Stone.BLACK ? black : white)[pattern];
+  }
+
+  /**
+   * Choose a move for the player whose turn it is.
+   *
+   * @param game   The game.
+   * @param random The generator to draw with.
+   * @return A valid move, a pass if no intersection has a weight.
+   */
+  public GoMove choose(GoGame game, RandomGenerator random) {
+    Board board = game.getBoard();
+    Player player = game.getTurn();
+    int[] weights = player.getStone() == Stone.BLACK ? black : white;
+    int size = board.getDim() * board.getDim();
+    for (int tries = 0; tries < TRIES * size; tries++) {
+      int index = random.nextInt(size);
+      if (board.isEmpty(index) && random.nextInt(MAX_WEIGHT) < weights[board.getPattern(index)]) {
+        GoMove move = new GoMove(player, index);
+        if (game.isValidMove(move)) {
+          return move;
+        }
+      }
+    }
+    return chooseExactly(game, weights, random);
+  }
+
+  private GoMove chooseExactly(GoGame game, int[] weights, RandomGenerator random) {
+    Board board = game.getBoard();
+    Player player = game.getTurn();
+    int size = board.getDim() * board.getDim();
+    int[] cumulative = new int[size];
+    int total = 0;
+    for (int index = 0; index < size; index++) {
+      if (board.isEmpty(index) && weights[board.getPattern(index)] > 0
+          && game.isValidMove(new GoMove(player, index))) {
+        total += weights[board.getPattern(index)];
+      }
+      cumulative[index] = total;
+    }
+    if (total == 0) {
+      return new GoMove(player);
+    }
+    int target = random.nextInt(total);
+    int index = 0;
+    while (cumulative[index] <= target) {
+      index++;
+    }
+    return new GoMove(player, index);
+  }
+}
@@ -0,0 +1,65 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.Game;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.Move;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays the move of a playout policy (see PatternPolicy) directly: random like the naive strategy,
+ * but weighted by the 3x3 pattern around each intersection.
+ */
+public class PatternStrategy implements Strategy {
+
+  private static final String NAME = "Pattern";
+  private final PatternPolicy policy;
+  private final RandomGenerator random;
+
+  /**
+   * Construct the strategy with the default weights and a generator of its own (see Randomness).
+   */
+  public PatternStrategy() {
+    this(Randomness.stream());
+  }
+
+  /**
+   * Construct the strategy with the default weights.
+   *
+   * @param random The generator to choose the moves with, used by this strategy only.
+   */
+  public PatternStrategy(RandomGenerator random) {
+    this(new PatternPolicy(), random);
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param policy The policy to choose the moves with.
+   * @param random The generator to choose the moves with, used by this strategy only.
+   */
+  public PatternStrategy(PatternPolicy policy, RandomGenerator random) {
+    this.policy = policy;
+    this.random = random;
+  }
+
+  /**
+   * Get the name of the strategy used.
+   *
+   * @return The name of the strategy.
+   */
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * Determine the move based on the chosen strategy
+   *
+   * @param game the game in which the move should be determined
+   * @return the move.
+   */
+  @Override
+  public Move determineMove(Game game) {
+    return policy.choose((GoGame) game, random);
+  }
+}
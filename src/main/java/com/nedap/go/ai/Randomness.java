@@ -0,0 +1,35 @@
+package com.nedap.go.ai;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The source of the random generators of strategies that are not given one.
+ *
+ * <p>
+ * Every strategy draws from a generator of its own, split off a master generator when the strategy
+ * is made, instead of all of them contending for the one behind Math.random. A generator is only
+ * used by the search of its strategy, one move at a time, so it needs no locking. The master is
+ * seeded by the system property go.seed if set, which makes the generators the same from run to
+ * run as long as the strategies are made in the same order.
+ * </p>
+ */
+public final class Randomness {
+
+  private static final SplittableRandom MASTER = new SplittableRandom(
+      Long.getLong("go.seed", System.nanoTime() ^ System.identityHashCode(Randomness.class)));
+
+  private Randomness() {
+  }
+
+  /**
+   * Split off a generator for a new strategy.
+   *
+   * @return A generator independent of all others split off before.
+   */
+  public static RandomGenerator stream() {
+    synchronized (MASTER) {
+      return MASTER.split();
+    }
+  }
+}
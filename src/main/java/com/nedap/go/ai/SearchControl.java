@@ -0,0 +1,91 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.Move;
+
+/**
+ * The time a strategy has for a move, a way to stop it early, and the best move it found so far.
+ *
+ * <p>
+ * A strategy checks shouldStop as it goes and offers every move better than the ones before, so
+ * whoever asked for the move can take the latest offer when the time is up, even if the strategy
+ * has not returned yet.
+ * </p>
+ */
+public final class SearchControl {
+
+  private final long deadline;
+  private final boolean bounded;
+  private volatile boolean cancelled;
+  private volatile Move bestSoFar;
+
+  private SearchControl(long deadline, boolean bounded) {
+    this.deadline = deadline;
+    this.bounded = bounded;
+  }
+
+  /**
+   * Give the strategy the given time from now.
+   *
+   * @param millis The time in milliseconds.
+   * @return The control.
+   */
+  public static SearchControl within(long millis) {
+    return new SearchControl(System.nanoTime() + millis * 1_000_000, true);
+  }
+
+  /**
+   * Give the strategy all the time it wants, until cancelled.
+   *
+   * @return The control.
+   */
+  public static SearchControl unlimited() {
+    return new SearchControl(0, false);
+  }
+
+  /**
+   * Check whether the strategy should return its best move now.
+   *
+   * @return True if cancelled or past the deadline.
+   */
+  public boolean shouldStop() {
+    return cancelled || bounded && System.nanoTime() - deadline >= 0;
+  }
+
+  /**
+   * Ask the strategy to stop as soon as it can.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Get the time left.
+   *
+   * @return The nanoseconds until the deadline, Long.MAX_VALUE if there is none.
+   */
+  public long remainingNanos() {
+    return bounded ? Math.max(0, deadline - System.nanoTime()) : Long.MAX_VALUE;
+  }
+
+  /**
+   * Offer the best move found so far, replacing the one offered before.
+   *
+   * @param move The move.
+   */
+  public void offer(Move move) {
+    bestSoFar = move;
+  }
+
+  /**
+   * Get the move offered last.
+   *
+   * @return The move, or null if none was offered.
+   */
+  public Move bestSoFar() {
+    return bestSoFar;
+  }
+}
@@ -8,9 +8,27 @@ import com.nedap.go.model.Stone;
 import com.nedap.go.model.utils.InvalidMoveException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 public class SmartStrategy implements Strategy{
   private static final String NAME = "Smart";
+  private final RandomGenerator random;
+
+  /**
+   * Construct the strategy with a generator of its own (see Randomness).
+   */
+  public SmartStrategy() {
+    this(Randomness.stream());
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param random The generator to choose among equal moves with, used by this strategy only.
+   */
+  public SmartStrategy(RandomGenerator random) {
+    this.random = random;
+  }
   /**
    * Get the name of the strategy used.
    *
@@ -28,19 +46,35 @@ public class SmartStrategy implements Strategy{
    * @return the move.
    */
   public Move determineMove(Game game) {
+    return determineMove(game, SearchControl.unlimited());
+  }
+
+  /**
+   * Determine the move based on the chosen strategy, giving up the search for a scoring move when
+   * the control says to stop. A random move is offered before searching.
+   *
+   * @param game    the game in which the move should be determined
+   * @param control the deadline and cancellation of the search
+   * @return the move.
+   */
+  @Override
+  public Move determineMove(Game game, SearchControl control) {
     Move scoringMove;
     Move opponentNotScoring;
     GoMove lastMove = (GoMove) ((GoGame)game).getLastMove();
     if(lastMove != null && lastMove.isPass() && betterScore(game)){
       return new GoMove(game.getTurn());
     }
+    control.offer(randomMove((List<Move>) game.getValidMoves()));
     if (game.getValidMoves().size() < 144) {
       try {
-        scoringMove = findScoringMove(game);
-        opponentNotScoring = findOpponentNotScoring(game);
+        scoringMove = findScoringMove(game, control);
+        opponentNotScoring = findOpponentNotScoring(game, control);
       } catch (InvalidMoveException e) {
         throw new RuntimeException(e);
       }
+      if (control.shouldStop())
+        return control.bestSoFar();
       if (scoringMove != null)
         return scoringMove;
       else if (opponentNotScoring != null)
@@ -65,14 +99,16 @@ public class SmartStrategy implements Strategy{
    * @return The move that does not give a scoring chance. Null if the opponents scoring
    * is inevitable.
    */
-  private Move findOpponentNotScoring(Game game) throws InvalidMoveException {
+  private Move findOpponentNotScoring(Game game, SearchControl control)
+      throws InvalidMoveException {
     List<Move> validMoves = (List<Move>) game.getValidMoves();
     Iterator<Move> iterator = validMoves.iterator();
     while(iterator.hasNext()){
+      if (control.shouldStop()) return null;
       Move move = iterator.next();
       Game gameCopy = game.deepCopy();
       gameCopy.doMove(move);
-      if(findScoringMove(gameCopy) != null) iterator.remove();
+      if(findScoringMove(gameCopy, control) != null) iterator.remove();
     }
     if (validMoves.isEmpty()) return null;
     return randomMove(validMoves);
@@ -83,11 +119,12 @@ public class SmartStrategy implements Strategy{
    * @param game The game object.
    * @return The move that scores or null if scoring is impossible in one move
    */
-  private Move findScoringMove(Game game) throws InvalidMoveException {
+  private Move findScoringMove(Game game, SearchControl control) throws InvalidMoveException {
     List<Move> validMoves = (List<Move>) game.getValidMoves();
     Iterator<Move> iterator = validMoves.iterator();
     Stone stone = game.getTurn().getStone();
     while(iterator.hasNext()) {
+      if (control.shouldStop()) return null;
       int score = ((GoGame) game).getScore(stone);
       Move move = iterator.next();
       Game gameCopy = game.deepCopy();
@@ -98,8 +135,8 @@ public class SmartStrategy implements Strategy{
     if (validMoves.isEmpty()) return null;
     return randomMove(validMoves);
   }
-  private static Move randomMove(List<Move> validMoves) {
-    int index = (int) (Math.random() * validMoves.size());
+  private Move randomMove(List<Move> validMoves) {
+    int index = random.nextInt(validMoves.size());
     return validMoves.get(index);
   }
 }
@@ -21,4 +21,35 @@ public interface Strategy {
      */
     Move determineMove(Game game);
 
+    /**
+     * Determine the move within the time of the control. A strategy that searches should check
+     * control.shouldStop as it goes, offer the best move found so far to the control, and return
+     * it once told to stop. By default the control is ignored, which is fine for strategies that
+     * answer at once.
+     * @param game the game in which the move should be determined
+     * @param control the deadline and cancellation of the search
+     * @return the move.
+     */
+    default Move determineMove(Game game, SearchControl control) {
+        return determineMove(game);
+    }
+
+    /**
+     * Think about the game while the opponent is on turn, until the control is cancelled, so the
+     * next determineMove can reuse the work. Only worth it for strategies that keep what they
+     * found, e.g. in a transposition table; by default nothing is done.
+     * @param game the game, with the opponent on turn
+     * @param control the cancellation of the pondering
+     */
+    default void ponder(Game game, SearchControl control) {
+    }
+
+    /**
+     * Learn a move just played in the game, by either player, e.g. to keep the part of a search
+     * tree below it for the next determineMove. By default nothing is done.
+     * @param move the move played
+     */
+    default void observeMove(Move move) {
+    }
+
 }
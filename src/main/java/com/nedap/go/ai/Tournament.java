@@ -0,0 +1,362 @@
+package com.nedap.go.ai;
+
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.Move;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.InvalidMoveException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays computer players against each other without a user interface, to compare strategies.
+ *
+ * <p>
+ * Every pair of strategies plays a number of games, each game a task on a thread pool as large as
+ * the machine has processors. A game has its own GoGame and its own players and strategies, built
+ * for it, so nothing is shared between the threads. The colors alternate, and every two games of a
+ * pair start from the same few random opening moves. The openings and the generators of the
+ * strategies all derive from the seed of the tournament, split off in the order the games are
+ * made, so a run with the same seed plays the same games whatever the number of threads, as far
+ * as the strategies answer within their time. A game that is not over after the move limit is
+ * decided by the score.
+ * </p>
+ *
+ * <p>
+ * For each pair the score of the first strategy (a win counts 1, a draw half) is converted to an
+ * Elo difference, with a 95% confidence interval from the spread of the game results. Run from
+ * the command line with e.g. {@code --strategies Naive,Smart,Better --games 200 --board 9}.
+ * </p>
+ */
+public class Tournament {
+
+  /**
+   * The strategies known by name on the command line.
+   */
+  public static final Map<String, Function<RandomGenerator, Strategy>> STRATEGIES = Map.of(
+      "Naive", NaiveStrategy::new,
+      "Smart", SmartStrategy::new,
+      "Better", BetterStrategy::new,
+      "Pattern", PatternStrategy::new,
+      "AlphaBeta", random -> new AlphaBetaStrategy(),
+      "Mcts", MctsStrategy::new,
+      "Pass", random -> new PassStrategy());
+  // scores this close to 0 or 1 are reported as the Elo difference of this score instead
+  private static final double SCORE_LIMIT = 0.001;
+  private static final double Z_95 = 1.96;
+
+  private final Map<String, Function<RandomGenerator, Strategy>> entrants;
+  private int gamesPerPair = 100;
+  private int boardDim = 9;
+  private long timeBudget = 1000;
+  private long seed = 42;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private int openingMoves = 4;
+  private int maxMoves = -1;
+
+  /**
+   * Construct a tournament between the given strategies.
+   *
+   * @param entrants The strategies by name; a new strategy is made for every game, with the
+   *                 generator it is to use.
+   */
+  public Tournament(Map<String, Function<RandomGenerator, Strategy>> entrants) {
+    this.entrants = new LinkedHashMap<>(entrants);
+  }
+
+  /**
+   * Runs a tournament from the command line and prints the standings.
+   *
+   * <p>
+   * Options (all optional): {@code --strategies A,B,... --games N --board N --budget MS --seed N
+   * --threads N --openings N --max-moves N}
+   * </p>
+   *
+   * @param args The command line options.
+   */
+  public static void main(String[] args) {
+    Map<String, Function<RandomGenerator, Strategy>> entrants = new LinkedHashMap<>();
+    String names = BatchRunner.option(args, "--strategies", "Naive,Smart,Better");
+    for (String name : names.split(",")) {
+      Function<RandomGenerator, Strategy> strategy = STRATEGIES.get(name);
+      if (strategy == null) {
+        throw new IllegalArgumentException("Unknown strategy " + name);
+      }
+      entrants.put(name, strategy);
+    }
+    Tournament tournament = new Tournament(entrants);
+    tournament.setGamesPerPair(Integer.parseInt(BatchRunner.option(args, "--games", "100")));
+    tournament.setBoardDim(Integer.parseInt(BatchRunner.option(args, "--board", "9")));
+    tournament.setTimeBudget(Long.parseLong(BatchRunner.option(args, "--budget", "1000")));
+    tournament.setSeed(Long.parseLong(BatchRunner.option(args, "--seed", "42")));
+    tournament.setThreads(Integer.parseInt(BatchRunner.option(args, "--threads",
+        String.valueOf(Runtime.getRuntime().availableProcessors()))));
+    tournament.setOpeningMoves(Integer.parseInt(BatchRunner.option(args, "--openings", "4")));
+    tournament.setMaxMoves(Integer.parseInt(BatchRunner.option(args, "--max-moves", "-1")));
+    tournament.run().print(System.out);
+    System.exit(0);
+  }
+
+  public void setGamesPerPair(int gamesPerPair) {
+    this.gamesPerPair = gamesPerPair;
+  }
+
+  public void setBoardDim(int boardDim) {
+    this.boardDim = boardDim;
+  }
+
+  /**
+   * Set the time a player has for every move.
+   *
+   * @param timeBudget The time in milliseconds.
+   */
+  public void setTimeBudget(long timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * Set the number of random moves every game starts with, so games between the same strategies
+   * do not all go the same way.
+   *
+   * @param openingMoves The number of moves, played alternately for both colors.
+   */
+  public void setOpeningMoves(int openingMoves) {
+    this.openingMoves = openingMoves;
+  }
+
+  /**
+   * Set the number of moves after which a game is decided by the score.
+   *
+   * @param maxMoves The number of moves, or -1 for four times the number of intersections.
+   */
+  public void setMaxMoves(int maxMoves) {
+    this.maxMoves = maxMoves;
+  }
+
+  /**
+   * Play all games and wait for them to finish.
+   *
+   * @return The results.
+   */
+  public Results run() {
+    List<String> names = new ArrayList<>(entrants.keySet());
+    List<Pairing> pairings = new ArrayList<>();
+    for (int i = 0; i < names.size(); i++) {
+      for (int j = i + 1; j < names.size(); j++) {
+        pairings.add(new Pairing(names.get(i), names.get(j)));
+      }
+    }
+    SplittableRandom master = new SplittableRandom(seed);
+    long start = System.nanoTime();
+    List<Callable<GameResult>> games = new ArrayList<>();
+    for (Pairing pairing : pairings) {
+      long openingSeed = 0;
+      for (int game = 0; game < gamesPerPair; game++) {
+        // both games of a couple play the same opening, with the colors swapped
+        if (game % 2 == 0) {
+          openingSeed = master.nextLong();
+        }
+        boolean firstIsBlack = game % 2 == 0;
+        SplittableRandom opening = new SplittableRandom(openingSeed);
+        SplittableRandom players = master.split();
+        games.add(() -> play(pairing, firstIsBlack, opening, players));
+      }
+    }
+    List<GameResult> results = BatchRunner.runAll(threads, games);
+    long moves = 0;
+    for (GameResult result : results) {
+      moves += result.moves();
+    }
+    return new Results(standings(pairings, results), results.size(), moves,
+        System.nanoTime() - start);
+  }
+
+  private GameResult play(Pairing pairing, boolean firstIsBlack, SplittableRandom opening,
+      SplittableRandom players) {
+    String blackName = firstIsBlack ? pairing.first() : pairing.second();
+    String whiteName = firstIsBlack ? pairing.second() : pairing.first();
+    ComputerPlayer black = player(blackName, Stone.BLACK, players.split());
+    ComputerPlayer white = player(whiteName, Stone.WHITE, players.split());
+    GoGame game = new GoGame(black, white, boardDim);
+    int limit = maxMoves < 0 ? 4 * boardDim * boardDim : maxMoves;
+    int moves = 0;
+    Player forfeit = null;
+    for (; moves < openingMoves && !game.isGameover(); moves++) {
+      List<? extends Move> valid = game.getValidMoves();
+      doMove(game, valid.get(opening.nextInt(valid.size())));
+    }
+    for (; moves < limit && !game.isGameover() && forfeit == null; moves++) {
+      ComputerPlayer turn = (ComputerPlayer) game.getTurn();
+      try {
+        game.doMove(turn.determineMove(game));
+      } catch (InvalidMoveException e) {
+        forfeit = turn;
+      }
+    }
+    Stone winner;
+    if (forfeit != null) {
+      winner = ((ComputerPlayer) forfeit).getStone().other();
+    } else {
+      int blackScore = game.getScore(Stone.BLACK);
+      int whiteScore = game.getScore(Stone.WHITE);
+      winner = blackScore > whiteScore ? Stone.BLACK
+          : whiteScore > blackScore ? Stone.WHITE : Stone.EMPTY;
+    }
+    double firstScore = winner == Stone.EMPTY ? 0.5
+        : (winner == Stone.BLACK) == firstIsBlack ? 1 : 0;
+    return new GameResult(pairing, firstScore, moves);
+  }
+
+  private ComputerPlayer player(String name, Stone stone, RandomGenerator random) {
+    ComputerPlayer player = new ComputerPlayer(name + "-" + stone,
+        entrants.get(name).apply(random), stone);
+    player.setTimeBudget(timeBudget);
+    return player;
+  }
+
+  private static void doMove(GoGame game, Move move) {
+    try {
+      game.doMove(move);
+    } catch (InvalidMoveException e) {
+      // the move came from the valid moves of the same position
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static List<Standing> standings(List<Pairing> pairings, List<GameResult> results) {
+    List<Standing> standings = new ArrayList<>();
+    for (Pairing pairing : pairings) {
+      int wins = 0;
+      int draws = 0;
+      int losses = 0;
+      for (GameResult result : results) {
+        if (result.pairing().equals(pairing)) {
+          if (result.firstScore() == 1) {
+            wins++;
+          } else if (result.firstScore() == 0) {
+            losses++;
+          } else {
+            draws++;
+          }
+        }
+      }
+      standings.add(new Standing(pairing.first(), pairing.second(), wins, draws, losses));
+    }
+    return standings;
+  }
+
+  private record Pairing(String first, String second) {
+
+  }
+
+  private record GameResult(Pairing pairing, double firstScore, int moves) {
+
+  }
+
+  /**
+   * The games between two strategies, from the view of the first.
+   *
+   * @param first  The name of the first strategy.
+   * @param second The name of the second strategy.
+   * @param wins   The games the first strategy won.
+   * @param draws  The games drawn.
+   * @param losses The games the first strategy lost.
+   */
+  public record Standing(String first, String second, int wins, int draws, int losses) {
+
+    public int games() {
+      return wins + draws + losses;
+    }
+
+    /**
+     * Get the score of the first strategy.
+     *
+     * @return The share of the points, a win counting 1 and a draw half, between 0 and 1.
+     */
+    public double score() {
+      return games() == 0 ? 0.5 : (wins + 0.5 * draws) / games();
+    }
+
+    /**
+     * Get the Elo difference that predicts the score of the first strategy.
+     *
+     * @return The difference in Elo points, positive if the first strategy is stronger.
+     */
+    public double elo() {
+      return elo(score());
+    }
+
+    /**
+     * Get the 95% confidence interval of the Elo difference, from the standard error of the mean
+     * score over the games.
+     *
+     * @return The lower and upper bound.
+     */
+    public double[] eloInterval() {
+      int games = games();
+      if (games == 0) {
+        return new double[]{elo(0), elo(1)};
+      }
+      double score = score();
+      double variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2)
+          + losses * Math.pow(score, 2)) / games;
+      double margin = Z_95 * Math.sqrt(variance / games);
+      return new double[]{elo(score - margin), elo(score + margin)};
+    }
+
+    private static double elo(double score) {
+      double bounded = Math.max(SCORE_LIMIT, Math.min(1 - SCORE_LIMIT, score));
+      return -400 * Math.log10(1 / bounded - 1);
+    }
+  }
+
+  /**
+   * The outcome of a tournament.
+   *
+   * @param standings   The standings of every pair of strategies.
+   * @param games       The number of games played.
+   * @param moves       The number of moves played in all games.
+   * @param elapsedNanos The wall clock time of the tournament.
+   */
+  public record Results(List<Standing> standings, int games, long moves, long elapsedNanos) {
+
+    public double gamesPerSecond() {
+      return games / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Print the standings and the speed.
+     *
+     * @param console The stream to print on.
+     */
+    public void print(PrintStream console) {
+      console.printf(Locale.ROOT, "%-24s %6s %6s %6s %6s %8s %7s %17s%n", "pair", "games", "wins",
+          "draws", "losses", "score", "elo", "95% interval");
+      for (Standing standing : standings) {
+        double[] interval = standing.eloInterval();
+        console.printf(Locale.ROOT, "%-24s %6d %6d %6d %6d %7.1f%% %+7.0f [%+6.0f, %+6.0f]%n",
+            standing.first() + " vs " + standing.second(), standing.games(), standing.wins(),
+            standing.draws(), standing.losses(), 100 * standing.score(), standing.elo(),
+            interval[0], interval[1]);
+      }
+      console.printf(Locale.ROOT, "%d games, %d moves in %.1f s: %.2f games/s, %.0f moves/s%n",
+          games, moves, elapsedNanos / 1e9, gamesPerSecond(), moves / (elapsedNanos / 1e9));
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package com.nedap.go.ai;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table of search results keyed by position hash, shared by search threads without
+ * locks.
+ *
+ * <p>
+ * Each slot is two longs in one array: the key XOR the data, and the data. A reader only accepts a
+ * slot whose two halves agree with its key, so a slot torn by two threads writing at once reads as
+ * a miss instead of a wrong result. The data packs the score, the move, the depth searched and the
+ * kind of bound. A position is stored in one of the few slots after its home slot: in the slot
+ * already holding it, else an empty one, else the one searched least deep, so deep results survive
+ * shallow ones.
+ * </p>
+ */
+public class TranspositionTable {
+
+  public static final int EXACT = 1;
+  public static final int LOWER_BOUND = 2;
+  public static final int UPPER_BOUND = 3;
+  /**
+   * What probe returns for a position not in the table.
+   */
+  public static final long MISS = 0L;
+  public static final int NO_MOVE = Short.MIN_VALUE;
+  private static final int PROBES = 4;
+  private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private final long[] slots;
+  private final int mask;
+  private final LongAdder probes = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder stores = new LongAdder();
+  private final LongAdder replacements = new LongAdder();
+
+  /**
+   * Construct a table using at most the given memory.
+   *
+   * @param bytes The memory for the table; rounded down to a power of two number of slots of 16
+   *              bytes, with at least 16 slots.
+   */
+  public TranspositionTable(long bytes) {
+    long wanted = Math.max(16, Math.min(bytes / 16, 1 << 29));
+    int size = Long.numberOfTrailingZeros(Long.highestOneBit(wanted));
+    slots = new long[2 << size];
+    mask = (1 << size) - 1;
+  }
+
+  /**
+   * Pack a result into the data of a slot.
+   *
+   * @param depth The depth searched, 0 to 255.
+   * @param score The score found.
+   * @param move  The index of the best move, -1 for a pass or NO_MOVE.
+   * @param bound EXACT, LOWER_BOUND or UPPER_BOUND.
+   * @return The packed data, never MISS.
+   */
+  public static long pack(int depth, int score, int move, int bound) {
+    return (long) score << 32 | (move & 0xFFFFL) << 16 | (depth & 0xFFL) << 8 | bound;
+  }
+
+  public static int score(long entry) {
+    return (int) (entry >> 32);
+  }
+
+  public static int move(long entry) {
+    return (short) (entry >>> 16);
+  }
+
+  public static int depth(long entry) {
+    return (int) (entry >>> 8) & 0xFF;
+  }
+
+  public static int bound(long entry) {
+    return (int) entry & 0xFF;
+  }
+
+  /**
+   * Look a position up.
+   *
+   * @param key The hash of the position.
+   * @return The packed result, read with score, move, depth and bound; MISS if not found.
+   */
+  public long probe(long key) {
+    probes.increment();
+    int home = (int) key & mask;
+    for (int i = 0; i < PROBES; i++) {
+      int slot = ((home + i) & mask) << 1;
+      long data = (long) SLOTS.getOpaque(slots, slot + 1);
+      if (data != MISS && ((long) SLOTS.getOpaque(slots, slot) ^ data) == key) {
+        hits.increment();
+        return data;
+      }
+    }
+    return MISS;
+  }
+
+  /**
+   * Store the result of a search, unless the slots it may go to hold deeper results of other
+   * positions.
+   *
+   * @param key   The hash of the position.
+   * @param depth The depth searched, 0 to 255.
+   * @param score The score found.
+   * @param move  The index of the best move, -1 for a pass or NO_MOVE.
+   * @param bound EXACT, LOWER_BOUND or UPPER_BOUND.
+   */
+  public void store(long key, int depth, int score, int move, int bound) {
+    long entry = pack(depth, score, move, bound);
+    int home = (int) key & mask;
+    int target = -1;
+    int shallowest = Integer.MAX_VALUE;
+    for (int i = 0; i < PROBES; i++) {
+      int slot = ((home + i) & mask) << 1;
+      long data = (long) SLOTS.getOpaque(slots, slot + 1);
+      if (data == MISS || ((long) SLOTS.getOpaque(slots, slot) ^ data) == key) {
+        target = slot;
+        break;
+      }
+      if (depth(data) < shallowest) {
+        shallowest = depth(data);
+        target = slot;
+      }
+    }
+    long old = (long) SLOTS.getOpaque(slots, target + 1);
+    if (old != MISS && ((long) SLOTS.getOpaque(slots, target) ^ old) != key) {
+      if (shallowest > depth) {
+        return;
+      }
+      replacements.increment();
+    }
+    SLOTS.setOpaque(slots, target, key ^ entry);
+    SLOTS.setOpaque(slots, target + 1, entry);
+    stores.increment();
+  }
+
+  /**
+   * Empty the table, e.g. between games. Not to be called while searches use the table.
+   */
+  public void clear() {
+    Arrays.fill(slots, 0L);
+  }
+
+  public int getCapacity() {
+    return mask + 1;
+  }
+
+  public long getProbes() {
+    return probes.sum();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getStores() {
+    return stores.sum();
+  }
+
+  /**
+   * Get the number of stores that pushed out another position. Many of them mean the table is
+   * too small for the searches using it.
+   *
+   * @return The number of replacements.
+   */
+  public long getReplacements() {
+    return replacements.sum();
+  }
+
+  /**
+   * Get the share of probes that found their position.
+   *
+   * @return The hit rate between 0 and 1, 0 before the first probe.
+   */
+  public double getHitRate() {
+    long probed = probes.sum();
+    return probed == 0 ? 0 : (double) hits.sum() / probed;
+  }
+
+  /**
+   * Estimate how full the table is from its first slots.
+   *
+   * @return The share of used slots between 0 and 1.
+   */
+  public double getOccupancy() {
+    int sample = Math.min(getCapacity(), 1024);
+    int used = 0;
+    for (int i = 0; i < sample; i++) {
+      if ((long) SLOTS.getOpaque(slots, (i << 1) + 1) != MISS) {
+        used++;
+      }
+    }
+    return (double) used / sample;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TranspositionTable[slots=%d, probes=%d, hitRate=%.3f, stores=%d, "
+            + "replacements=%d, occupancy=%.3f]", getCapacity(), getProbes(), getHitRate(),
+        getStores(), getReplacements(), getOccupancy());
+  }
+}
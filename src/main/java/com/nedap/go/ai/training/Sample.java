@@ -0,0 +1,73 @@
+package com.nedap.go.ai.training;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.Stone;
+
+/**
+ * One position of a self-play game with the move played in it and how the game ended, to train
+ * evaluation functions with.
+ *
+ * <p>
+ * The board is kept as two bit planes, one for the black and one for the white stones, with bit
+ * {@code index % 8} of byte {@code index / 8} for each intersection.
+ * </p>
+ *
+ * @param dim    The dimension of the board.
+ * @param black  The plane of the black stones.
+ * @param white  The plane of the white stones.
+ * @param toMove The color that played the move, black or white.
+ * @param move   The index of the intersection played, or -1 for a pass.
+ * @param result How the game ended for the color to move: 1 won, 0 drawn, -1 lost.
+ */
+public record Sample(int dim, byte[] black, byte[] white, Stone toMove, int move, int result) {
+
+  public static final int PASS = -1;
+
+  /**
+   * Take a sample of a board.
+   *
+   * @param board  The board before the move.
+   * @param toMove The color playing the move.
+   * @param move   The index of the intersection played, or PASS.
+   * @param result How the game ended for the color to move: 1 won, 0 drawn, -1 lost.
+   * @return The sample.
+   */
+  public static Sample of(Board board, Stone toMove, int move, int result) {
+    int dim = board.getDim();
+    byte[] black = new byte[planeBytes(dim)];
+    byte[] white = new byte[planeBytes(dim)];
+    for (int index = 0; index < dim * dim; index++) {
+      Stone stone = board.getField(index);
+      if (stone == Stone.BLACK) {
+        black[index >> 3] |= (byte) (1 << (index & 7));
+      } else if (stone == Stone.WHITE) {
+        white[index >> 3] |= (byte) (1 << (index & 7));
+      }
+    }
+    return new Sample(dim, black, white, toMove, move, result);
+  }
+
+  /**
+   * Get the number of bytes of one plane of a board.
+   *
+   * @param dim The dimension of the board.
+   * @return The bytes for a bit per intersection.
+   */
+  public static int planeBytes(int dim) {
+    return (dim * dim + 7) / 8;
+  }
+
+  /**
+   * Get the stone on an intersection.
+   *
+   * @param index The index of the intersection.
+   * @return Black, white or empty.
+   */
+  public Stone stone(int index) {
+    int bit = 1 << (index & 7);
+    if ((black[index >> 3] & bit) != 0) {
+      return Stone.BLACK;
+    }
+    return (white[index >> 3] & bit) != 0 ? Stone.WHITE : Stone.EMPTY;
+  }
+}
@@ -0,0 +1,181 @@
+package com.nedap.go.ai.training;
+
+import com.nedap.go.model.Stone;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the samples of a file written by SampleWriter, by number, straight from the file mapped
+ * into memory.
+ *
+ * <p>
+ * On opening, the chunk headers are read to find where every chunk starts; a chunk cut short at
+ * the end of the file is left out. The chunks are then mapped in windows of up to 1 GiB, so files
+ * larger than one mapping can hold are read too, and a sample is found by a binary search over the
+ * chunks. The operating system pages the file in as it is read, so opening a large file is cheap
+ * and reading it in any order leaves the heap alone. Safe to read from several threads.
+ * </p>
+ */
+public class SampleReader implements Closeable {
+
+  private static final long WINDOW_BYTES = 1L << 30;
+
+  private final FileChannel channel;
+  private final int dim;
+  private final int planeBytes;
+  private final int recordBytes;
+  // per chunk: the number of the first sample, where its records start in its window, its window
+  private final long[] firstSample;
+  private final int[] offsets;
+  private final int[] windowOf;
+  private final List<MappedByteBuffer> windows = new ArrayList<>();
+  private final long size;
+
+  /**
+   * Open a file.
+   *
+   * @param path The file.
+   * @throws IOException If the file cannot be read or is not a sample file.
+   */
+  public SampleReader(Path path) throws IOException {
+    channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(SampleWriter.HEADER_BYTES);
+      readFully(header, 0);
+      if (header.getInt(0) != SampleWriter.MAGIC
+          || header.getShort(4) != SampleWriter.VERSION) {
+        throw new IOException(path + " is not a sample file of version "
+            + SampleWriter.VERSION);
+      }
+      dim = header.getShort(6);
+      recordBytes = header.getInt(8);
+      planeBytes = Sample.planeBytes(dim);
+      if (recordBytes != SampleWriter.recordBytes(dim)) {
+        throw new IOException(path + " has records of " + recordBytes + " bytes");
+      }
+      List<long[]> chunks = scanChunks();
+      firstSample = new long[chunks.size()];
+      offsets = new int[chunks.size()];
+      windowOf = new int[chunks.size()];
+      size = mapWindows(chunks);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Find the complete chunks.
+   *
+   * @return Per chunk where its records start in the file and how many there are.
+   */
+  private List<long[]> scanChunks() throws IOException {
+    List<long[]> chunks = new ArrayList<>();
+    long fileSize = channel.size();
+    long position = SampleWriter.HEADER_BYTES;
+    ByteBuffer chunkHeader = ByteBuffer.allocate(SampleWriter.CHUNK_HEADER_BYTES);
+    while (position + SampleWriter.CHUNK_HEADER_BYTES <= fileSize) {
+      chunkHeader.clear();
+      readFully(chunkHeader, position);
+      int count = chunkHeader.getInt(4);
+      long start = position + SampleWriter.CHUNK_HEADER_BYTES;
+      long end = start + (long) count * recordBytes;
+      if (chunkHeader.getInt(0) != SampleWriter.CHUNK_MAGIC || count < 0 || end > fileSize) {
+        break;
+      }
+      chunks.add(new long[]{start, count});
+      position = end;
+    }
+    return chunks;
+  }
+
+  private long mapWindows(List<long[]> chunks) throws IOException {
+    long samples = 0;
+    int chunk = 0;
+    while (chunk < chunks.size()) {
+      long windowStart = chunks.get(chunk)[0];
+      int last = chunk;
+      while (last + 1 < chunks.size() && end(chunks.get(last + 1)) - windowStart <= WINDOW_BYTES) {
+        last++;
+      }
+      MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+          end(chunks.get(last)) - windowStart);
+      for (int i = chunk; i <= last; i++) {
+        firstSample[i] = samples;
+        offsets[i] = (int) (chunks.get(i)[0] - windowStart);
+        windowOf[i] = windows.size();
+        samples += chunks.get(i)[1];
+      }
+      windows.add(window);
+      chunk = last + 1;
+    }
+    return samples;
+  }
+
+  private long end(long[] chunk) {
+    return chunk[0] + chunk[1] * recordBytes;
+  }
+
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+    }
+  }
+
+  public int getDim() {
+    return dim;
+  }
+
+  /**
+   * Get the number of samples in the complete chunks of the file.
+   *
+   * @return The number of samples.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Read a sample.
+   *
+   * @param number The number of the sample, from 0 to size() - 1.
+   * @return The sample.
+   */
+  public Sample get(long number) {
+    if (number < 0 || number >= size) {
+      throw new IndexOutOfBoundsException("Sample " + number + " of " + size);
+    }
+    int chunk = Arrays.binarySearch(firstSample, number);
+    if (chunk < 0) {
+      chunk = -chunk - 2;
+    }
+    // chunks without samples share their first sample number with the next chunk
+    while (chunk + 1 < firstSample.length && firstSample[chunk + 1] == number) {
+      chunk++;
+    }
+    ByteBuffer window = windows.get(windowOf[chunk]);
+    int position = offsets[chunk] + (int) (number - firstSample[chunk]) * recordBytes;
+    byte[] black = new byte[planeBytes];
+    byte[] white = new byte[planeBytes];
+    window.get(position, black);
+    window.get(position + planeBytes, white);
+    int rest = position + 2 * planeBytes;
+    Stone toMove = window.get(rest) == 0 ? Stone.BLACK : Stone.WHITE;
+    return new Sample(dim, black, white, toMove, window.getShort(rest + 2), window.get(rest + 1));
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,171 @@
+package com.nedap.go.ai.training;
+
+import com.nedap.go.model.Stone;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Streams samples to a file, for SampleReader to read back.
+ *
+ * <p>
+ * The file starts with a header: the magic number, the format version, the board dimension, the
+ * size of a record and the number of records per chunk, as int, short, short, int and int. Then
+ * follow the chunks, each a chunk magic number and the number of records in it, as ints, followed
+ * by the records. A record has a fixed size: the black and white plane of the board, then a byte
+ * for the color to move (0 black, 1 white), a byte for the result and a short for the move. All
+ * numbers are big-endian.
+ * </p>
+ *
+ * <p>
+ * A chunk is written once it is full, in one go, so a file cut short, e.g. by stopping the
+ * generator, is still readable up to its last complete chunk. Samples are written from any
+ * thread; the samples of one call are kept together.
+ * </p>
+ */
+public class SampleWriter implements Closeable {
+
+  static final int MAGIC = 0x474F5350;
+  static final short VERSION = 1;
+  static final int CHUNK_MAGIC = 0x43484E4B;
+  static final int HEADER_BYTES = 16;
+  static final int CHUNK_HEADER_BYTES = 8;
+  public static final int DEFAULT_CHUNK_SAMPLES = 4096;
+
+  private final FileChannel channel;
+  private final int dim;
+  private final int recordBytes;
+  private final int chunkSamples;
+  private final ByteBuffer chunk;
+  private int chunkCount;
+  private long count;
+
+  /**
+   * Create or overwrite a file with chunks of the default size.
+   *
+   * @param path The file.
+   * @param dim  The dimension of the boards of all samples.
+   * @throws IOException If the file cannot be written.
+   */
+  public SampleWriter(Path path, int dim) throws IOException {
+    this(path, dim, DEFAULT_CHUNK_SAMPLES);
+  }
+
+  /**
+   * Create or overwrite a file.
+   *
+   * @param path         The file.
+   * @param dim          The dimension of the boards of all samples.
+   * @param chunkSamples The number of samples per chunk.
+   * @throws IOException If the file cannot be written.
+   */
+  public SampleWriter(Path path, int dim, int chunkSamples) throws IOException {
+    this.dim = dim;
+    this.recordBytes = recordBytes(dim);
+    this.chunkSamples = chunkSamples;
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    chunk = ByteBuffer.allocate(CHUNK_HEADER_BYTES + chunkSamples * recordBytes);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    header.putInt(MAGIC).putShort(VERSION).putShort((short) dim).putInt(recordBytes)
+        .putInt(chunkSamples).flip();
+    writeFully(header);
+    startChunk();
+  }
+
+  /**
+   * Get the size of a record.
+   *
+   * @param dim The dimension of the board.
+   * @return The number of bytes.
+   */
+  static int recordBytes(int dim) {
+    return 2 * Sample.planeBytes(dim) + 4;
+  }
+
+  /**
+   * Write a sample.
+   *
+   * @param sample The sample, of a board of the dimension of the file.
+   * @throws IOException If the file cannot be written.
+   */
+  public synchronized void write(Sample sample) throws IOException {
+    if (sample.dim() != dim) {
+      throw new IllegalArgumentException("Sample of " + sample.dim() + "x" + sample.dim()
+          + " in a file of " + dim + "x" + dim);
+    }
+    chunk.put(sample.black()).put(sample.white())
+        .put((byte) (sample.toMove() == Stone.BLACK ? 0 : 1))
+        .put((byte) sample.result())
+        .putShort((short) sample.move());
+    chunkCount++;
+    count++;
+    if (chunkCount == chunkSamples) {
+      flushChunk();
+    }
+  }
+
+  /**
+   * Write samples, e.g. all positions of a game.
+   *
+   * @param samples The samples.
+   * @throws IOException If the file cannot be written.
+   */
+  public synchronized void writeAll(List<Sample> samples) throws IOException {
+    for (Sample sample : samples) {
+      write(sample);
+    }
+  }
+
+  /**
+   * Get the number of samples written so far.
+   *
+   * @return The number of samples.
+   */
+  public synchronized long getCount() {
+    return count;
+  }
+
+  /**
+   * Write the last, partial chunk and close the file.
+   *
+   * @throws IOException If the file cannot be written.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (!channel.isOpen()) {
+      return;
+    }
+    try {
+      if (chunkCount > 0) {
+        flushChunk();
+      }
+      channel.force(false);
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void startChunk() {
+    chunk.clear();
+    chunk.putInt(CHUNK_MAGIC).putInt(0);
+    chunkCount = 0;
+  }
+
+  private void flushChunk() throws IOException {
+    chunk.putInt(4, chunkCount);
+    chunk.flip();
+    writeFully(chunk);
+    startChunk();
+  }
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+}
@@ -0,0 +1,264 @@
+package com.nedap.go.ai.training;
+
+import com.nedap.go.ai.BatchRunner;
+import com.nedap.go.ai.SearchControl;
+import com.nedap.go.ai.Strategy;
+import com.nedap.go.ai.Tournament;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Move;
+import com.nedap.go.model.PassAlive;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.InvalidMoveException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays a strategy against itself and writes every position it played a move in, with the move
+ * and the result of the game, to a sample file (see SampleWriter).
+ *
+ * <p>
+ * The games run in parallel, one task each on a thread pool as large as the machine has
+ * processors, every game with its own GoGame and strategies. The strategies are asked directly,
+ * with the time budget as their deadline, without a ComputerPlayer in between, and a game is
+ * written in one go once its result is known. Like in a tournament, games start with a few random
+ * moves, which are not written, and all randomness derives from one seed. A game ends once it is
+ * decided (see PassAlive), as both sides would only pass from there, and is won by the side that
+ * settled the board; a finished game is scored by area with its settled areas. A game still going
+ * at the move limit has no result and is left out. Run from the command line with e.g.
+ * {@code --strategy Naive --games 10000 --board 9 --out samples.bin}.
+ * </p>
+ */
+public class SelfPlay {
+
+  private final Function<RandomGenerator, Strategy> strategy;
+  private int games = 1000;
+  private int boardDim = 9;
+  private long timeBudget = 1000;
+  private long seed = 42;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private int openingMoves = 4;
+  private int maxMoves = -1;
+
+  /**
+   * Construct a self-play run.
+   *
+   * @param strategy Makes a strategy for each side of every game, with the generator it is to
+   *                 use.
+   */
+  public SelfPlay(Function<RandomGenerator, Strategy> strategy) {
+    this.strategy = strategy;
+  }
+
+  /**
+   * Runs self-play from the command line and prints the speed.
+   *
+   * <p>
+   * Options (all optional): {@code --strategy NAME --games N --board N --budget MS --seed N
+   * --threads N --openings N --max-moves N --out FILE}
+   * </p>
+   *
+   * @param args The command line options.
+   * @throws IOException If the file cannot be written.
+   */
+  public static void main(String[] args) throws IOException {
+    String name = BatchRunner.option(args, "--strategy", "Naive");
+    Function<RandomGenerator, Strategy> strategy = Tournament.STRATEGIES.get(name);
+    if (strategy == null) {
+      throw new IllegalArgumentException("Unknown strategy " + name);
+    }
+    SelfPlay selfPlay = new SelfPlay(strategy);
+    selfPlay.setGames(Integer.parseInt(BatchRunner.option(args, "--games", "1000")));
+    selfPlay.setBoardDim(Integer.parseInt(BatchRunner.option(args, "--board", "9")));
+    selfPlay.setTimeBudget(Long.parseLong(BatchRunner.option(args, "--budget", "1000")));
+    selfPlay.setSeed(Long.parseLong(BatchRunner.option(args, "--seed", "42")));
+    selfPlay.setThreads(Integer.parseInt(BatchRunner.option(args, "--threads",
+        String.valueOf(Runtime.getRuntime().availableProcessors()))));
+    selfPlay.setOpeningMoves(Integer.parseInt(BatchRunner.option(args, "--openings", "4")));
+    selfPlay.setMaxMoves(Integer.parseInt(BatchRunner.option(args, "--max-moves", "-1")));
+    selfPlay.run(Path.of(BatchRunner.option(args, "--out", "samples.bin"))).print(System.out);
+    System.exit(0);
+  }
+
+  public void setGames(int games) {
+    this.games = games;
+  }
+
+  public void setBoardDim(int boardDim) {
+    this.boardDim = boardDim;
+  }
+
+  /**
+   * Set the time a strategy has for every move.
+   *
+   * @param timeBudget The time in milliseconds.
+   */
+  public void setTimeBudget(long timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  public void setOpeningMoves(int openingMoves) {
+    this.openingMoves = openingMoves;
+  }
+
+  /**
+   * Set the number of moves after which a game is given up, without writing its samples.
+   *
+   * @param maxMoves The number of moves, or -1 for four times the number of intersections.
+   */
+  public void setMaxMoves(int maxMoves) {
+    this.maxMoves = maxMoves;
+  }
+
+  /**
+   * Play all games, writing their samples to a file, and wait for them to finish.
+   *
+   * @param out The file, overwritten if it exists.
+   * @return The numbers of the run.
+   * @throws IOException If the file cannot be written.
+   */
+  public Stats run(Path out) throws IOException {
+    SplittableRandom master = new SplittableRandom(seed);
+    long start = System.nanoTime();
+    try (SampleWriter writer = new SampleWriter(out, boardDim)) {
+      List<Callable<Boolean>> tasks = new ArrayList<>();
+      for (int game = 0; game < games; game++) {
+        SplittableRandom random = master.split();
+        tasks.add(() -> {
+          List<Sample> samples = play(random);
+          if (samples == null) {
+            return false;
+          }
+          try {
+            writer.writeAll(samples);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          return true;
+        });
+      }
+      int unfinished = 0;
+      for (boolean finished : BatchRunner.runAll(threads, tasks)) {
+        unfinished += finished ? 0 : 1;
+      }
+      writer.close();
+      return new Stats(games, unfinished, writer.getCount(), System.nanoTime() - start);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Play one game.
+   *
+   * @return The samples of the moves the strategies chose, or null if the game was not finished
+   *     within the move limit and so has no result.
+   */
+  private List<Sample> play(SplittableRandom random) {
+    Player black = () -> Stone.BLACK;
+    Player white = () -> Stone.WHITE;
+    Strategy blackStrategy = strategy.apply(random.split());
+    Strategy whiteStrategy = strategy.apply(random.split());
+    GoGame game = new GoGame(black, white, boardDim);
+    int limit = maxMoves < 0 ? 4 * boardDim * boardDim : maxMoves;
+    List<Sample> samples = new ArrayList<>();
+    Stone winner = null;
+    for (int moves = 0; ; moves++) {
+      if (game.isGameover()) {
+        winner = winner(game);
+        break;
+      }
+      if (moves == limit) {
+        return null;
+      }
+      Stone toMove = game.getTurn().getStone();
+      Move move;
+      if (moves < openingMoves) {
+        List<? extends Move> valid = game.getValidMoves();
+        move = valid.get(random.nextInt(valid.size()));
+      } else {
+        // both sides would only pass from here, which says nothing about how to play
+        Stone decided = PassAlive.of(game.getBoard()).getDecidedWinner();
+        if (decided != null) {
+          winner = decided;
+          break;
+        }
+        Strategy turn = toMove == Stone.BLACK ? blackStrategy : whiteStrategy;
+        move = turn.determineMove(game.deepCopy(), SearchControl.within(timeBudget));
+      }
+      Sample sample = moves < openingMoves ? null : sample(game, toMove, (GoMove) move);
+      try {
+        game.doMove(move);
+      } catch (InvalidMoveException e) {
+        winner = toMove.other();
+        break;
+      }
+      if (sample != null) {
+        samples.add(sample);
+      }
+    }
+    List<Sample> results = new ArrayList<>(samples.size());
+    for (Sample sample : samples) {
+      int result = winner == Stone.EMPTY ? 0 : winner == sample.toMove() ? 1 : -1;
+      results.add(new Sample(sample.dim(), sample.black(), sample.white(), sample.toMove(),
+          sample.move(), result));
+    }
+    return results;
+  }
+
+  private static Sample sample(GoGame game, Stone toMove, GoMove move) {
+    return Sample.of(game.getBoard(), toMove, move.isPass() ? Sample.PASS : move.getIndex(), 0);
+  }
+
+  private static Stone winner(GoGame game) {
+    int blackScore = game.getSettledScore(Stone.BLACK);
+    int whiteScore = game.getSettledScore(Stone.WHITE);
+    return blackScore > whiteScore ? Stone.BLACK
+        : whiteScore > blackScore ? Stone.WHITE : Stone.EMPTY;
+  }
+
+  /**
+   * The numbers of a self-play run.
+   *
+   * @param games        The number of games played.
+   * @param unfinished   The games stopped by the move limit, of which nothing was written.
+   * @param samples      The number of samples written.
+   * @param elapsedNanos The wall clock time of the run.
+   */
+  public record Stats(int games, int unfinished, long samples, long elapsedNanos) {
+
+    public double samplesPerHour() {
+      return samples / (elapsedNanos / 3.6e12);
+    }
+
+    /**
+     * Print the numbers.
+     *
+     * @param console The stream to print on.
+     */
+    public void print(PrintStream console) {
+      console.printf(Locale.ROOT,
+          "%d games (%d unfinished), %d samples in %.1f s: %.2f games/s, %.0f samples/h%n",
+          games, unfinished, samples, elapsedNanos / 1e9, games / (elapsedNanos / 1e9),
+          samplesPerHour());
+    }
+  }
+}
@@ -1,19 +1,35 @@
 package com.nedap.go.model;
 
 import com.nedap.go.model.utils.FloodFillGo;
+import com.nedap.go.model.utils.Neighbours;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 
 /**
  * A class representing a Go board with modifiable dimensions.
+ *
+ * <p>
+ * A board and its copies must only be used by one thread at a time. Copying marks this board as
+ * sharing its arrays, so a copy must be made on the thread that uses the board and can then be
+ * handed to another thread, e.g. through an executor, but not be made while another thread plays
+ * on the board.
+ * </p>
  */
 public class Board {
 
   private static final String DELIM = "      ";
   private final int dim;
-  private final Stone[] fields;
+  private final Neighbours adjacent;
+  private Stone[] fields;
+  // Zobrist hash of the position, updated with every stone placed or removed
+  private long hash;
+  // 3x3 pattern around every intersection, updated with every stone placed or removed
+  private char[] patterns;
+  // the fields are shared with a copy and must be copied before they are changed
+  private boolean shared;
 
   /**
    * Constructs a new board with every intersection empty.
@@ -22,14 +38,37 @@ public class Board {
     this(9);
   }
 
+  /**
+   * Constructs a board with the given intersections. The array is used as is, so it must not be
+   * changed afterwards other than through the board.
+   *
+   * @param fields The stones of the board, row after row.
+   */
   public Board(Stone[] fields) {
     this.fields = fields;
     this.dim = (int) Math.sqrt(fields.length);
+    this.adjacent = Neighbours.of(dim);
+    for (int i = 0; i < fields.length; i++) {
+      hash ^= zobrist(i, fields[i]);
+    }
+    this.patterns = new char[fields.length];
+    computePatterns();
+  }
+
+  private Board(Stone[] fields, long hash, char[] patterns) {
+    this.fields = fields;
+    this.dim = (int) Math.sqrt(fields.length);
+    this.adjacent = Neighbours.of(dim);
+    this.hash = hash;
+    this.patterns = patterns;
+    this.shared = true;
   }
 
   public Board(int dim){
     this.dim = dim;
+    this.adjacent = Neighbours.of(dim);
     fields = new Stone[dim * dim];
+    patterns = new char[dim * dim];
     reset();
   }
 
@@ -51,6 +90,95 @@ public class Board {
     return "|    ".repeat(dim - 1) + "|";
   }
 
+  /**
+   * The key of a stone on an intersection, mixed from the index with the SplitMix64 finalizer so
+   * that boards of any dimension need no table. An empty intersection has key 0. The position hash
+   * is the XOR of the keys of all intersections.
+   *
+   * @param index The index of the intersection.
+   * @param stone The stone on it.
+   * @return The Zobrist key.
+   */
+  public static long zobrist(int index, Stone stone) {
+    if (stone == Stone.EMPTY) {
+      return 0L;
+    }
+    long key = (2L * index + stone.ordinal() + 1) * 0x9E3779B97F4A7C15L;
+    key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+    key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+    return key ^ (key >>> 31);
+  }
+
+  /**
+   * Change an intersection and keep the hash and the patterns up to date. Every change of the
+   * fields goes through here.
+   */
+  private void put(int index, Stone stone) {
+    ownFields();
+    hash ^= zobrist(index, fields[index]) ^ zobrist(index, stone);
+    fields[index] = stone;
+    for (int i = 0; i < Neighbours.AROUND; i++) {
+      int around = adjacent.around(index, i);
+      if (around != Neighbours.NONE) {
+        // seen from there, this intersection is in the opposite direction
+        int shift = 2 * (Neighbours.AROUND - 1 - i);
+        patterns[around] = (char) (patterns[around] & ~(3 << shift) | patternCode(stone) << shift);
+      }
+    }
+  }
+
+  /**
+   * The code of what is on an intersection in a pattern: 0 empty, 1 black, 2 white and 3 off the
+   * board.
+   *
+   * @param stone The stone, or null for off the board.
+   * @return The 2-bit code.
+   */
+  public static int patternCode(Stone stone) {
+    if (stone == null) {
+      return 3;
+    }
+    return switch (stone) {
+      case EMPTY -> 0;
+      case BLACK -> 1;
+      case WHITE -> 2;
+    };
+  }
+
+  private void computePatterns() {
+    for (int index = 0; index < fields.length; index++) {
+      int pattern = 0;
+      for (int i = 0; i < Neighbours.AROUND; i++) {
+        int around = adjacent.around(index, i);
+        pattern |= patternCode(around == Neighbours.NONE ? null : fields[around]) << 2 * i;
+      }
+      patterns[index] = (char) pattern;
+    }
+  }
+
+  /**
+   * Get the 3x3 pattern around an intersection: the codes (see patternCode) of the eight
+   * intersections around it, two bits each, the one in direction i of Neighbours.AROUND in bits
+   * 2i and 2i + 1. The patterns are kept up to date as stones are placed and captured, so getting
+   * one is free.
+   *
+   * @param index The index of the intersection.
+   * @return The pattern, from 0 to 65535.
+   */
+  public int getPattern(int index) {
+    return patterns[index];
+  }
+
+  /**
+   * Get the 64-bit hash of the position. Equal boards have equal hashes; the hash is kept up to
+   * date as stones are placed and captured, so getting it is free.
+   *
+   * @return The Zobrist hash of the stones on the board.
+   */
+  public long positionHash() {
+    return hash;
+  }
+
   /**
    * Get the dimension of the board.
    *
@@ -157,20 +285,32 @@ public class Board {
    * Resets the board in a state where all the intersections are empty.
    */
   void reset() {
-    for (int i = 0; i < dim * dim; i++) {
-      fields[i] = Stone.EMPTY;
-    }
+    ownFields();
+    Arrays.fill(fields, Stone.EMPTY);
+    hash = 0L;
+    computePatterns();
   }
 
   /**
-   * Creates a copy of the current state of the board.
+   * Creates a copy of the current state of the board. The copy shares the intersections and the
+   * patterns with this board until either of them changes, which then copies them first, so copying
+   * is cheap and a copy that is only read, like the boards kept for the ko rule, never copies at
+   * all. This changes the board too, as it now shares its arrays (see the class comment on
+   * threads).
    *
    * @return The copy of the board.
    */
   public Board deepCopy() {
-    Stone[] copiedFields = new Stone[dim * dim];
-    System.arraycopy(fields, 0, copiedFields, 0, dim * dim);
-    return new Board(copiedFields);
+    shared = true;
+    return new Board(fields, hash, patterns);
+  }
+
+  private void ownFields() {
+    if (shared) {
+      fields = fields.clone();
+      patterns = patterns.clone();
+      shared = false;
+    }
   }
 
   /**
@@ -181,7 +321,7 @@ public class Board {
    */
   public void setField(int index, Stone stone) {
     if (isField(index) && isEmpty(index)) {
-      fields[index] = stone;
+      put(index, stone);
     }
   }
 
@@ -194,7 +334,7 @@ public class Board {
    */
   public void setField(int row, int col, Stone stone) {
     if (isField(row, col) && isEmpty(row, col)) {
-      fields[index(row, col)] = stone;
+      put(index(row, col), stone);
     }
   }
 
@@ -236,19 +376,82 @@ public class Board {
     for (Stone field : fields) {
       stones = field == target ? stones + 1 : stones;
     }
-    getAreaScoring(target);
-    return stones + getAreaScoring(target);
+    return stones + getAreaScoring(target, null);
+  }
+
+  /**
+   * Get the score of black minus that of white, as getScore counts them, in one pass over the
+   * board instead of a flood fill into lists per color, for when only the winner matters, e.g. at
+   * the end of a playout.
+   *
+   * @return The margin, positive if black is ahead.
+   */
+  public int getScoreMargin() {
+    int margin = 0;
+    boolean[] seen = new boolean[fields.length];
+    int[] region = new int[fields.length];
+    for (int start = 0; start < fields.length; start++) {
+      if (fields[start] != Stone.EMPTY) {
+        margin += fields[start] == Stone.BLACK ? 1 : -1;
+        continue;
+      }
+      if (seen[start]) {
+        continue;
+      }
+      // flood the empty region, noting which colors border it
+      boolean black = false;
+      boolean white = false;
+      int size = 0;
+      region[size++] = start;
+      seen[start] = true;
+      for (int next = 0; next < size; next++) {
+        int index = region[next];
+        for (int i = 0; i < adjacent.count(index); i++) {
+          int neighbour = adjacent.get(index, i);
+          if (fields[neighbour] == Stone.BLACK) {
+            black = true;
+          } else if (fields[neighbour] == Stone.WHITE) {
+            white = true;
+          } else if (!seen[neighbour]) {
+            seen[neighbour] = true;
+            region[size++] = neighbour;
+          }
+        }
+      }
+      margin += black == white ? 0 : black ? size : -size;
+    }
+    return margin;
   }
 
-  private int getAreaScoring(Stone target) {
+  /**
+   * Get the score for a specific stone, counting whatever is settled for good (see PassAlive) for
+   * its owner, so opponent stones left in settled territory are scored as dead. This runs Benson's
+   * algorithm on top of the area count of getScore, for when a game is cut short once decided.
+   *
+   * @param target The stone color to get score for
+   * @return the number of stones and territory, settled or surrounded
+   */
+  public int getSettledScore(Stone target) {
+    PassAlive settled = PassAlive.of(this);
+    int stones = 0;
+    for (int i = 0; i < fields.length; i++) {
+      Stone owner = settled.isSettled(i) ? settled.getOwner(i) : fields[i];
+      stones = owner == target ? stones + 1 : stones;
+    }
+    return stones + getAreaScoring(target, settled);
+  }
+
+  // settled may be null, then every empty region counts for the color surrounding it
+  private int getAreaScoring(Stone target, PassAlive settled) {
     int areaScore = 0;
     List<List<Integer>> listOfEmptyChains = getStoneChains(Stone.EMPTY);
     if(listOfEmptyChains.size() == 1
         && listOfEmptyChains.getFirst().size() == dim * dim){
       return 0;
     }
-    for (List<Integer> listOfEmpty : getStoneChains(Stone.EMPTY)) {
-      if (getOwner(listOfEmpty) == target) {
+    for (List<Integer> listOfEmpty : listOfEmptyChains) {
+      if ((settled == null || !settled.isSettled(listOfEmpty.getFirst()))
+          && getOwner(listOfEmpty) == target) {
         areaScore += listOfEmpty.size();
       }
     }
@@ -271,11 +474,11 @@ public class Board {
 
   private List<Integer> getAreaBorder(List<Integer> chain) {
     List<Integer> borders = new ArrayList<>();
-    for (Integer indexOfChain : chain) {
-      List<Integer> neighbours = getNeighbours(indexOfChain);
-      for (Integer indexOfNeighbours : neighbours) {
-        if (fields[indexOfNeighbours] != fields[indexOfChain]) {
-          borders.add(indexOfNeighbours);
+    for (int indexOfChain : chain) {
+      for (int i = 0; i < adjacent.count(indexOfChain); i++) {
+        int indexOfNeighbour = adjacent.get(indexOfChain, i);
+        if (fields[indexOfNeighbour] != fields[indexOfChain]) {
+          borders.add(indexOfNeighbour);
         }
       }
     }
@@ -297,18 +500,65 @@ public class Board {
     return captured;
   }
 
+  /**
+   * Place a stone and remove the chains it captures, the way a move does. Only the chains touching
+   * the new stone are examined, which gives the same board as calculateCaptures as long as no other
+   * chain was left without freedoms, i.e. when replaying moves that were already accepted.
+   *
+   * @param index The index of the intersection, which must be empty.
+   * @param stone The color of the stone placed.
+   */
+  void playStone(int index, Stone stone) {
+    put(index, stone);
+    int[] chain = new int[fields.length];
+    int[] visited = new int[fields.length];
+    int fill = 0;
+    boolean captured = false;
+    for (int i = 0; i < adjacent.count(index); i++) {
+      int neighbour = adjacent.get(index, i);
+      if (fields[neighbour] == stone.other()) {
+        captured |= removeIfCaptured(neighbour, chain, visited, ++fill);
+      }
+    }
+    if (!captured) {
+      removeIfCaptured(index, chain, visited, ++fill);
+    }
+  }
+
+  private boolean removeIfCaptured(int start, int[] chain, int[] visited, int fill) {
+    Stone target = fields[start];
+    int size = 0;
+    chain[size++] = start;
+    visited[start] = fill;
+    for (int next = 0; next < size; next++) {
+      int current = chain[next];
+      for (int i = 0; i < adjacent.count(current); i++) {
+        int neighbour = adjacent.get(current, i);
+        if (fields[neighbour] == Stone.EMPTY) {
+          return false;
+        } else if (fields[neighbour] == target && visited[neighbour] != fill) {
+          visited[neighbour] = fill;
+          chain[size++] = neighbour;
+        }
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      put(chain[i], Stone.EMPTY);
+    }
+    return true;
+  }
+
   private void removeStones(List<Integer> chain) {
     for (Integer index : chain) {
-      fields[index] = Stone.EMPTY;
+      put(index, Stone.EMPTY);
     }
   }
 
   private int getFreedoms(List<Integer> listOfTarget) {
     int freedoms = 0;
-    for (Integer integer : listOfTarget) {
-      List<Integer> neighbours = getNeighbours(integer);
-      for (Integer index : neighbours) {
-        if (fields[index] == Stone.EMPTY) {
+    for (int index : listOfTarget) {
+      for (int i = 0; i < adjacent.count(index); i++) {
+        if (fields[adjacent.get(index, i)] == Stone.EMPTY) {
           freedoms++;
         }
       }
@@ -316,21 +566,6 @@ public class Board {
     return freedoms;
   }
 
-  private List<Integer> getNeighbours(Integer integer) {
-    int[] deltaX = new int[]{0, 0, +1, -1};
-    int[] deltaY = new int[]{+1, -1, 0, 0};
-    List<Integer> neighbours = new ArrayList<>();
-    for (int i = 0; i < deltaX.length; i++) {
-      int nextX = integer % dim + deltaX[i];
-      int nextY = integer / dim + deltaY[i];
-      if (isField(nextY, nextX)) {
-        int next = nextY * dim + nextX;
-        neighbours.add(next);
-      }
-    }
-    return neighbours;
-  }
-
   private String intersectionLine(int line) {
     StringBuilder intersectionLine = new StringBuilder();
     for (int i = 0; i < dim - 1; i++) {
@@ -355,7 +590,8 @@ public class Board {
   }
 
   /**
-   * Overrides the basic equals method.
+   * Overrides the basic equals method. Boards of another dimension or with another hash are
+   * rejected without looking at the intersections.
    *
    * @param object The object to compare the current board with
    * @return True if the object is an instance of class Board and has every field contain the same
@@ -363,15 +599,15 @@ public class Board {
    */
   @Override
   public boolean equals(Object object) {
-    boolean isEqual = false;
-    if (object instanceof Board board) {
-      if (board.getDim() == this.getDim()) {
-        isEqual = true;
-        for (int i = 0; i < this.getDim() * getDim(); i++) {
-          isEqual &= this.getField(i) == board.getField(i);
-        }
-      }
+    if (this == object) {
+      return true;
     }
-    return isEqual;
+    return object instanceof Board board && board.dim == dim && board.hash == hash
+        && Arrays.equals(board.fields, fields);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(hash);
   }
 }
@@ -0,0 +1,352 @@
+package com.nedap.go.model;
+
+import com.nedap.go.model.utils.InvalidMoveException;
+import com.nedap.go.model.utils.Neighbours;
+import com.nedap.go.model.utils.StoneKernels;
+import java.util.Arrays;
+
+/**
+ * The rules of a Go game kept in as little memory as possible, for servers hosting many games.
+ *
+ * <p>
+ * It plays by the same rules as GoGame, but the board is a byte per intersection, the moves are a
+ * short each, and instead of a copy of the board after every move the position history is a set
+ * of 64-bit Zobrist hashes, open addressed in a long array. A game of 300 moves on 19x19 takes a
+ * few kilobytes instead of the hundreds a GoGame needs. There are no players here, only the
+ * colors; the moves are played by the player on turn.
+ * </p>
+ */
+public class CompactGame {
+
+  public static final int PASS = -1;
+  private static final byte EMPTY = 0;
+  private static final byte BLACK = 1;
+  private static final byte WHITE = 2;
+  // the hash of a position in the history set, with 0 taken to mark a free slot
+  private static final long FREE = 0L;
+  private static final long ZERO_HASH = 0x9E3779B97F4A7C15L;
+  private static final StoneKernels KERNELS = StoneKernels.get();
+
+  private final int dim;
+  private final Neighbours neighbours;
+  private final byte[] fields;
+  private long hash;
+  private short[] moves = new short[16];
+  private int moveCount;
+  private long[] history = new long[16];
+  private int historySize;
+
+  /**
+   * Construct a game on an empty board.
+   *
+   * @param dim The dimension of the board.
+   */
+  public CompactGame(int dim) {
+    this.dim = dim;
+    neighbours = Neighbours.of(dim);
+    fields = new byte[dim * dim];
+  }
+
+  public int getDim() {
+    return dim;
+  }
+
+  /**
+   * Get the color on turn. Black starts, and a pass is a turn too.
+   *
+   * @return Black or white.
+   */
+  public Stone getTurn() {
+    return moveCount % 2 == 0 ? Stone.BLACK : Stone.WHITE;
+  }
+
+  /**
+   * Check whether the game is over, i.e. both players passed in a row.
+   *
+   * @return True if the last two moves were passes.
+   */
+  public boolean isGameOver() {
+    return moveCount >= 2 && moves[moveCount - 1] == PASS && moves[moveCount - 2] == PASS;
+  }
+
+  /**
+   * Check whether the player on turn may play on the given intersection: it is on the board,
+   * empty, and the resulting position did not occur after an earlier move.
+   *
+   * @param index The index of the intersection.
+   * @return True if the move is valid.
+   */
+  public boolean isValidMove(int index) {
+    if (index < 0 || index >= fields.length || fields[index] != EMPTY) {
+      return false;
+    }
+    int[] removed = new int[fields.length];
+    byte color = color(getTurn());
+    int count = place(index, color, removed);
+    boolean repeats = containsPosition(hash);
+    undo(index, color, removed, count);
+    return !repeats;
+  }
+
+  /**
+   * Play a stone for the player on turn.
+   *
+   * @param index The index of the intersection.
+   * @throws InvalidMoveException If the move is not valid.
+   */
+  public void play(int index) throws InvalidMoveException {
+    if (!isValidMove(index)) {
+      throw new InvalidMoveException();
+    }
+    replay(index);
+  }
+
+  /**
+   * Pass for the player on turn.
+   */
+  public void pass() {
+    log(PASS);
+  }
+
+  /**
+   * Play a move that was already accepted, e.g. when rebuilding a game from its move log. The
+   * move is not validated again.
+   *
+   * @param index The index of the intersection or PASS.
+   */
+  public void replay(int index) {
+    if (index == PASS) {
+      pass();
+      return;
+    }
+    place(index, color(getTurn()), new int[fields.length]);
+    addPosition(hash);
+    log(index);
+  }
+
+  /**
+   * Get the moves played so far.
+   *
+   * @return The moves in order, an index or PASS.
+   */
+  public int[] getMoves() {
+    int[] copy = new int[moveCount];
+    for (int i = 0; i < moveCount; i++) {
+      copy[i] = moves[i];
+    }
+    return copy;
+  }
+
+  public int getMoveCount() {
+    return moveCount;
+  }
+
+  public long positionHash() {
+    return hash;
+  }
+
+  /**
+   * Count the stones of a color on the board.
+   *
+   * @param stone The color.
+   * @return The number of stones.
+   */
+  public int countStones(Stone stone) {
+    return KERNELS.count(fields, color(stone));
+  }
+
+  /**
+   * Count the freedoms of all chains of a color together: the empty intersections next to one of
+   * its stones, each counted once.
+   *
+   * @param stone The color.
+   * @return The number of freedoms.
+   */
+  public int countLiberties(Stone stone) {
+    return KERNELS.liberties(fields, dim, EMPTY, color(stone), new byte[fields.length]);
+  }
+
+  /**
+   * Check whether another game has the same stones on the board, whatever the moves to get there.
+   *
+   * @param other The other game.
+   * @return True if the boards are equal.
+   */
+  public boolean samePosition(CompactGame other) {
+    return hash == other.hash && KERNELS.equal(fields, other.fields);
+  }
+
+  /**
+   * Build a Board of the position, for scoring and display.
+   *
+   * @return A new board.
+   */
+  public Board toBoard() {
+    Stone[] stones = new Stone[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      stones[i] = fields[i] == BLACK ? Stone.BLACK : fields[i] == WHITE ? Stone.WHITE : Stone.EMPTY;
+    }
+    return new Board(stones);
+  }
+
+  /**
+   * Get the area score of a color, as Board.getScore.
+   *
+   * @param stone The color.
+   * @return The stones and surrounded territory of the color.
+   */
+  public int getScore(Stone stone) {
+    return toBoard().getScore(stone);
+  }
+
+  /**
+   * Get the color with the higher score.
+   *
+   * @return Black or white, or null on a draw.
+   */
+  public Stone getWinner() {
+    Board board = toBoard();
+    int black = board.getScore(Stone.BLACK);
+    int white = board.getScore(Stone.WHITE);
+    return black == white ? null : black > white ? Stone.BLACK : Stone.WHITE;
+  }
+
+  @Override
+  public String toString() {
+    return toBoard().toString();
+  }
+
+  private static byte color(Stone stone) {
+    return stone == Stone.BLACK ? BLACK : WHITE;
+  }
+
+  private static Stone stone(byte color) {
+    return color == BLACK ? Stone.BLACK : Stone.WHITE;
+  }
+
+  private void log(int move) {
+    if (moveCount == moves.length) {
+      moves = Arrays.copyOf(moves, moveCount * 2);
+    }
+    moves[moveCount++] = (short) move;
+  }
+
+  private void put(int index, byte color) {
+    hash ^= key(index, fields[index]) ^ key(index, color);
+    fields[index] = color;
+  }
+
+  private static long key(int index, byte color) {
+    return color == EMPTY ? 0L : Board.zobrist(index, stone(color));
+  }
+
+  /**
+   * Place a stone and remove what it captures: the opponent's chains left without freedoms, or
+   * else its own chain, as GoGame does.
+   *
+   * @return The number of stones removed, whose indexes are put in removed.
+   */
+  private int place(int index, byte color, int[] removed) {
+    put(index, color);
+    byte other = color == BLACK ? WHITE : BLACK;
+    int count = 0;
+    for (int i = 0; i < neighbours.count(index); i++) {
+      int neighbour = neighbours.get(index, i);
+      if (fields[neighbour] == other) {
+        count += removeIfCaptured(neighbour, removed, count);
+      }
+    }
+    if (count == 0) {
+      count = removeIfCaptured(index, removed, 0);
+    }
+    return count;
+  }
+
+  /**
+   * Take back a stone placed by place, with the stones it removed.
+   */
+  private void undo(int index, byte color, int[] removed, int count) {
+    boolean suicide = fields[index] == EMPTY;
+    byte capturedColor = suicide ? color : color == BLACK ? WHITE : BLACK;
+    for (int i = 0; i < count; i++) {
+      put(removed[i], capturedColor);
+    }
+    put(index, EMPTY);
+  }
+
+  /**
+   * Remove the chain through start if it has no freedoms, listing its stones after the first
+   * offset entries of removed.
+   *
+   * @return The number of stones removed.
+   */
+  private int removeIfCaptured(int start, int[] removed, int offset) {
+    byte color = fields[start];
+    if (color == EMPTY) {
+      return 0;
+    }
+    int size = offset;
+    removed[size++] = start;
+    for (int next = offset; next < size; next++) {
+      int current = removed[next];
+      for (int i = 0; i < neighbours.count(current); i++) {
+        int neighbour = neighbours.get(current, i);
+        if (fields[neighbour] == EMPTY) {
+          return 0;
+        } else if (fields[neighbour] == color && !contains(removed, offset, size, neighbour)) {
+          removed[size++] = neighbour;
+        }
+      }
+    }
+    for (int i = offset; i < size; i++) {
+      put(removed[i], EMPTY);
+    }
+    return size - offset;
+  }
+
+  private static boolean contains(int[] array, int from, int to, int value) {
+    for (int i = from; i < to; i++) {
+      if (array[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean containsPosition(long position) {
+    long stored = position == FREE ? ZERO_HASH : position;
+    int mask = history.length - 1;
+    for (int slot = (int) stored & mask; history[slot] != FREE; slot = (slot + 1) & mask) {
+      if (history[slot] == stored) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void addPosition(long position) {
+    if (containsPosition(position)) {
+      return;
+    }
+    if (2 * (historySize + 1) > history.length) {
+      long[] old = history;
+      history = new long[old.length * 2];
+      for (long stored : old) {
+        if (stored != FREE) {
+          insert(stored);
+        }
+      }
+    }
+    insert(position == FREE ? ZERO_HASH : position);
+    historySize++;
+  }
+
+  private void insert(long stored) {
+    int mask = history.length - 1;
+    int slot = (int) stored & mask;
+    while (history[slot] != FREE) {
+      slot = (slot + 1) & mask;
+    }
+    history[slot] = stored;
+  }
+}
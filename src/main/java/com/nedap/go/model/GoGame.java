@@ -7,7 +7,8 @@ import java.util.LinkedList;
 import java.util.List;
 
 /**
- * The class containing the basic Go game logic.
+ * The class containing the basic Go game logic. A game and its copies must only be used by one
+ * thread at a time (see Board).
  */
 public class GoGame implements Game {
 
@@ -17,6 +18,7 @@ public class GoGame implements Game {
   private final List<GoMove> last2Moves;
   private final BoardList possibleKoBoards;
   private boolean isPlayer1Turn;
+  private int moveCount;
 
   /**
    * Constructor for creating a new game with a 9x9 board.
@@ -90,6 +92,16 @@ public class GoGame implements Game {
         last2Moves.size() - 2).isPass();
   }
 
+  /**
+   * Check whether the winner is certain already, however the game goes on: a player has settled
+   * more than half the board for good (see PassAlive). Players may as well pass from here on.
+   *
+   * @return whether the game is decided
+   */
+  public boolean isDecided() {
+    return PassAlive.of(board).getDecidedWinner() != null;
+  }
+
   /**
    * Query whose turn it is.
    *
@@ -202,6 +214,22 @@ public class GoGame implements Game {
     }
   }
 
+  /**
+   * Play a move that was already accepted by a game, e.g. when rebuilding a game from its move
+   * log. The move is not validated again, so the expensive ko check is skipped, and captures are
+   * only looked for around the new stone.
+   *
+   * @param move The move to play, by the player on turn.
+   */
+  public void replayMove(GoMove move) {
+    if (!move.isPass()) {
+      board.playStone(move.getIndex(), move.getPlayer().getStone());
+      possibleKoBoards.add(board.deepCopy());
+    }
+    recordLastMove(move);
+    isPlayer1Turn = !isPlayer1Turn;
+  }
+
   private GoMove moveConversion(Move move) {
     if (move instanceof GoMoveRowColumn goMove) {
       return new GoMove(goMove.getPlayer(), board.index(goMove.getRow(), goMove.getColumn()));
@@ -215,6 +243,7 @@ public class GoGame implements Game {
   }
 
   private void recordLastMove(GoMove move) {
+    moveCount++;
     last2Moves.add(move);
     if (last2Moves.size() > 2) {
       last2Moves.removeFirst();
@@ -222,25 +251,57 @@ public class GoGame implements Game {
   }
 
   /**
-   * Create a copy of the game.
+   * Create a copy of the game. The copy shares the board and the ko history with this game until
+   * either changes them, so copying takes the same time however far the game is. Copying marks
+   * this game as sharing them, so it must happen on the thread playing the game; the copy can then
+   * be handed to another thread (see Board).
    *
    * @return The copy of the game.
    */
   @Override
   public GoGame deepCopy() {
-    BoardList possibleKoBoardsCopy = new BoardList();
-    for (Board koBoard : possibleKoBoards) {
-      possibleKoBoardsCopy.add(koBoard.deepCopy());
-    }
     List<GoMove> last2MovesCopy = new LinkedList<>(last2Moves);
-    return new GoGame(player1, player2, board.deepCopy(), isPlayer1Turn, possibleKoBoardsCopy,
-        last2MovesCopy);
+    GoGame copy = new GoGame(player1, player2, board.deepCopy(), isPlayer1Turn,
+        possibleKoBoards.fork(), last2MovesCopy);
+    copy.moveCount = moveCount;
+    return copy;
   }
 
   public int getScore(Stone stone){
     return board.getScore(stone);
   }
 
+  /**
+   * Get the score of black minus that of white, scoring the board once (see
+   * Board.getScoreMargin).
+   *
+   * @return The margin, positive if black is ahead.
+   */
+  public int getScoreMargin() {
+    return board.getScoreMargin();
+  }
+
+  /**
+   * Get the score of a color with what is settled for good counted for its owner (see
+   * Board.getSettledScore).
+   *
+   * @param stone The color.
+   * @return The score.
+   */
+  public int getSettledScore(Stone stone) {
+    return board.getSettledScore(stone);
+  }
+
+  /**
+   * Get the number of moves played in this game, passes included. A game constructed from a board
+   * starts counting at 0.
+   *
+   * @return The number of moves.
+   */
+  public int getMoveCount() {
+    return moveCount;
+  }
+
   public Move getLastMove(){
     if (last2Moves.size()>0)
       return last2Moves.getLast();
@@ -0,0 +1,247 @@
+package com.nedap.go.model;
+
+import com.nedap.go.model.utils.Neighbours;
+import java.util.Arrays;
+
+/**
+ * The parts of a board settled for good, found with Benson's algorithm for unconditional life.
+ *
+ * <p>
+ * For each color, the board splits into the chains of that color and the regions between them:
+ * the connected areas of empty intersections and opponent stones. A region is vital to a chain if
+ * all its empty intersections are freedoms of the chain. Benson's algorithm repeatedly drops the
+ * chains with fewer than two vital regions left and the regions bordering a dropped chain. The
+ * chains that remain are pass-alive: they cannot be captured even if their owner passes for the
+ * rest of the game. A remaining region whose every empty intersection is a freedom of one of them
+ * is settled territory, with any opponent stones in it dead. Whoever owns more than half the board
+ * this way has won, whatever is played after.
+ * </p>
+ */
+public final class PassAlive {
+
+  private static final int NONE = -1;
+
+  private final Stone[] owners;
+
+  private PassAlive(Stone[] owners) {
+    this.owners = owners;
+  }
+
+  /**
+   * Analyse a board.
+   *
+   * @param board The board.
+   * @return What is settled on the board for either color.
+   */
+  public static PassAlive of(Board board) {
+    Stone[] owners = new Stone[board.getDim() * board.getDim()];
+    Arrays.fill(owners, Stone.EMPTY);
+    new Analysis(board, Stone.BLACK).settle(owners);
+    new Analysis(board, Stone.WHITE).settle(owners);
+    return new PassAlive(owners);
+  }
+
+  /**
+   * Get the owner of an intersection, if it is settled.
+   *
+   * @param index The index of the intersection.
+   * @return The color of the pass-alive chain or territory the intersection is part of, or empty
+   *       if it is not settled.
+   */
+  public Stone getOwner(int index) {
+    return owners[index];
+  }
+
+  public boolean isSettled(int index) {
+    return owners[index] != Stone.EMPTY;
+  }
+
+  /**
+   * Get the area a color keeps whatever is played: its pass-alive chains and their territory.
+   *
+   * @param stone The color.
+   * @return The number of intersections.
+   */
+  public int getSettledArea(Stone stone) {
+    int area = 0;
+    for (Stone owner : owners) {
+      if (owner == stone) {
+        area++;
+      }
+    }
+    return area;
+  }
+
+  /**
+   * Get the winner if the game is decided: one color has settled more than half the board, so the
+   * other cannot score as much by area whatever is played.
+   *
+   * @return Black or white, or null if the game is not decided.
+   */
+  public Stone getDecidedWinner() {
+    if (2 * getSettledArea(Stone.BLACK) > owners.length) {
+      return Stone.BLACK;
+    } else if (2 * getSettledArea(Stone.WHITE) > owners.length) {
+      return Stone.WHITE;
+    }
+    return null;
+  }
+
+  /**
+   * Benson's algorithm for the chains of one color.
+   */
+  private static final class Analysis {
+
+    private final Board board;
+    private final Stone color;
+    private final Neighbours neighbours;
+    private final int size;
+    // the chain of every intersection with a stone of the color, the region of every other one
+    private final int[] chainOf;
+    private final int[] regionOf;
+    private int chains;
+    private int regions;
+
+    private Analysis(Board board, Stone color) {
+      this.board = board;
+      this.color = color;
+      this.neighbours = Neighbours.of(board.getDim());
+      this.size = board.getDim() * board.getDim();
+      chainOf = new int[size];
+      regionOf = new int[size];
+      Arrays.fill(chainOf, NONE);
+      Arrays.fill(regionOf, NONE);
+      int[] stack = new int[size];
+      for (int index = 0; index < size; index++) {
+        if (board.getField(index) == color && chainOf[index] == NONE) {
+          label(index, chainOf, chains++, stack);
+        } else if (board.getField(index) != color && regionOf[index] == NONE) {
+          label(index, regionOf, regions++, stack);
+        }
+      }
+    }
+
+    /**
+     * Give the label to every intersection connected to start through intersections on the same
+     * side: stones of the color, or not.
+     */
+    private void label(int start, int[] labels, int label, int[] stack) {
+      boolean ofColor = board.getField(start) == color;
+      int top = 0;
+      stack[top++] = start;
+      labels[start] = label;
+      while (top > 0) {
+        int current = stack[--top];
+        for (int i = 0; i < neighbours.count(current); i++) {
+          int next = neighbours.get(current, i);
+          if (labels[next] == NONE && (board.getField(next) == color) == ofColor) {
+            labels[next] = label;
+            stack[top++] = next;
+          }
+        }
+      }
+    }
+
+    /**
+     * Run the algorithm and mark the pass-alive chains and their territory in owners.
+     */
+    private void settle(Stone[] owners) {
+      if (chains == 0) {
+        return;
+      }
+      // the chains next to every empty intersection of a region, null if it has none empty
+      int[][] vitalTo = new int[regions][];
+      boolean[][] borders = new boolean[regions][chains];
+      boolean[] small = new boolean[regions];
+      Arrays.fill(small, true);
+      int[] adjacent = new int[Neighbours.SLOTS];
+      for (int index = 0; index < size; index++) {
+        int region = regionOf[index];
+        if (region == NONE) {
+          continue;
+        }
+        int count = 0;
+        for (int i = 0; i < neighbours.count(index); i++) {
+          int chain = chainOf[neighbours.get(index, i)];
+          if (chain != NONE) {
+            borders[region][chain] = true;
+            if (!contains(adjacent, count, chain)) {
+              adjacent[count++] = chain;
+            }
+          }
+        }
+        if (board.getField(index) != Stone.EMPTY) {
+          continue;
+        }
+        small[region] &= count > 0;
+        vitalTo[region] = vitalTo[region] == null ? Arrays.copyOf(adjacent, count)
+            : intersect(vitalTo[region], adjacent, count);
+      }
+      boolean[] aliveChain = new boolean[chains];
+      boolean[] liveRegion = new boolean[regions];
+      Arrays.fill(aliveChain, true);
+      Arrays.fill(liveRegion, true);
+      boolean changed = true;
+      while (changed) {
+        changed = false;
+        int[] vitalRegions = new int[chains];
+        for (int region = 0; region < regions; region++) {
+          if (liveRegion[region] && vitalTo[region] != null) {
+            for (int chain : vitalTo[region]) {
+              vitalRegions[chain]++;
+            }
+          }
+        }
+        for (int chain = 0; chain < chains; chain++) {
+          if (aliveChain[chain] && vitalRegions[chain] < 2) {
+            aliveChain[chain] = false;
+            changed = true;
+          }
+        }
+        for (int region = 0; region < regions; region++) {
+          if (liveRegion[region] && bordersDropped(borders[region], aliveChain)) {
+            liveRegion[region] = false;
+            changed = true;
+          }
+        }
+      }
+      for (int index = 0; index < size; index++) {
+        int chain = chainOf[index];
+        int region = regionOf[index];
+        if (chain != NONE ? aliveChain[chain]
+            : liveRegion[region] && small[region] && vitalTo[region] != null) {
+          owners[index] = color;
+        }
+      }
+    }
+
+    private static boolean bordersDropped(boolean[] borders, boolean[] aliveChain) {
+      for (int chain = 0; chain < borders.length; chain++) {
+        if (borders[chain] && !aliveChain[chain]) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static boolean contains(int[] array, int count, int value) {
+      for (int i = 0; i < count; i++) {
+        if (array[i] == value) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static int[] intersect(int[] chains, int[] adjacent, int count) {
+      int kept = 0;
+      int[] result = new int[chains.length];
+      for (int chain : chains) {
+        if (contains(adjacent, count, chain)) {
+          result[kept++] = chain;
+        }
+      }
+      return kept == chains.length ? chains : Arrays.copyOf(result, kept);
+    }
+  }
+}
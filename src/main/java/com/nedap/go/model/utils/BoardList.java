@@ -1,35 +1,132 @@
 package com.nedap.go.model.utils;
 
 import com.nedap.go.model.Board;
-import java.util.ArrayList;
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
- * An Array list containing Board objects and implementing a method to
- * find if a given board is contained in the list. Used in enforcing the
- * ko rule.
+ * A set of Board objects implementing a method to find if a given board is contained in it. Used
+ * in enforcing the ko rule. The boards are indexed by their position hash, so a lookup takes the
+ * same time however many boards the game went through. Boards must not be changed once added.
+ *
+ * <p>
+ * A set can be forked cheaply for a copy of the game: the boards added so far are frozen in a
+ * layer shared by the set and its fork, and each adds to a layer of its own on top. Layers are
+ * merged once a layer holds about as many boards as the one below it, so a set that is forked
+ * after every move still has only a logarithmic number of layers to look in.
+ * </p>
+ *
+ * <p>
+ * Forking changes this set as well as creating the fork, so like the Board and GoGame it belongs
+ * to, a set must only be used by one thread at a time. Boards can be added but not removed.
+ * </p>
  */
-public class BoardList extends ArrayList<Board> {
+public class BoardList extends AbstractSet<Board> {
 
-  /**\
-   * Create an Arraylist of Board objects.
+  private Layer frozen;
+  private Set<Board> boards = new HashSet<>();
+
+  /**
+   * Create an empty set of Board objects.
    */
   public BoardList() {
-    super();
+    this(null);
+  }
+
+  private BoardList(Layer frozen) {
+    this.frozen = frozen;
+  }
+
+  /**
+   * Add a board, which must not be changed afterwards.
+   *
+   * @param board The board.
+   * @return True if no equal board was in the set.
+   */
+  @Override
+  public boolean add(Board board) {
+    return !matches(board) && boards.add(board);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return matches(o);
   }
 
   /**
-   * Finds whether a board which equals the object given as parameter is contained within the list
+   * Finds whether a board which equals the object given as parameter is contained within the set
    * (See com.nedap.go.model.Board.equals for board equality).
    *
    * @param o The object of which a match is searched.
-   * @return True if the given object has an equal contained in the list
+   * @return True if the given object has an equal contained in the set
    */
   public boolean matches(Object o) {
-    for (Board board : this) {
-      if (board.equals(o)) {
+    if (boards.contains(o)) {
+      return true;
+    }
+    for (Layer layer = frozen; layer != null; layer = layer.below) {
+      if (layer.boards.contains(o)) {
         return true;
       }
     }
     return false;
   }
-}
\ No newline at end of file
+
+  /**
+   * Get the number of boards in the set.
+   *
+   * @return The number of boards.
+   */
+  @Override
+  public int size() {
+    int size = boards.size();
+    for (Layer layer = frozen; layer != null; layer = layer.below) {
+      size += layer.boards.size();
+    }
+    return size;
+  }
+
+  /**
+   * Go over the boards, the latest layer first.
+   *
+   * @return An iterator that does not support removal.
+   */
+  @Override
+  public Iterator<Board> iterator() {
+    Stream<Board> all = boards.stream();
+    for (Layer layer = frozen; layer != null; layer = layer.below) {
+      all = Stream.concat(all, layer.boards.stream());
+    }
+    return all.iterator();
+  }
+
+  /**
+   * Create a set with the same boards, which can be added to independently of this one. The
+   * boards themselves are shared.
+   *
+   * @return The fork.
+   */
+  public BoardList fork() {
+    if (!boards.isEmpty()) {
+      Layer layer = new Layer(boards, frozen);
+      while (layer.below != null && layer.below.boards.size() <= 2 * layer.boards.size()) {
+        Set<Board> merged = new HashSet<>(layer.below.boards);
+        merged.addAll(layer.boards);
+        layer = new Layer(merged, layer.below.below);
+      }
+      frozen = layer;
+      boards = new HashSet<>();
+    }
+    return new BoardList(frozen);
+  }
+
+  /**
+   * Boards shared by several sets, never changed again.
+   */
+  private record Layer(Set<Board> boards, Layer below) {
+
+  }
+}
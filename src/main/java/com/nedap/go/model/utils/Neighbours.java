@@ -0,0 +1,141 @@
+package com.nedap.go.model.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The adjacent intersections of every intersection of a board of a given dimension, computed once
+ * and shared by every board of that dimension.
+ *
+ * <p>
+ * The table is a flat array of four slots per intersection: the neighbours above, below, left and
+ * right as far as they are on the board, followed by NONE in the remaining slots. Walking the
+ * neighbours of an intersection is then a few array reads, without the edge arithmetic or any
+ * allocation:
+ * </p>
+ * <pre>
+ *   for (int i = 0; i &lt; neighbours.count(index); i++) {
+ *     int neighbour = neighbours.get(index, i);
+ *   }
+ * </pre>
+ *
+ * <p>
+ * A second table holds the eight intersections around each intersection, the diagonal ones too,
+ * in the order of the AROUND slots, with NONE for those off the board. It serves the 3x3 patterns
+ * of the board.
+ * </p>
+ */
+public final class Neighbours {
+
+  /**
+   * What fills the slots after the last neighbour of an intersection.
+   */
+  public static final int NONE = -1;
+  public static final int SLOTS = 4;
+  /**
+   * The number of intersections around an intersection, in the order north-west, north,
+   * north-east, west, east, south-west, south and south-east. Slot 7 - i is opposite slot i.
+   */
+  public static final int AROUND = 8;
+  private static final Map<Integer, Neighbours> TABLES = new ConcurrentHashMap<>();
+
+  static {
+    for (int dim : new int[]{9, 13, 19}) {
+      of(dim);
+    }
+  }
+
+  private final int dim;
+  private final int[] table;
+  private final byte[] counts;
+  private final int[] around;
+
+  private Neighbours(int dim) {
+    this.dim = dim;
+    int size = dim * dim;
+    table = new int[size * SLOTS];
+    counts = new byte[size];
+    for (int index = 0; index < size; index++) {
+      int col = index % dim;
+      int slot = index * SLOTS;
+      int count = 0;
+      if (index >= dim) {
+        table[slot + count++] = index - dim;
+      }
+      if (index < size - dim) {
+        table[slot + count++] = index + dim;
+      }
+      if (col > 0) {
+        table[slot + count++] = index - 1;
+      }
+      if (col < dim - 1) {
+        table[slot + count++] = index + 1;
+      }
+      counts[index] = (byte) count;
+      for (int i = count; i < SLOTS; i++) {
+        table[slot + i] = NONE;
+      }
+    }
+    around = new int[size * AROUND];
+    for (int index = 0; index < size; index++) {
+      int row = index / dim;
+      int col = index % dim;
+      int slot = 0;
+      for (int dr = -1; dr <= 1; dr++) {
+        for (int dc = -1; dc <= 1; dc++) {
+          if (dr == 0 && dc == 0) {
+            continue;
+          }
+          boolean onBoard = row + dr >= 0 && row + dr < dim && col + dc >= 0 && col + dc < dim;
+          around[index * AROUND + slot++] = onBoard ? index + dr * dim + dc : NONE;
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the table of a board dimension, built on first use.
+   *
+   * @param dim The dimension of the board.
+   * @return The shared table.
+   */
+  public static Neighbours of(int dim) {
+    return TABLES.computeIfAbsent(dim, Neighbours::new);
+  }
+
+  public int getDim() {
+    return dim;
+  }
+
+  /**
+   * Get the number of neighbours of an intersection: 2 in a corner, 3 on an edge and 4 elsewhere.
+   *
+   * @param index The index of the intersection.
+   * @return The number of neighbours.
+   */
+  public int count(int index) {
+    return counts[index];
+  }
+
+  /**
+   * Get a neighbour of an intersection.
+   *
+   * @param index The index of the intersection.
+   * @param i     The slot, from 0 to 3.
+   * @return The index of the neighbour, or NONE if i is not below count(index).
+   */
+  public int get(int index, int i) {
+    return table[index * SLOTS + i];
+  }
+
+  /**
+   * Get an intersection around an intersection, diagonal ones included.
+   *
+   * @param index The index of the intersection.
+   * @param i     The slot, from 0 to 7, see AROUND.
+   * @return The index of the intersection in that direction, or NONE if off the board.
+   */
+  public int around(int index, int i) {
+    return around[index * AROUND + i];
+  }
+}
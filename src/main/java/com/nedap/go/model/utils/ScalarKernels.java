@@ -0,0 +1,45 @@
+package com.nedap.go.model.utils;
+
+import java.util.Arrays;
+
+/**
+ * The board operations as plain loops, for JVMs without the Vector API.
+ */
+final class ScalarKernels implements StoneKernels {
+
+  @Override
+  public int count(byte[] fields, byte color) {
+    int count = 0;
+    for (byte field : fields) {
+      if (field == color) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public boolean equal(byte[] a, byte[] b) {
+    return Arrays.equals(a, b);
+  }
+
+  @Override
+  public int liberties(byte[] fields, int dim, byte empty, byte color, byte[] mask) {
+    Neighbours neighbours = Neighbours.of(dim);
+    int count = 0;
+    for (int index = 0; index < fields.length; index++) {
+      mask[index] = 0;
+      if (fields[index] != empty) {
+        continue;
+      }
+      for (int i = 0; i < neighbours.count(index); i++) {
+        if (fields[neighbours.get(index, i)] == color) {
+          mask[index] = 1;
+          count++;
+          break;
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,80 @@
+package com.nedap.go.model.utils;
+
+/**
+ * Whole-board operations on a byte-packed board, one byte per intersection row after row, as
+ * CompactGame keeps it.
+ *
+ * <p>
+ * There are two implementations: a plain loop, and one on the incubating Vector API that handles
+ * a whole SIMD register of intersections per step. The vector one is only built by the vector
+ * profile in the pom, and only used when it was built, the JVM was started with
+ * {@code --add-modules jdk.incubator.vector} and {@code go.vector} is not set to false; otherwise
+ * the plain loop is used.
+ * </p>
+ */
+public interface StoneKernels {
+
+  /**
+   * Count the intersections holding a value.
+   *
+   * @param fields The board.
+   * @param color  The value to count, e.g. the byte of a color or of empty.
+   * @return The number of intersections.
+   */
+  int count(byte[] fields, byte color);
+
+  /**
+   * Compare two boards.
+   *
+   * @param a One board.
+   * @param b The other board.
+   * @return True if they have the same length and the same value everywhere.
+   */
+  boolean equal(byte[] a, byte[] b);
+
+  /**
+   * Find the freedoms of all chains of a color: the empty intersections next to one of its
+   * stones.
+   *
+   * @param fields The board.
+   * @param dim    The dimension of the board.
+   * @param empty  The byte of an empty intersection.
+   * @param color  The byte of the color.
+   * @param mask   Filled with 1 on every freedom and 0 elsewhere; as long as the board.
+   * @return The number of freedoms.
+   */
+  int liberties(byte[] fields, int dim, byte empty, byte color, byte[] mask);
+
+  /**
+   * Get the implementation this JVM supports.
+   *
+   * @return The vector implementation if available and not switched off, else the plain loops.
+   */
+  static StoneKernels get() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Choose the implementation on first use.
+   */
+  final class Holder {
+
+    private static final StoneKernels INSTANCE = choose();
+
+    private Holder() {
+    }
+
+    private static StoneKernels choose() {
+      boolean wanted = Boolean.parseBoolean(System.getProperty("go.vector", "true"));
+      if (wanted && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+        try {
+          return (StoneKernels) Class.forName("com.nedap.go.model.utils.VectorKernels")
+              .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+          // fall back to the plain loops
+        }
+      }
+      return new ScalarKernels();
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.nedap.go.model.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The board operations on the Vector API. Only loaded by StoneKernels when the
+ * jdk.incubator.vector module is present.
+ *
+ * <p>
+ * The freedoms are found a register of intersections at a time by comparing the board with itself
+ * shifted by one row up and down and one column left and right. A column shift wraps around the
+ * row ends, so its result is masked with the intersections that have a neighbour on that side.
+ * The first and last row, whose row shifts would leave the board, and the few intersections left
+ * over after the last full register go through the plain loop.
+ * </p>
+ */
+final class VectorKernels implements StoneKernels {
+
+  private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+  private static final Map<Integer, Edges> EDGES = new ConcurrentHashMap<>();
+
+  @Override
+  public int count(byte[] fields, byte color) {
+    int count = 0;
+    int i = 0;
+    for (int bound = SPECIES.loopBound(fields.length); i < bound; i += SPECIES.length()) {
+      count += ByteVector.fromArray(SPECIES, fields, i).eq(color).trueCount();
+    }
+    for (; i < fields.length; i++) {
+      if (fields[i] == color) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Compare with Arrays.equals, which the JIT already turns into vector instructions; on 19x19 it
+   * measured twice as fast as a loop over ByteVector.
+   */
+  @Override
+  public boolean equal(byte[] a, byte[] b) {
+    return Arrays.equals(a, b);
+  }
+
+  @Override
+  public int liberties(byte[] fields, int dim, byte empty, byte color, byte[] mask) {
+    Edges edges = EDGES.computeIfAbsent(dim, Edges::new);
+    Neighbours neighbours = Neighbours.of(dim);
+    int size = fields.length;
+    int count = 0;
+    int i = 0;
+    for (; i < dim; i++) {
+      count += liberty(fields, neighbours, empty, color, mask, i);
+    }
+    ByteVector one = ByteVector.broadcast(SPECIES, (byte) 1);
+    ByteVector zero = ByteVector.zero(SPECIES);
+    for (; i + SPECIES.length() <= size - dim; i += SPECIES.length()) {
+      VectorMask<Byte> near = ByteVector.fromArray(SPECIES, fields, i - dim).eq(color)
+          .or(ByteVector.fromArray(SPECIES, fields, i + dim).eq(color))
+          .or(ByteVector.fromArray(SPECIES, fields, i - 1).eq(color)
+              .and(ByteVector.fromArray(SPECIES, edges.left, i).eq((byte) 1)))
+          .or(ByteVector.fromArray(SPECIES, fields, i + 1).eq(color)
+              .and(ByteVector.fromArray(SPECIES, edges.right, i).eq((byte) 1)));
+      VectorMask<Byte> free = ByteVector.fromArray(SPECIES, fields, i).eq(empty).and(near);
+      zero.blend(one, free).intoArray(mask, i);
+      count += free.trueCount();
+    }
+    for (; i < size; i++) {
+      count += liberty(fields, neighbours, empty, color, mask, i);
+    }
+    return count;
+  }
+
+  private static int liberty(byte[] fields, Neighbours neighbours, byte empty, byte color,
+      byte[] mask, int index) {
+    mask[index] = 0;
+    if (fields[index] == empty) {
+      for (int i = 0; i < neighbours.count(index); i++) {
+        if (fields[neighbours.get(index, i)] == color) {
+          mask[index] = 1;
+          return 1;
+        }
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * For a board dimension, 1 on the intersections with a neighbour to the left, and to the right.
+   */
+  private static final class Edges {
+
+    private final byte[] left;
+    private final byte[] right;
+
+    private Edges(int dim) {
+      left = new byte[dim * dim];
+      right = new byte[dim * dim];
+      for (int i = 0; i < dim * dim; i++) {
+        left[i] = (byte) (i % dim > 0 ? 1 : 0);
+        right[i] = (byte) (i % dim < dim - 1 ? 1 : 0);
+      }
+    }
+  }
+}
@@ -3,15 +3,19 @@ package com.nedap.go.networking;
 import java.io.*;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Wrapper for a Socket and implements reading messages that consist of a single line from the socket.
- * This class is not thread-safe.
+ * Messages may be sent from several threads; apart from that this class is not thread-safe.
  */
 public abstract class SocketConnection {
     private final Socket socket;
     private final BufferedReader in;
     private final BufferedWriter out;
+    private final OutputStream rawOut;
+    // a lock rather than synchronized, so a virtual thread blocked on a write does not pin its carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
     private boolean started = false;
 
     /**
@@ -23,7 +27,8 @@ public abstract class SocketConnection {
     protected SocketConnection(Socket socket) throws IOException {
         this.socket = socket;
         in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+        rawOut = socket.getOutputStream();
+        out = new BufferedWriter(new OutputStreamWriter(rawOut));
     }
 
     /**
@@ -88,6 +93,7 @@ public abstract class SocketConnection {
      * @return true if the message was sent successfully, false if the connection was closed
      */
     protected boolean sendMessage(String message) {
+        writeLock.lock();
         try {
             out.write(message);
             out.newLine();
@@ -97,6 +103,28 @@ public abstract class SocketConnection {
             // an error occurred while writing, close the connection and return false
             close();
             return false;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Send a message that is already encoded, including the line ending. Lets one encoded message
+     * be written to many connections.
+     * @param line the encoded message
+     * @return true if the message was sent successfully, false if the connection was closed
+     */
+    protected boolean sendEncoded(byte[] line) {
+        writeLock.lock();
+        try {
+            rawOut.write(line);
+            rawOut.flush();
+            return true;
+        } catch (IOException e) {
+            close();
+            return false;
+        } finally {
+            writeLock.unlock();
         }
     }
 
@@ -86,6 +86,25 @@ public class ClientConnection extends SocketConnection {
     sendMessage(Protocol.QUEUE);
   }
 
+  /**
+   * Join the queue for games on a board of the given dimension.
+   *
+   * @param boardDim The dimension of the board.
+   */
+  public void sendQueue(int boardDim) {
+    sendMessage(Protocol.QUEUE + Protocol.SEPARATOR + boardDim);
+  }
+
+  /**
+   * Join the queue for games on a board of the given dimension and time control.
+   *
+   * @param boardDim    The dimension of the board.
+   * @param timePerMove The time per move in milliseconds.
+   */
+  public void sendQueue(int boardDim, long timePerMove) {
+    sendMessage(Protocol.QUEUE + Protocol.SEPARATOR + boardDim + Protocol.SEPARATOR + timePerMove);
+  }
+
 
   /**
    * Decodes a GoMove object to adhere to the protocol and sends the move.
@@ -104,6 +123,15 @@ public class ClientConnection extends SocketConnection {
     sendMessage(Protocol.RESIGN);
   }
 
+  /**
+   * Take back the seat in a game after the connection dropped.
+   *
+   * @param sessionToken The token received when logging in the last time.
+   */
+  public void sendReconnect(String sessionToken) {
+    sendMessage(Protocol.RECONNECT + Protocol.SEPARATOR + sessionToken);
+  }
+
   public void sendHello() {
     sendMessage(Protocol.HELLO + Protocol.SEPARATOR + "hello");
   }
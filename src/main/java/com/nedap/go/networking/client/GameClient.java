@@ -1,6 +1,7 @@
 package com.nedap.go.networking.client;
 
 import com.nedap.go.model.GoMove;
+import com.nedap.go.networking.protocol.Protocol;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.util.ArrayList;
@@ -15,6 +16,7 @@ public class GameClient {
   private final List<ClientListener> listOfListeners;
   private final MainListener mainListener;
   private String username;
+  private String sessionToken;
   private int playerType;
 
   /**
@@ -53,6 +55,30 @@ public class GameClient {
     clientConnection.sendUsername(username);
   }
 
+  /**
+   * Get the token to reconnect with when the connection drops during a game.
+   *
+   * @return The token, or null if the server does not hold seats of dropped players.
+   */
+  public String getSessionToken() {
+    return sessionToken;
+  }
+
+  void setSessionToken(String sessionToken) {
+    this.sessionToken = sessionToken;
+  }
+
+  /**
+   * Take back the seat in a game instead of logging in, e.g. with a new GameClient after the
+   * connection dropped.
+   *
+   * @param sessionToken The token of the previous connection.
+   */
+  public void sendReconnect(String sessionToken) {
+    this.sessionToken = sessionToken;
+    clientConnection.sendReconnect(sessionToken);
+  }
+
   public void handleDisconnect() {
     close();
     mainListener.connectionLost();
@@ -81,10 +107,39 @@ public class GameClient {
     listOfListeners.forEach(listener -> listener.newGame(player1Name, player2Name, boardDim));
   }
 
+  /**
+   * Continue a game after reconnecting: start it and play the moves made so far.
+   *
+   * @param player1Name The name of the player with black.
+   * @param player2Name The name of the player with white.
+   * @param boardDim    The dimension of the board.
+   * @param moves       The moves played so far, an index or -1 for a pass.
+   */
+  public void resumeGame(String player1Name, String player2Name, int boardDim, int[] moves) {
+    newGame(player1Name, player2Name, boardDim);
+    String color = Protocol.BLACK;
+    for (int move : moves) {
+      if (move < 0) {
+        receivePass(color);
+      } else {
+        receiveMove(move, color);
+      }
+      color = color.equals(Protocol.BLACK) ? Protocol.WHITE : Protocol.BLACK;
+    }
+  }
+
   public void sendQueue() {
     clientConnection.sendQueue();
   }
 
+  public void sendQueue(int boardDim) {
+    clientConnection.sendQueue(boardDim);
+  }
+
+  public void sendQueue(int boardDim, long timePerMove) {
+    clientConnection.sendQueue(boardDim, timePerMove);
+  }
+
   public int getPlayerType() {
     return playerType;
   }
@@ -1,7 +1,10 @@
 package com.nedap.go.networking.client;
 
+import com.nedap.go.ai.AlphaBetaStrategy;
 import com.nedap.go.ai.BetterStrategy;
+import com.nedap.go.ai.BookStrategy;
 import com.nedap.go.ai.ComputerPlayer;
+import com.nedap.go.ai.MctsStrategy;
 import com.nedap.go.ai.NaiveStrategy;
 import com.nedap.go.ai.PassStrategy;
 import com.nedap.go.ai.SmartStrategy;
@@ -71,8 +74,10 @@ public class GameListener implements ClientListener {
   private void createMyPlayer(String name, Stone stone) {
     myPlayer = switch (client.getPlayerType()) {
       case 2 -> new ComputerPlayer(name, new NaiveStrategy(), stone);
-      case 3 -> new ComputerPlayer(name, new SmartStrategy(), stone);
-      case 4 -> new ComputerPlayer(name, new BetterStrategy(), stone);
+      case 3 -> new ComputerPlayer(name, new BookStrategy(new SmartStrategy()), stone);
+      case 4 -> new ComputerPlayer(name, new BookStrategy(new BetterStrategy()), stone);
+      case 5 -> new ComputerPlayer(name, new AlphaBetaStrategy(), stone);
+      case 6 -> new ComputerPlayer(name, new MctsStrategy(), stone);
       default -> new HumanPlayer(name, stone);
     };
   }
@@ -84,6 +89,9 @@ public class GameListener implements ClientListener {
       myMove = myMove();
       client.sendMove(myMove);
     }
+    if (myPlayer instanceof ComputerPlayer computer && !isMyMove()) {
+      computer.startPondering(game);
+    }
     GoMove previousServerMove = null;
     while (!isMoveReceived && !isGameOver()) {
       try {
@@ -155,19 +163,36 @@ public class GameListener implements ClientListener {
   }
 
   public synchronized void receiveMove(int moveIndex, String moveColor) {
+    cancelPondering();
     Player player = getPlayerFromColor(moveColor);
     serverMove = new GoMove(player, moveIndex);
+    observeMove(serverMove);
     isMoveReceived = true;
     notifyAll();
   }
 
   public synchronized void receivePass(String color) {
+    cancelPondering();
     Player player = getPlayerFromColor(color);
     serverMove = new GoMove(player);
+    observeMove(serverMove);
     isMoveReceived = true;
     notifyAll();
   }
 
+  // only signals, the network thread must not wait for the strategy
+  private void cancelPondering() {
+    if (myPlayer instanceof ComputerPlayer computer) {
+      computer.cancelPondering();
+    }
+  }
+
+  private void observeMove(GoMove move) {
+    if (myPlayer instanceof ComputerPlayer computer) {
+      computer.observeMove(move);
+    }
+  }
+
   private Player getPlayerFromColor(String moveColor) {
     Stone stone = moveColor.equals(Protocol.BLACK) ? Stone.BLACK : Stone.WHITE;
     return myPlayer.getStone().equals(stone) ? myPlayer : otherPlayer;
@@ -178,6 +203,7 @@ public class GameListener implements ClientListener {
   }
 
   public synchronized void receiveDraw() throws GameMismatchException {
+    cancelPondering();
     if (game.isGameover() && game.getWinner() == null) {
       isGameOver = true;
       gameEndingMessage = "It is a draw";
@@ -191,6 +217,7 @@ public class GameListener implements ClientListener {
   }
 
   public synchronized void receiveWinner(String winner) throws GameMismatchException {
+    cancelPondering();
     if (sameWinner(winner)) {
       gameEndingMessage = game.getWinner().equals(myPlayer) ? "You win!" : "You lose!";
       isGameOver = true;
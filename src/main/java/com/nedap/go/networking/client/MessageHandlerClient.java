@@ -67,6 +67,10 @@ public class MessageHandlerClient {
         client.receiveInQueue();
         setPlayerState(PlayerState.IN_QUEUE);
       }
+      case Protocol.GAME_STATE -> {
+        handleGameState(messageArray);
+        setPlayerState(PlayerState.IN_GAME);
+      }
       case Protocol.ERROR -> throw new ErrorReceivedException(messageArray[1]);
       default -> throw new ImproperMessageException(message);
     }
@@ -105,6 +109,9 @@ public class MessageHandlerClient {
   }
 
   private void handleAccept(String[] messageArray) {
+    if (messageArray.length > 2) {
+      client.setSessionToken(messageArray[2]);
+    }
     client.logInStatus(true, messageArray[1]);
     setPlayerState(PlayerState.PREGAME);
   }
@@ -132,6 +139,22 @@ public class MessageHandlerClient {
     }
   }
 
+  private void handleGameState(String[] messageArray) throws ImproperMessageException {
+    if (messageArray.length < 3) {
+      throw new ImproperMessageException(messageArray[0] + ": Needs at least 3 arguments");
+    }
+    String[] players = messageArray[1].split(Protocol.ROW_COL_SEPARATOR);
+    try {
+      int boardDim = Integer.parseInt(messageArray[2]);
+      int[] moves = messageArray.length > 3 && !messageArray[3].isEmpty()
+          ? Arrays.stream(messageArray[3].split(Protocol.ROW_COL_SEPARATOR))
+          .mapToInt(Integer::parseInt).toArray()
+          : new int[0];
+      client.resumeGame(players[0], players[1], boardDim, moves);
+    } catch (NumberFormatException e) {
+      throw new ImproperMessageException(messageArray[0] + ": Arguments 3 and 4 must be integers");
+    }
+  }
 
   private void handleGameOver(String[] messageArray)
       throws ImproperMessageException, ErrorReceivedException {
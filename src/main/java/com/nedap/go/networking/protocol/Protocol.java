@@ -23,4 +23,8 @@ public final class Protocol {
   public static final String RESIGN = "RESIGN";
   public static final String WINNER = "WINNER";
   public static final String DRAW = "DRAW";
+  public static final String RECONNECT = "RECONNECT";
+  public static final String GAME_STATE = "GAME STATE";
+  public static final String GAMES = "GAMES";
+  public static final String SPECTATE = "SPECTATE";
 }
@@ -1,6 +1,8 @@
 package com.nedap.go.networking.server;
 
 import com.nedap.go.model.Stone;
+import com.nedap.go.networking.server.logging.Log;
+import com.nedap.go.networking.server.matchmaking.EloRating;
 import com.nedap.go.networking.server.utils.NotAppropriateStoneException;
 import com.nedap.go.networking.server.utils.PlayerState;
 import java.util.List;
@@ -11,8 +13,14 @@ import java.util.List;
  */
 public class ClientHandler {
 
+  private static final Log LOG = Log.getLog(ClientHandler.class);
+
   private final GameServer server;
   private String username;
+  // updated by the scheduler thread when a game times out
+  private volatile int rating = EloRating.INITIAL_RATING;
+  private String sessionToken;
+  private volatile ServerGameAdapter spectating;
 
   private ServerConnection serverConnection;
 
@@ -31,17 +39,80 @@ public class ClientHandler {
     username = this.toString();
   }
 
+  public ServerMetrics getMetrics() {
+    return server.getMetrics();
+  }
+
   public String getUsername() {
     return username;
   }
 
+  void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getSessionToken() {
+    return sessionToken;
+  }
+
+  void setSessionToken(String sessionToken) {
+    this.sessionToken = sessionToken;
+  }
+
+  public int getRating() {
+    return rating;
+  }
+
+  public void setRating(int rating) {
+    this.rating = rating;
+  }
+
   public void receiveLogin(String username) {
     this.username = username;
     server.addClient(this);
   }
 
+  public void gamesReceived() {
+    server.handleGames(this);
+  }
+
+  public void spectateReceived(String gameId) {
+    server.spectate(this, gameId);
+  }
+
+  public void stopSpectateReceived() {
+    server.stopSpectating(this);
+  }
+
+  public ServerGameAdapter getSpectating() {
+    return spectating;
+  }
+
+  void setSpectating(ServerGameAdapter game) {
+    spectating = game;
+    serverConnection.setPlayerState(PlayerState.SPECTATING);
+  }
+
+  /**
+   * Called by the spectator publisher once the client no longer watches its game.
+   */
+  void stopSpectating() {
+    spectating = null;
+    if (serverConnection.getPlayerState() == PlayerState.SPECTATING) {
+      serverConnection.setPlayerState(PlayerState.PREGAME);
+    }
+  }
+
+  boolean sendEncoded(byte[] line) {
+    return serverConnection.sendEncoded(line);
+  }
+
+  public void reconnectReceived(String token) {
+    server.reconnect(this, token);
+  }
+
   public void handleDisconnect() {
-    System.out.println("Client " + this.getUsername() + " disconnected");
+    LOG.info("disconnected", "client", getUsername());
     server.removeClient(this);
   }
 
@@ -53,6 +124,14 @@ public class ClientHandler {
     server.addInQueue(this);
   }
 
+  public void queueReceived(int boardDim) {
+    server.addInQueue(this, boardDim);
+  }
+
+  public void queueReceived(int boardDim, long timePerMove) {
+    server.addInQueue(this, boardDim, timePerMove);
+  }
+
   public void listReceived() {
     server.handleList(this);
   }
@@ -81,11 +160,20 @@ public class ClientHandler {
     serverConnection.sendList(listOfClients);
   }
 
+  public void sendGames(List<ServerGameAdapter> games) {
+    serverConnection.sendGames(games);
+  }
+
   public void sendStartGame(String usernamePlayer1, String usernamePlayer2, int boardDim) {
     serverConnection.sendStartGame(usernamePlayer1, usernamePlayer2, boardDim);
   }
 
 
+  public void sendGameState(String usernamePlayer1, String usernamePlayer2, int boardDim,
+      int[] moves) {
+    serverConnection.sendGameState(usernamePlayer1, usernamePlayer2, boardDim, moves);
+  }
+
   public void sendError(String errorMessage) {
     serverConnection.sendError(errorMessage);
   }
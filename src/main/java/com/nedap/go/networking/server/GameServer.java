@@ -5,42 +5,127 @@ import com.nedap.go.model.GoMove;
 import com.nedap.go.model.Stone;
 import com.nedap.go.model.utils.InvalidMoveException;
 import com.nedap.go.networking.SocketServer;
+import com.nedap.go.networking.server.logging.Log;
+import com.nedap.go.networking.server.matchmaking.EloRating;
+import com.nedap.go.networking.server.matchmaking.Match;
+import com.nedap.go.networking.server.matchmaking.MatchRequest;
+import com.nedap.go.networking.server.matchmaking.Matchmaker;
+import com.nedap.go.networking.server.matchmaking.RatingMatchmaker;
+import com.nedap.go.networking.server.persistence.GameJournal;
+import com.nedap.go.networking.server.persistence.GameStore;
 import com.nedap.go.networking.server.utils.GameNotFoundException;
 import com.nedap.go.networking.server.utils.NotAppropriateStoneException;
 import com.nedap.go.networking.server.utils.NotYourTurnException;
-import com.nedap.go.networking.server.utils.PlayerNotFoundException;
 import com.nedap.go.networking.server.utils.PlayerState;
 import java.io.IOException;
 import java.net.Socket;
+import java.nio.file.Path;
+import java.security.SecureRandom;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Queue;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class handling and answering requests from clients playing a game.
  */
 public class GameServer extends SocketServer {
 
-  private static int boardDim;
+  private static final Log LOG = Log.getLog(GameServer.class);
+  public static final int MIN_BOARD_DIM = 5;
+  public static final int MAX_BOARD_DIM = 19;
+  public static final long MIN_TIME_PER_MOVE = 1000;
+  public static final long MAX_TIME_PER_MOVE = 600000;
+  private final int boardDim;
   private final List<ClientHandler> listOfClients;
-  private final Queue<ClientHandler> inQueueClients;
+  private final Matchmaker matchmaker;
   private final List<ServerGameAdapter> listOfGames;
+  private final ScheduledThreadPoolExecutor scheduler;
+  private final ServerMetrics metrics;
+  private MetricsEndpoint metricsEndpoint;
+  private volatile GameStore gameStore;
+  private final Map<String, ServerGameAdapter> recoveredGames = new ConcurrentHashMap<>();
+  private static final SecureRandom TOKENS = new SecureRandom();
+  private final Map<String, HeldSeat> heldSeats = new ConcurrentHashMap<>();
+  private volatile long reconnectGracePeriod;
 
   /**
-   * Constructs a new GameServer.
+   * Constructs a new GameServer with the default rating based matchmaking.
    *
    * @param port     the port to listen on
-   * @param boardDim
+   * @param boardDim the board dimension of games queued without asking for one.
    * @throws IOException if the server socket cannot be created, for example, because the port is
    *                     already bound.
    */
   public GameServer(int port, int boardDim) throws IOException {
+    this(port, boardDim, new RatingMatchmaker());
+  }
+
+  /**
+   * Constructs a new GameServer.
+   *
+   * @param port       the port to listen on
+   * @param boardDim   the board dimension of games queued without asking for one.
+   * @param matchmaker the matchmaker pairing the queued clients.
+   * @throws IOException if the server socket cannot be created, for example, because the port is
+   *                     already bound.
+   */
+  public GameServer(int port, int boardDim, Matchmaker matchmaker) throws IOException {
     super(port);
     listOfClients = new ArrayList<>();
-    inQueueClients = new LinkedList<>();
     listOfGames = new ArrayList<>();
+    this.matchmaker = matchmaker;
     this.boardDim = boardDim;
+    scheduler = createScheduler();
+    metrics = new ServerMetrics(listOfClients::size, matchmaker::size, listOfGames::size);
+    metrics.registerJmx(getPort());
+  }
+
+  /**
+   * Create the single thread running the timed work of the server: matchmaking passes, the move
+   * clocks of the games and the expiry of held seats.
+   */
+  private ScheduledThreadPoolExecutor createScheduler() {
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "game-scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // a clock is cancelled on every move, so do not keep the cancelled ones queued
+    executor.setRemoveOnCancelPolicy(true);
+    long interval = matchmaker.getPassInterval();
+    if (interval > 0) {
+      executor.scheduleWithFixedDelay(this::pairUp, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    return executor;
+  }
+
+  /**
+   * Get the scheduler running the timed work of the server, such as the move clocks.
+   *
+   * @return The scheduler.
+   */
+  public ScheduledThreadPoolExecutor getScheduler() {
+    return scheduler;
+  }
+
+  /**
+   * Keep the seat of a player that drops out of a game for a while, so the player can reconnect
+   * and continue. Only clients that log in after this is set get a session token.
+   *
+   * @param millis The time a seat is held, 0 to end the game as soon as a player drops.
+   */
+  public void setReconnectGracePeriod(long millis) {
+    reconnectGracePeriod = millis;
+  }
+
+  public long getReconnectGracePeriod() {
+    return reconnectGracePeriod;
   }
 
 
@@ -75,6 +160,110 @@ public class GameServer extends SocketServer {
   @Override
   public synchronized void close() {
     super.close();
+    scheduler.shutdownNow();
+    if (metricsEndpoint != null) {
+      metricsEndpoint.close();
+      metricsEndpoint = null;
+    }
+    metrics.unregisterJmx();
+    if (gameStore != null) {
+      gameStore.close();
+    }
+  }
+
+  /**
+   * Journal the moves of the games started from now on under the data directory and archive
+   * finished games there as SGF files. Games left in progress by a previous run are rebuilt from
+   * their journals and wait for their players to log in again.
+   *
+   * @param dataDirectory The directory to keep the journals and archived games in.
+   * @throws IOException If the directories cannot be created.
+   */
+  public synchronized void enablePersistence(Path dataDirectory) throws IOException {
+    if (gameStore == null) {
+      gameStore = new GameStore(dataDirectory);
+      recoverGames();
+    }
+  }
+
+  private void recoverGames() throws IOException {
+    long start = System.nanoTime();
+    List<GameJournal> journals = gameStore.recover();
+    List<ServerGameAdapter> games = journals.parallelStream()
+        .map(journal -> new ServerGameAdapter(this, journal))
+        .toList();
+    for (ServerGameAdapter game : games) {
+      listOfGames.add(game);
+      for (OnlinePlayer player : game.getPlayers()) {
+        recoveredGames.put(player.getName().toLowerCase(Locale.ROOT), game);
+      }
+    }
+    LOG.info("games-recovered", "count", games.size(), "millis",
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Put a client that just logged in back into the recovered game it was playing, if any. The
+   * client is sent the start of the game followed by every move played so far.
+   *
+   * @param clientHandler The client that logged in.
+   */
+  private void resumeGame(ClientHandler clientHandler) {
+    ServerGameAdapter game = recoveredGames.remove(
+        clientHandler.getUsername().toLowerCase(Locale.ROOT));
+    if (game == null) {
+      return;
+    }
+    OnlinePlayer black = game.getPlayers().get(0);
+    OnlinePlayer white = game.getPlayers().get(1);
+    int[] moves = game.resume(clientHandler);
+    LOG.info("game-resumed", "game", game.getGameId(), "client", clientHandler.getUsername(),
+        "moves", moves.length);
+    clientHandler.sendStartGame(black.getName(), white.getName(), game.getBoardDim());
+    Stone stone = Stone.BLACK;
+    for (int move : moves) {
+      if (move < 0) {
+        sendPass(List.of(clientHandler), stone);
+      } else {
+        sendMove(List.of(clientHandler), move, stone);
+      }
+      stone = stone.other();
+    }
+    if (game.getClient(game.getTurn()) == clientHandler) {
+      sendTurn(clientHandler);
+    }
+  }
+
+  /**
+   * Get the store the games are persisted in.
+   *
+   * @return The store, or null if persistence is not enabled.
+   */
+  public GameStore getGameStore() {
+    return gameStore;
+  }
+
+  /**
+   * Get the metrics of this server.
+   *
+   * @return The metrics registry.
+   */
+  public ServerMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Serve the metrics as plain text on http://localhost:port/metrics.
+   *
+   * @param port The port to serve on, 0 to let the system pick a free port.
+   * @return The port the metrics are served on.
+   * @throws IOException If the port cannot be bound.
+   */
+  public synchronized int startMetricsEndpoint(int port) throws IOException {
+    if (metricsEndpoint == null) {
+      metricsEndpoint = new MetricsEndpoint(metrics, port);
+    }
+    return metricsEndpoint.getPort();
   }
   //--------------------LIST HANDLING
 
@@ -92,10 +281,23 @@ public class GameServer extends SocketServer {
         break;
       }
     }
+    for (HeldSeat seat : heldSeats.values()) {
+      if (clientHandler.getUsername() != null
+          && clientHandler.getUsername().equalsIgnoreCase(seat.client.getUsername())) {
+        nameOk = false;
+        break;
+      }
+    }
     if (nameOk) {
       listOfClients.add(clientHandler);
+      if (reconnectGracePeriod > 0) {
+        clientHandler.setSessionToken(newToken());
+      }
     }
     clientHandler.sendLogin(nameOk, clientHandler.getUsername());
+    if (nameOk && !recoveredGames.isEmpty()) {
+      resumeGame(clientHandler);
+    }
   }
 
   /**
@@ -105,36 +307,158 @@ public class GameServer extends SocketServer {
    */
   public synchronized void removeClient(ClientHandler clientHandler) {
     listOfClients.remove(clientHandler);
-    inQueueClients.remove(clientHandler);
+    matchmaker.remove(clientHandler);
+    stopSpectating(clientHandler);
     ServerGameAdapter gameToEnd;
     if (clientHandler.getPlayerState() == PlayerState.IN_GAME) {
       try {
         gameToEnd = findGame(clientHandler);
-        sendWinner(gameToEnd, gameToEnd.getOtherPlayer(clientHandler));
-        listOfGames.remove(gameToEnd);
+        if (reconnectGracePeriod > 0 && clientHandler.getSessionToken() != null) {
+          holdSeat(clientHandler, gameToEnd);
+        } else {
+          gameToEnd.endGameOnForfeit(clientHandler);
+          listOfGames.remove(gameToEnd);
+        }
       } catch (GameNotFoundException e) {
-        System.out.println(e.getMessage());
+        LOG.warn("game-not-found", "client", clientHandler.getUsername(), "reason",
+            e.getMessage());
       }
 
     }
   }
 
+  private void holdSeat(ClientHandler clientHandler, ServerGameAdapter game) {
+    game.detach(clientHandler);
+    String token = clientHandler.getSessionToken();
+    ScheduledFuture<?> expiry = scheduler.schedule(() -> expireSeat(token),
+        reconnectGracePeriod, TimeUnit.MILLISECONDS);
+    heldSeats.put(token, new HeldSeat(clientHandler, game, expiry));
+    LOG.info("seat-held", "client", clientHandler.getUsername(), "game", game.getGameId(),
+        "millis", reconnectGracePeriod);
+  }
+
+  private synchronized void expireSeat(String token) {
+    HeldSeat seat = heldSeats.remove(token);
+    if (seat != null && listOfGames.contains(seat.game)) {
+      seat.game.endGameOnForfeit(seat.client);
+    }
+  }
+
+  /**
+   * Let a client that dropped out of a game take its seat again. The client is logged in under its
+   * old name and sent the state of the game in a single GAME STATE message.
+   *
+   * @param clientHandler The new client of the player.
+   * @param token         The session token the player got when logging in.
+   */
+  public synchronized void reconnect(ClientHandler clientHandler, String token) {
+    HeldSeat seat = heldSeats.remove(token);
+    if (seat == null) {
+      sendError(clientHandler, "Unknown or expired session");
+      return;
+    }
+    seat.expiry.cancel(false);
+    clientHandler.setUsername(seat.client.getUsername());
+    clientHandler.setRating(seat.client.getRating());
+    clientHandler.setSessionToken(token);
+    listOfClients.add(clientHandler);
+    clientHandler.sendLogin(true, clientHandler.getUsername());
+    if (!listOfGames.contains(seat.game)) {
+      return;
+    }
+    int[] moves = seat.game.resume(clientHandler);
+    LOG.info("reconnected", "client", clientHandler.getUsername(), "game",
+        seat.game.getGameId(), "moves", moves.length);
+    OnlinePlayer black = seat.game.getPlayers().get(0);
+    OnlinePlayer white = seat.game.getPlayers().get(1);
+    clientHandler.sendGameState(black.getName(), white.getName(), seat.game.getBoardDim(), moves);
+    if (seat.game.getClient(seat.game.getTurn()) == clientHandler) {
+      sendTurn(clientHandler);
+    }
+  }
+
+  private static String newToken() {
+    byte[] token = new byte[16];
+    TOKENS.nextBytes(token);
+    return HexFormat.of().formatHex(token);
+  }
+
+  /**
+   * The seat of a player that dropped out of a game, held until the player reconnects or the
+   * grace period runs out.
+   */
+  private static final class HeldSeat {
+
+    private final ClientHandler client;
+    private final ServerGameAdapter game;
+    private final ScheduledFuture<?> expiry;
+
+    private HeldSeat(ClientHandler client, ServerGameAdapter game, ScheduledFuture<?> expiry) {
+      this.client = client;
+      this.game = game;
+      this.expiry = expiry;
+    }
+  }
+
   /**
-   * Add to matchmaking queue.
+   * Add to the matchmaking queue of the default board dimension.
    *
    * @param clientHandler The clientHandler of the client asking to join the queue.
    */
-  public synchronized void addInQueue(ClientHandler clientHandler) {
-    inQueueClients.add(clientHandler);
-    clientHandler.sendQueued();
-    if (inQueueClients.size() > 1) {
-      try {
-        startGame();
-      } catch (PlayerNotFoundException e) {
-        sendError(clientHandler, e.getMessage());
-        System.out.println(e.getMessage());
-      }
+  public void addInQueue(ClientHandler clientHandler) {
+    addInQueue(clientHandler, boardDim);
+  }
+
+  /**
+   * Add to the matchmaking queue of a chosen board dimension.
+   *
+   * @param clientHandler The clientHandler of the client asking to join the queue.
+   * @param boardDim      The dimension of the board the client wants to play on.
+   */
+  public void addInQueue(ClientHandler clientHandler, int boardDim) {
+    addInQueue(clientHandler, boardDim, ServerGameAdapter.DEFAULT_TIME_PER_MOVE);
+  }
+
+  /**
+   * Add to the matchmaking queue of a chosen board dimension and time control. Only clients asking
+   * for the same time per move are paired.
+   *
+   * @param clientHandler The clientHandler of the client asking to join the queue.
+   * @param boardDim      The dimension of the board the client wants to play on.
+   * @param timePerMove   The time each player gets per move in milliseconds.
+   */
+  public synchronized void addInQueue(ClientHandler clientHandler, int boardDim,
+      long timePerMove) {
+    if (boardDim < MIN_BOARD_DIM || boardDim > MAX_BOARD_DIM) {
+      sendError(clientHandler, "Board dimension must be between " + MIN_BOARD_DIM + " and "
+          + MAX_BOARD_DIM);
+      return;
+    }
+    if (timePerMove < MIN_TIME_PER_MOVE || timePerMove > MAX_TIME_PER_MOVE) {
+      sendError(clientHandler, "Time per move must be between " + MIN_TIME_PER_MOVE + " and "
+          + MAX_TIME_PER_MOVE + " ms");
+      return;
     }
+    clientHandler.sendQueued();
+    startGames(matchmaker.enqueue(new MatchRequest(clientHandler, boardDim, timePerMove,
+        clientHandler.getRating())));
+  }
+
+  /**
+   * Get the board dimension of games queued without asking for one.
+   *
+   * @return The default board dimension.
+   */
+  public int getBoardDim() {
+    return boardDim;
+  }
+
+  /**
+   * Let the matchmaker go over the queues and start the games it pairs up. Called periodically so
+   * that waiting clients get matched once their rating window has widened enough.
+   */
+  public synchronized void pairUp() {
+    startGames(matchmaker.pairUp());
   }
   //--------------------RECEIVED MESSAGE HANDLERS
 
@@ -151,11 +475,12 @@ public class GameServer extends SocketServer {
       ServerConnection serverConnection = new ServerConnection(socket, clientHandler);
       clientHandler.setServerConnection(serverConnection);
       serverConnection.start();
-      System.out.println("New connection");
+      LOG.info("connected", "address", socket.getRemoteSocketAddress());
       Thread.sleep(100);
       clientHandler.sayHello();
     } catch (IOException e) {
-      System.out.println("Sorry! Could not connect.");
+      LOG.warn("connection-failed", "address", socket.getRemoteSocketAddress(), "reason",
+          e.getMessage());
     } catch (InterruptedException e) {
       throw new RuntimeException(e);
     }
@@ -170,6 +495,45 @@ public class GameServer extends SocketServer {
     clientHandler.sendList(listOfClients);
   }
 
+  /**
+   * Handle GAMES command which displays the games in progress that can be watched.
+   *
+   * @param clientHandler The clientHandler of the client asking for the games.
+   */
+  public synchronized void handleGames(ClientHandler clientHandler) {
+    clientHandler.sendGames(new ArrayList<>(listOfGames));
+  }
+
+  /**
+   * Let a client watch a game in progress.
+   *
+   * @param clientHandler The client asking to watch.
+   * @param gameId        The id of the game, as listed by GAMES.
+   */
+  public synchronized void spectate(ClientHandler clientHandler, String gameId) {
+    for (ServerGameAdapter game : listOfGames) {
+      if (game.getGameId().equals(gameId)) {
+        clientHandler.setSpectating(game);
+        game.addSpectator(clientHandler);
+        LOG.info("spectating", "client", clientHandler.getUsername(), "game", gameId);
+        return;
+      }
+    }
+    sendError(clientHandler, "No game with id " + gameId);
+  }
+
+  /**
+   * Stop watching a game.
+   *
+   * @param clientHandler The client watching.
+   */
+  public void stopSpectating(ClientHandler clientHandler) {
+    ServerGameAdapter game = clientHandler.getSpectating();
+    if (game != null) {
+      game.removeSpectator(clientHandler);
+    }
+  }
+
   /**
    * Method that handles a move based on a single index.
    *
@@ -180,6 +544,7 @@ public class GameServer extends SocketServer {
     try {
       ServerGameAdapter game = findGame(clientHandler);
       GoMove move = game.newMove(moveIndex, clientHandler);
+      metrics.moveHandled();
       sendMove(game.getClients(), move.getIndex(), move.getPlayer().getStone());
       sendTurn(game.getOtherClient(clientHandler));
     } catch (InvalidMoveException | GameNotFoundException e) {
@@ -201,6 +566,7 @@ public class GameServer extends SocketServer {
     try {
       ServerGameAdapter game = findGame(clientHandler);
       GoMove move = game.newMove(row, col, clientHandler);
+      metrics.moveHandled();
       sendMove(game.getClients(), move.getIndex(), move.getPlayer().getStone());
       sendTurn(game.getOtherClient(clientHandler));
     } catch (InvalidMoveException | GameNotFoundException e) {
@@ -220,6 +586,7 @@ public class GameServer extends SocketServer {
     try {
       ServerGameAdapter game = findGame(clientHandler);
       GoMove move = game.passMove(clientHandler);
+      metrics.moveHandled();
       sendPass(game.getClients(), move.getPlayer().getStone());
       if (game.isGameOver()) {
         game.endGame();
@@ -254,7 +621,8 @@ public class GameServer extends SocketServer {
       try {
         clientHandler.sendPass(stone);
       } catch (NotAppropriateStoneException e) {
-        System.out.println(e.getMessage());
+        LOG.error("pass-broadcast-failed", "client", clientHandler.getUsername(), "reason",
+            e.getMessage());
         sendError(clientHandler, e.getMessage());
       }
     }
@@ -265,27 +633,37 @@ public class GameServer extends SocketServer {
       try {
         clientHandler.sendMove(moveIndex, stone);
       } catch (NotAppropriateStoneException e) {
-        System.out.println(e.getMessage());
+        LOG.error("move-broadcast-failed", "client", clientHandler.getUsername(), "reason",
+            e.getMessage());
         sendError(clientHandler, e.getMessage());
       }
     }
   }
 
   private void sendTurn(ClientHandler clientHandler) {
-    clientHandler.sendTurn();
+    // the opponent in a recovered game may not have logged in again yet
+    if (clientHandler != null) {
+      clientHandler.sendTurn();
+    }
   }
 
   /**
-   * Informs players of a game ending with a winner.
+   * Informs players of a game ending with a winner. Called from the scheduler when a clock runs
+   * out, so it holds the server lock like the other changes to the games and held seats.
    *
    * @param game   The game ending.
    * @param winner The winner player.
    */
-  public void sendWinner(ServerGameAdapter game, OnlinePlayer winner) {
+  public synchronized void sendWinner(ServerGameAdapter game, OnlinePlayer winner) {
     for (ClientHandler clientHandler : game.getClients()) {
       clientHandler.sendWinner(winner);
     }
-    listOfGames.remove(game);
+    game.finishSpectators(ServerConnection.winnerMessage(winner));
+    ClientHandler winnerClient = game.getClient(winner);
+    if (game.getClients().size() == 2) {
+      updateRatings(winnerClient, game.getOtherClient(winnerClient), 1);
+    }
+    removeGame(game);
   }
 
   /**
@@ -293,11 +671,15 @@ public class GameServer extends SocketServer {
    *
    * @param game The game being finished.
    */
-  public void sendDraw(ServerGameAdapter game) {
+  public synchronized void sendDraw(ServerGameAdapter game) {
     for (ClientHandler clientHandler : game.getClients()) {
       clientHandler.sendDraw();
     }
-    listOfGames.remove(game);
+    game.finishSpectators(ServerConnection.drawMessage());
+    if (game.getClients().size() == 2) {
+      updateRatings(game.getClients().get(0), game.getClients().get(1), 0.5);
+    }
+    removeGame(game);
   }
 
   /**
@@ -311,21 +693,49 @@ public class GameServer extends SocketServer {
   }
 
   //--------------------UTILITY METHODS
-  private void startGame() throws PlayerNotFoundException {
-    ClientHandler player1 = inQueueClients.poll();
-    ClientHandler player2 = inQueueClients.poll();
-    ServerGameAdapter game = new ServerGameAdapter(player1, player2, this, boardDim);
-    listOfGames.add(game);
-    if (player1 == null || player2 == null) {
-      throw new PlayerNotFoundException("Could not find enough players in queue");
+  private void startGames(List<Match> matches) {
+    for (Match match : matches) {
+      startGame(match);
     }
-    player1.sendStartGame(player1.getUsername(), player2.getUsername(), boardDim);
-    player2.sendStartGame(player1.getUsername(), player2.getUsername(), boardDim);
+  }
+
+  private void startGame(Match match) {
+    ClientHandler player1 = match.getBlack().getClient();
+    ClientHandler player2 = match.getWhite().getClient();
+    ServerGameAdapter game = new ServerGameAdapter(player1, player2, this, match.getBoardDim(),
+        match.getTimePerMove());
+    listOfGames.add(game);
+    LOG.info("game-started", "black", player1.getUsername(), "white", player2.getUsername(),
+        "board", match.getBoardDim());
+    player1.sendStartGame(player1.getUsername(), player2.getUsername(), match.getBoardDim());
+    player2.sendStartGame(player1.getUsername(), player2.getUsername(), match.getBoardDim());
 
     sendTurn(player1);
   }
 
-  private ServerGameAdapter findGame(ClientHandler clientHandler) throws GameNotFoundException {
+  private void removeGame(ServerGameAdapter game) {
+    listOfGames.remove(game);
+    heldSeats.values().removeIf(seat -> {
+      if (seat.game != game) {
+        return false;
+      }
+      seat.expiry.cancel(false);
+      return true;
+    });
+    for (OnlinePlayer player : game.getPlayers()) {
+      recoveredGames.remove(player.getName().toLowerCase(Locale.ROOT), game);
+    }
+  }
+
+  private void updateRatings(ClientHandler client, ClientHandler opponent, double score) {
+    int rating = client.getRating();
+    int opponentRating = opponent.getRating();
+    client.setRating(EloRating.update(rating, opponentRating, score));
+    opponent.setRating(EloRating.update(opponentRating, rating, 1 - score));
+  }
+
+  private synchronized ServerGameAdapter findGame(ClientHandler clientHandler)
+      throws GameNotFoundException {
     for (ServerGameAdapter game : listOfGames) {
       if (game.getClients().contains(clientHandler)) {
         return game;
@@ -335,6 +745,6 @@ public class GameServer extends SocketServer {
   }
 
   public synchronized void removeFromQueue(ClientHandler clientHandler) {
-    inQueueClients.remove(clientHandler);
+    matchmaker.remove(clientHandler);
   }
 }
@@ -0,0 +1,114 @@
+package com.nedap.go.networking.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of durations in nanoseconds with a fixed relative precision, in the style
+ * of HdrHistogram.
+ *
+ * <p>
+ * Values below 128 have their own bucket. Above that every power of two is split into 64 linear
+ * sub-buckets, so any recorded value is reported within 1.6% of its real value while the whole
+ * range up to about 18 minutes fits in a little over two thousand counters. Recording is a
+ * single atomic increment, so it can be called from every connection thread.
+ * </p>
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+  private static final int MAX_MAGNITUDE = 40;
+  private static final int BUCKETS = LINEAR_LIMIT + (MAX_MAGNITUDE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong totalValue = new AtomicLong();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * Record one duration.
+   *
+   * @param nanos The duration in nanoseconds. Negative values are recorded as 0.
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts.incrementAndGet(indexOf(value));
+    totalCount.incrementAndGet();
+    totalValue.addAndGet(value);
+    maxValue.accumulateAndGet(value, Math::max);
+  }
+
+  /**
+   * Get the number of recorded values.
+   *
+   * @return The count.
+   */
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * Get the largest recorded value.
+   *
+   * @return The maximum in nanoseconds, 0 if nothing was recorded.
+   */
+  public long getMax() {
+    return maxValue.get();
+  }
+
+  /**
+   * Get the average of the recorded values.
+   *
+   * @return The mean in nanoseconds, 0 if nothing was recorded.
+   */
+  public double getMean() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : (double) totalValue.get() / count;
+  }
+
+  /**
+   * Get the value below which the given fraction of the recorded values falls.
+   *
+   * @param percentile The fraction, e.g. 0.99 for the 99th percentile.
+   * @return The value in nanoseconds, 0 if nothing was recorded.
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile * count));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestEquivalentValue(i), maxValue.get());
+      }
+    }
+    return maxValue.get();
+  }
+
+  static int indexOf(long value) {
+    if (value < LINEAR_LIMIT) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    if (magnitude >= MAX_MAGNITUDE) {
+      return BUCKETS - 1;
+    }
+    int shift = magnitude - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+    return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < LINEAR_LIMIT) {
+      return index;
+    }
+    int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+    long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -38,6 +38,7 @@ public class MessageHandlerServer {
       case PREGAME -> handlePreGame(message);
       case IN_QUEUE -> handleInQueue(message);
       case IN_GAME -> handleGame(message);
+      case SPECTATING -> handleSpectating(message);
       default -> setPlayerState(PlayerState.FRESH);
     }
   }
@@ -90,24 +91,76 @@ public class MessageHandlerServer {
     messageArray[0] = messageArray[0].toUpperCase();
       switch (messageArray[0]) {
         case Protocol.LIST -> clientHandler.listReceived();
-        case Protocol.QUEUE -> clientHandler.queueReceived();
+        case Protocol.QUEUE -> handleQueue(messageArray);
+        case Protocol.GAMES -> clientHandler.gamesReceived();
+        case Protocol.SPECTATE -> handleSpectate(messageArray);
         case Protocol.ERROR -> {}
         default -> throw new ImproperMessageException(message);
       }
 
   }
 
+  private void handleSpectate(String[] messageArray) throws ImproperMessageException {
+    if (messageArray.length < 2) {
+      throw new ImproperMessageException(Protocol.SPECTATE + ": Game id missing");
+    }
+    clientHandler.spectateReceived(messageArray[1]);
+  }
+
+  private void handleSpectating(String message) throws ImproperMessageException {
+    String[] messageArray = splitMessage(message);
+    messageArray[0] = messageArray[0].toUpperCase();
+    switch (messageArray[0]) {
+      case Protocol.LIST -> clientHandler.listReceived();
+      case Protocol.GAMES -> clientHandler.gamesReceived();
+      case Protocol.SPECTATE -> clientHandler.stopSpectateReceived();
+      case Protocol.ERROR -> {}
+      default -> throw new ImproperMessageException(message);
+    }
+  }
+
+  private void handleQueue(String[] messageArray) throws ImproperMessageException {
+    if (messageArray.length > 2) {
+      int boardDim;
+      long timePerMove;
+      try {
+        boardDim = Integer.parseInt(messageArray[1]);
+        timePerMove = Long.parseLong(messageArray[2]);
+      } catch (NumberFormatException e) {
+        throw new ImproperMessageException(Protocol.QUEUE
+            + ": Board dimension and time per move must be integers");
+      }
+      clientHandler.queueReceived(boardDim, timePerMove);
+    } else if (messageArray.length > 1) {
+      try {
+        clientHandler.queueReceived(Integer.parseInt(messageArray[1]));
+      } catch (NumberFormatException e) {
+        throw new ImproperMessageException(Protocol.QUEUE + ": Board dimension must be integer");
+      }
+    } else {
+      clientHandler.queueReceived();
+    }
+  }
+
 
   private void handleInitialization(String message) throws ImproperMessageException {
     String[] messageArray = splitMessage(message);
     messageArray[0] = messageArray[0].toUpperCase();
       switch (messageArray[0]){
         case Protocol.LOGIN -> clientHandler.receiveLogin(messageArray[1]);
+        case Protocol.RECONNECT -> handleReconnect(messageArray);
         case Protocol.ERROR -> {}
         default -> throw new ImproperMessageException(message);
       }
   }
 
+  private void handleReconnect(String[] messageArray) throws ImproperMessageException {
+    if (messageArray.length < 2) {
+      throw new ImproperMessageException(Protocol.RECONNECT + ": Session token missing");
+    }
+    clientHandler.reconnectReceived(messageArray[1]);
+  }
+
   private String[] splitMessage(String message) {
     return message.split(Protocol.SEPARATOR);
   }
@@ -0,0 +1,57 @@
+package com.nedap.go.networking.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the plain text scrape of the server metrics on http://localhost:port/metrics. The
+ * endpoint only listens on the loopback address.
+ */
+public class MetricsEndpoint {
+
+  private final HttpServer httpServer;
+
+  /**
+   * Start serving the metrics.
+   *
+   * @param metrics The metrics to serve.
+   * @param port    The port to listen on, 0 to let the system pick a free port.
+   * @throws IOException If the port cannot be bound.
+   */
+  public MetricsEndpoint(ServerMetrics metrics, int port) throws IOException {
+    httpServer = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    httpServer.createContext("/metrics", exchange -> respond(exchange, metrics.scrape()));
+    httpServer.start();
+  }
+
+  private static void respond(HttpExchange exchange, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * Get the port the endpoint listens on.
+   *
+   * @return The port.
+   */
+  public int getPort() {
+    return httpServer.getAddress().getPort();
+  }
+
+  /**
+   * Stop serving the metrics.
+   */
+  public void close() {
+    httpServer.stop(0);
+  }
+}
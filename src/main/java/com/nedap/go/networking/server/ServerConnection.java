@@ -3,6 +3,8 @@ package com.nedap.go.networking.server;
 import com.nedap.go.model.Stone;
 import com.nedap.go.networking.SocketConnection;
 import com.nedap.go.networking.protocol.Protocol;
+import com.nedap.go.networking.server.logging.Log;
+import com.nedap.go.networking.server.logging.LogLevel;
 import com.nedap.go.networking.server.utils.ImproperMessageException;
 import com.nedap.go.networking.server.utils.NotAppropriateStoneException;
 import com.nedap.go.networking.server.utils.PlayerState;
@@ -16,6 +18,8 @@ import java.util.List;
  */
 public class ServerConnection extends SocketConnection {
 
+  private static final Log LOG = Log.getLog(ServerConnection.class);
+
   private final ClientHandler clientHandler;
 
   private final MessageHandlerServer messageHandler;
@@ -58,17 +62,25 @@ public class ServerConnection extends SocketConnection {
    */
   @Override
   public void handleMessage(String message) {
+    long start = System.nanoTime();
     try {
-      System.out.println("FROM " + clientHandler.getUsername() + " : "
-          + message);
+      if (LOG.isEnabled(LogLevel.TRACE)) {
+        LOG.trace("received", "client", clientHandler.getUsername(), "message", message);
+      }
       messageHandler.handleMessage(message);
     } catch (ImproperMessageException e) {
       sendError(e.getMessage());
+    } finally {
+      clientHandler.getMetrics().messageReceived(message, System.nanoTime() - start);
     }
   }
 
   public void sendError(String errorMessage) {
-    sendMessage(Protocol.ERROR + Protocol.SEPARATOR + errorMessage);
+    sendMessage(errorMessage(errorMessage));
+  }
+
+  static String errorMessage(String errorMessage) {
+    return Protocol.ERROR + Protocol.SEPARATOR + errorMessage;
   }
 
   /**
@@ -86,7 +98,11 @@ public class ServerConnection extends SocketConnection {
    * @param username The username used for login.
    */
   public void sendLogin(boolean nameOk, String username) {
-    if (nameOk) {
+    if (nameOk && clientHandler.getSessionToken() != null) {
+      sendMessage(Protocol.ACCEPTED + Protocol.SEPARATOR + username + Protocol.SEPARATOR
+          + clientHandler.getSessionToken());
+      messageHandler.setPlayerState(PlayerState.PREGAME);
+    } else if (nameOk) {
       sendMessage(Protocol.ACCEPTED + Protocol.SEPARATOR + username);
       messageHandler.setPlayerState(PlayerState.PREGAME);
     } else {
@@ -122,6 +138,66 @@ public class ServerConnection extends SocketConnection {
     messageHandler.setPlayerState(PlayerState.IN_GAME);
   }
 
+  /**
+   * Send the state of a game in progress to a client taking its seat again: the players, the
+   * board dimension and the moves played so far, with -1 for a pass.
+   *
+   * @param usernamePlayer1 The username of the player with the black stones.
+   * @param usernamePlayer2 The username of the player with the white stones.
+   * @param boardDim        The dimension of the board.
+   * @param moves           The moves played so far.
+   */
+  public void sendGameState(String usernamePlayer1, String usernamePlayer2, int boardDim,
+      int[] moves) {
+    sendMessage(gameStateMessage(usernamePlayer1, usernamePlayer2, boardDim, moves));
+    messageHandler.setPlayerState(PlayerState.IN_GAME);
+  }
+
+  static String gameStateMessage(String usernamePlayer1, String usernamePlayer2, int boardDim,
+      int[] moves) {
+    StringBuilder sb = new StringBuilder(Protocol.GAME_STATE).append(Protocol.SEPARATOR)
+        .append(usernamePlayer1).append(Protocol.ROW_COL_SEPARATOR).append(usernamePlayer2)
+        .append(Protocol.SEPARATOR).append(boardDim).append(Protocol.SEPARATOR);
+    for (int i = 0; i < moves.length; i++) {
+      if (i > 0) {
+        sb.append(Protocol.ROW_COL_SEPARATOR);
+      }
+      sb.append(moves[i]);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Send the list of games that can be watched.
+   *
+   * @param games The games in progress.
+   */
+  public void sendGames(List<ServerGameAdapter> games) {
+    StringBuilder sb = new StringBuilder(Protocol.GAMES);
+    for (ServerGameAdapter game : games) {
+      sb.append(Protocol.SEPARATOR).append(game.getGameId()).append(':')
+          .append(game.getPlayers().get(0).getName()).append(Protocol.ROW_COL_SEPARATOR)
+          .append(game.getPlayers().get(1).getName());
+    }
+    sendMessage(sb.toString());
+  }
+
+  /**
+   * Send a message shared with other connections, e.g. a move to the spectators of a game.
+   *
+   * @param line The message encoded once for all the connections, with the line ending.
+   * @return True if the message was sent.
+   */
+  public boolean sendEncoded(byte[] line) {
+    boolean sent = super.sendEncoded(line);
+    clientHandler.getMetrics().messageSent(line.length);
+    return sent;
+  }
+
+  void setPlayerState(PlayerState playerState) {
+    messageHandler.setPlayerState(playerState);
+  }
+
   /**
    * Send the played move back to the client.
    *
@@ -156,13 +232,21 @@ public class ServerConnection extends SocketConnection {
    */
   public void sendWinner(OnlinePlayer winner) {
     messageHandler.setPlayerState(PlayerState.PREGAME);
-    sendMessage(Protocol.GAME_OVER + Protocol.SEPARATOR + Protocol.WINNER
-        + Protocol.SEPARATOR + winner.getName());
+    sendMessage(winnerMessage(winner));
+  }
+
+  static String winnerMessage(OnlinePlayer winner) {
+    return Protocol.GAME_OVER + Protocol.SEPARATOR + Protocol.WINNER + Protocol.SEPARATOR
+        + winner.getName();
   }
 
   public void sendDraw() {
     messageHandler.setPlayerState(PlayerState.PREGAME);
-    sendMessage(Protocol.GAME_OVER + Protocol.SEPARATOR + Protocol.DRAW);
+    sendMessage(drawMessage());
+  }
+
+  static String drawMessage() {
+    return Protocol.GAME_OVER + Protocol.SEPARATOR + Protocol.DRAW;
   }
 
   private String getStoneName(Stone stone) throws NotAppropriateStoneException {
@@ -180,8 +264,10 @@ public class ServerConnection extends SocketConnection {
 
   public boolean sendMessage(String message){
     super.sendMessage(message);
-    System.out.println("TO " + clientHandler.getUsername() + " : "
-        + message);
+    clientHandler.getMetrics().messageSent(message);
+    if (LOG.isEnabled(LogLevel.TRACE)) {
+      LOG.trace("sent", "client", clientHandler.getUsername(), "message", message);
+    }
     return true;
   }
 }
@@ -1,32 +1,50 @@
 package com.nedap.go.networking.server;
 
 
-import com.nedap.go.model.GoGame;
+import com.nedap.go.model.CompactGame;
 import com.nedap.go.model.GoMove;
-import com.nedap.go.model.GoMoveRowColumn;
 import com.nedap.go.model.Stone;
 import com.nedap.go.model.utils.InvalidMoveException;
+import com.nedap.go.networking.protocol.Protocol;
+import com.nedap.go.networking.server.logging.Log;
+import com.nedap.go.networking.server.logging.LogLevel;
+import com.nedap.go.networking.server.persistence.GameJournal;
+import com.nedap.go.networking.server.persistence.GameStore;
 import com.nedap.go.networking.server.utils.NotYourTurnException;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Connecting the server to the Go game model.
  */
 public class ServerGameAdapter {
 
+  private static final Log LOG = Log.getLog(ServerGameAdapter.class);
+  private static final AtomicLong GAME_COUNTER = new AtomicLong();
+
   private final GameServer server;
-  private final ClientHandler client1;
-  private final ClientHandler client2;
+  private volatile ClientHandler client1;
+  private volatile ClientHandler client2;
   private final int boardDim;
+  private final long timePerMove;
   private OnlinePlayer player1;
   private OnlinePlayer player2;
-  private GoGame game;
+  private CompactGame game;
+  private final String gameId;
+  private GameJournal journal;
 
-  private Timer timer;
-  private static final long timePerMove = 120000;
+  private ScheduledFuture<?> clock;
+  // the clock started last, an earlier one that fires anyway is ignored
+  private long clockGeneration;
+  // set once by whichever end of the game comes first, a move, a resignation or a timeout
+  private boolean finished;
+  private final SpectatorPublisher spectators;
+  public static final long DEFAULT_TIME_PER_MOVE = 120000;
 
   /**
    * Construct a game server adapter object.
@@ -38,11 +56,54 @@ public class ServerGameAdapter {
    */
   public ServerGameAdapter(ClientHandler client1, ClientHandler client2, GameServer server,
       int boardDim) {
+    this(client1, client2, server, boardDim, DEFAULT_TIME_PER_MOVE);
+  }
+
+  /**
+   * Construct a game server adapter object with a chosen time control.
+   *
+   * @param client1     The client representing the first player.
+   * @param client2     The client representing the second player.
+   * @param server      The server handling the clients.
+   * @param boardDim    The dimension of the board of the game.
+   * @param timePerMove The time a player has for a move in milliseconds.
+   */
+  public ServerGameAdapter(ClientHandler client1, ClientHandler client2, GameServer server,
+      int boardDim, long timePerMove) {
     this.client1 = client1;
     this.client2 = client2;
     this.server = server;
     this.boardDim = boardDim;
+    this.timePerMove = timePerMove;
+    gameId = Long.toString(System.currentTimeMillis(), 36) + "-"
+        + GAME_COUNTER.incrementAndGet();
+    spectators = new SpectatorPublisher(gameId, server.getMetrics(),
+        SpectatorPublisher.QUEUE_CAPACITY);
     createGame();
+    openJournal();
+  }
+
+  /**
+   * Rebuild a game that was in progress when the server stopped from its journal. The game has no
+   * clients until its players log in again and resume it.
+   *
+   * @param server  The server handling the clients.
+   * @param journal The journal of the game.
+   */
+  public ServerGameAdapter(GameServer server, GameJournal journal) {
+    this.server = server;
+    this.boardDim = journal.getBoardDim();
+    this.timePerMove = journal.getTimePerMove();
+    this.gameId = journal.getGameId();
+    this.journal = journal;
+    spectators = new SpectatorPublisher(gameId, server.getMetrics(),
+        SpectatorPublisher.QUEUE_CAPACITY);
+    player1 = createPlayer(journal.getBlack(), Stone.BLACK);
+    player2 = createPlayer(journal.getWhite(), Stone.WHITE);
+    game = new CompactGame(boardDim);
+    for (int index : journal.readMoves()) {
+      game.replay(index);
+    }
   }
 
   private int rowColumnToIndex(int row, int column) {
@@ -50,11 +111,129 @@ public class ServerGameAdapter {
   }
 
   public boolean isGameOver() {
-    return game.isGameover();
+    return game.isGameOver();
+  }
+
+  public String getGameId() {
+    return gameId;
   }
 
+  /**
+   * Get the clients playing the game. A recovered game only lists the players that have resumed
+   * it.
+   *
+   * @return The clients, black first.
+   */
   public List<ClientHandler> getClients() {
-    return Arrays.asList(client1, client2);
+    if (client1 != null && client2 != null) {
+      return Arrays.asList(client1, client2);
+    }
+    List<ClientHandler> clients = new ArrayList<>(1);
+    if (client1 != null) {
+      clients.add(client1);
+    }
+    if (client2 != null) {
+      clients.add(client2);
+    }
+    return clients;
+  }
+
+  public List<OnlinePlayer> getPlayers() {
+    return Arrays.asList(player1, player2);
+  }
+
+  public int getBoardDim() {
+    return boardDim;
+  }
+
+  /**
+   * Let a client take the seat of one of the players, after a reconnect or in a recovered game.
+   * The clock of the player on turn is started if it is not running yet.
+   *
+   * @param clientHandler The client, logged in with the name of one of the players.
+   * @return The moves played so far, an index or -1 for a pass.
+   */
+  public synchronized int[] resume(ClientHandler clientHandler) {
+    if (clientHandler.getUsername().equalsIgnoreCase(player1.getName())) {
+      client1 = clientHandler;
+    } else {
+      client2 = clientHandler;
+    }
+    if (clock == null && !finished) {
+      startClock();
+    }
+    return getMoves();
+  }
+
+  /**
+   * Free the seat of a client that dropped, keeping the game and the clock going so that the
+   * player can resume it.
+   *
+   * @param clientHandler The client that dropped.
+   */
+  public synchronized void detach(ClientHandler clientHandler) {
+    if (clientHandler == client1) {
+      client1 = null;
+    } else if (clientHandler == client2) {
+      client2 = null;
+    }
+  }
+
+  /**
+   * Get the moves played so far.
+   *
+   * @return The moves in order, an index or -1 for a pass.
+   */
+  public synchronized int[] getMoves() {
+    return game.getMoves();
+  }
+
+  /**
+   * Add a spectator, who is first sent the moves played so far and then every new move.
+   *
+   * @param clientHandler The client watching.
+   */
+  public synchronized void addSpectator(ClientHandler clientHandler) {
+    spectators.subscribe(clientHandler, ServerConnection.gameStateMessage(player1.getName(),
+        player2.getName(), boardDim, getMoves()));
+  }
+
+  public void removeSpectator(ClientHandler clientHandler) {
+    spectators.unsubscribe(clientHandler);
+  }
+
+  /**
+   * Send the result to the spectators and let them go.
+   *
+   * @param message The GAME OVER message.
+   */
+  public synchronized void finishSpectators(String message) {
+    spectators.finish(message);
+  }
+
+  public int getSpectatorCount() {
+    return spectators.size();
+  }
+
+  /**
+   * Play a move in the game and pass it on to the spectators, under one lock so a new spectator
+   * gets every move exactly once.
+   *
+   * @param index The index of the move, CompactGame.PASS for a pass.
+   * @return The move played.
+   * @throws InvalidMoveException If the move is not valid.
+   */
+  private synchronized GoMove play(int index) throws InvalidMoveException {
+    OnlinePlayer player = getTurn();
+    if (index == CompactGame.PASS) {
+      game.pass();
+    } else {
+      game.play(index);
+    }
+    String color = player.getStone() == Stone.BLACK ? Protocol.BLACK : Protocol.WHITE;
+    spectators.publish(index < 0 ? Protocol.PASS + Protocol.SEPARATOR + color
+        : Protocol.MOVE + Protocol.SEPARATOR + index + Protocol.SEPARATOR + color);
+    return index < 0 ? new GoMove(player) : new GoMove(player, index);
   }
 
   /**
@@ -69,11 +248,7 @@ public class ServerGameAdapter {
   public GoMove newMove(int index, ClientHandler clientHandler)
       throws InvalidMoveException, NotYourTurnException {
     if (isYourTurn(clientHandler)) {
-      cancelTimer();
-      GoMove move = new GoMove(game.getTurn(), index);
-      game.doMove(move);
-      createTimer(clientHandler);
-      return move;
+      return playOnClock(index);
     } else {
       throw new NotYourTurnException();
     }
@@ -92,30 +267,106 @@ public class ServerGameAdapter {
   public GoMove newMove(int row, int col, ClientHandler clientHandler)
       throws InvalidMoveException, NotYourTurnException {
     if (isYourTurn(clientHandler)) {
-      cancelTimer();
-      GoMoveRowColumn move = new GoMoveRowColumn(game.getTurn(), row, col);
-      game.doMove(move);
-      createTimer(getOtherClient(clientHandler));
-      return new GoMove(move.getPlayer(), rowColumnToIndex(move.getRow(), move.getColumn()));
+      if (row < 0 || row >= boardDim || col < 0 || col >= boardDim) {
+        throw new InvalidMoveException();
+      }
+      return playOnClock(rowColumnToIndex(row, col));
     } else {
       throw new NotYourTurnException();
     }
   }
 
-  private void cancelTimer() {
-    if(timer != null) {
-      timer.cancel();
+  /**
+   * Play a move, journal it and hand the clock to the opponent. This holds the lock the clock and
+   * the ends of the game take, so a clock that runs out meanwhile cannot be restarted.
+   *
+   * @param index The index of the move, CompactGame.PASS for a pass.
+   * @return The move played.
+   * @throws InvalidMoveException If the move is not valid.
+   * @throws NotYourTurnException If the game ended before the move came in.
+   */
+  private synchronized GoMove playOnClock(int index)
+      throws InvalidMoveException, NotYourTurnException {
+    if (finished) {
+      throw new NotYourTurnException("The game is over");
+    }
+    GoMove move = play(index);
+    cancelClock();
+    record(index);
+    if (!game.isGameOver()) {
+      startClock();
+    }
+    return move;
+  }
+
+  /**
+   * Append a move to the journal of the game. Once the store has closed the journal, e.g. when
+   * the server shuts down, the game goes on without one.
+   *
+   * @param index The index of the move or CompactGame.PASS.
+   */
+  private synchronized void record(int index) {
+    if (journal == null) {
+      return;
+    }
+    try {
+      if (index == CompactGame.PASS) {
+        journal.appendPass();
+      } else {
+        journal.appendMove(index);
+      }
+    } catch (IllegalStateException e) {
+      LOG.warn("journal-closed", "game", gameId, "reason", e.getMessage());
+      journal = null;
+    }
+  }
+
+  private void cancelClock() {
+    if (clock != null) {
+      clock.cancel(false);
     }
   }
 
-  private void createTimer(ClientHandler clientHandler) {
-    timer = new Timer();
-    timer.schedule(new TimerTask() {
-      @Override
-      public void run() {
-        endGameOnResign(getOtherClient(clientHandler));
+  /**
+   * Start the clock of the player on turn, who loses the game when it runs out. The clocks of all
+   * the games share the scheduler of the server instead of a thread each.
+   */
+  private void startClock() {
+    OnlinePlayer onTurn = getTurn();
+    long generation = ++clockGeneration;
+    clock = server.getScheduler().schedule(() -> {
+      if (!timeOut(generation)) {
+        return;
       }
-    }, timePerMove ); //1 min
+      server.getMetrics().timeoutResign();
+      OnlinePlayer winner = onTurn == player1 ? player2 : player1;
+      LOG.info("game-timed-out", "black", player1.getName(), "white", player2.getName(),
+          "timed-out", onTurn.getName());
+      archive(winner.getStone() == Stone.BLACK ? "B+T" : "W+T");
+      server.sendWinner(this, winner);
+    }, timePerMove, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized boolean timeOut(long generation) {
+    if (finished || generation != clockGeneration) {
+      return false;
+    }
+    finished = true;
+    return true;
+  }
+
+  /**
+   * Mark the game finished and stop its clock.
+   *
+   * @return False if the game had finished already, in which case its end was announced.
+   */
+  private synchronized boolean finish() {
+    if (finished) {
+      return false;
+    }
+    finished = true;
+    cancelClock();
+    return true;
   }
 
   /**
@@ -129,25 +380,51 @@ public class ServerGameAdapter {
   public GoMove passMove(ClientHandler clientHandler)
       throws InvalidMoveException, NotYourTurnException {
     if (isYourTurn(clientHandler)) {
-      cancelTimer();
-      GoMove move = new GoMove(game.getTurn());
-      game.doMove(move);
-      createTimer(getOtherClient(clientHandler));
-      return move;
+      return playOnClock(CompactGame.PASS);
     } else {
       throw new NotYourTurnException();
     }
   }
 
   public OnlinePlayer getTurn() {
-    return (OnlinePlayer) game.getTurn();
+    return game.getTurn() == Stone.BLACK ? player1 : player2;
   }
 
 
   private void createGame() {
     player1 = createPlayer(client1.getUsername(), Stone.BLACK);
     player2 = createPlayer(client2.getUsername(), Stone.WHITE);
-    game = new GoGame(player1, player2, boardDim);
+    game = new CompactGame(boardDim);
+  }
+
+  private void openJournal() {
+    GameStore store = server.getGameStore();
+    if (store == null) {
+      return;
+    }
+    try {
+      journal = store.open(gameId, boardDim, timePerMove, player1.getName(),
+          player2.getName());
+    } catch (IOException e) {
+      LOG.warn("journal-open-failed", "game", gameId, "reason", e.getMessage());
+    }
+  }
+
+  /**
+   * Hand the journal of the finished game to the store to be archived. Only the first result
+   * counts, as a timeout may race with the last move.
+   *
+   * @param result The result in SGF notation, e.g. "B+R".
+   */
+  private synchronized void archive(String result) {
+    if (journal != null) {
+      try {
+        server.getGameStore().finish(journal, result);
+      } catch (IllegalStateException e) {
+        LOG.warn("journal-closed", "game", gameId, "reason", e.getMessage());
+      }
+      journal = null;
+    }
   }
 
   /**
@@ -155,9 +432,24 @@ public class ServerGameAdapter {
    * to the server.
    */
   public void endGame() {
-    cancelTimer();
-    OnlinePlayer winner = (OnlinePlayer) game.getWinner();
-    System.out.println(game);
+    if (!finish()) {
+      return;
+    }
+    // scoring builds the board from the compact game, so score once for the winner and the record
+    int blackScore = game.getScore(Stone.BLACK);
+    int whiteScore = game.getScore(Stone.WHITE);
+    Stone winningStone = blackScore == whiteScore ? null
+        : blackScore > whiteScore ? Stone.BLACK : Stone.WHITE;
+    OnlinePlayer winner = winningStone == null ? null
+        : winningStone == Stone.BLACK ? player1 : player2;
+    LOG.info("game-ended", "black", player1.getName(), "white", player2.getName(),
+        "winner", winner == null ? "draw" : winner.getName());
+    if (LOG.isEnabled(LogLevel.DEBUG)) {
+      LOG.debug("final-position", "black", player1.getName(), "white", player2.getName(),
+          "board", game.toString());
+    }
+    archive(blackScore == whiteScore ? "0" : (blackScore > whiteScore ? "B+" : "W+")
+        + Math.abs(blackScore - whiteScore));
     if (winner == null) {
       server.sendDraw(this);
     } else {
@@ -166,8 +458,30 @@ public class ServerGameAdapter {
   }
 
   public void endGameOnResign(ClientHandler clientHandler) {
-    cancelTimer();
-    server.sendWinner(this, getWinnerOnResign(clientHandler));
+    if (!finish()) {
+      return;
+    }
+    LOG.info("game-resigned", "black", player1.getName(), "white", player2.getName(),
+        "resigned", clientHandler.getUsername());
+    OnlinePlayer winner = getWinnerOnResign(clientHandler);
+    archive(winner.getStone() == Stone.BLACK ? "B+R" : "W+R");
+    server.sendWinner(this, winner);
+  }
+
+  /**
+   * End the game because a client left it, e.g. by disconnecting.
+   *
+   * @param clientHandler The client that left.
+   */
+  public void endGameOnForfeit(ClientHandler clientHandler) {
+    if (!finish()) {
+      return;
+    }
+    LOG.info("game-forfeited", "black", player1.getName(), "white", player2.getName(),
+        "forfeited", clientHandler.getUsername());
+    OnlinePlayer winner = getOtherPlayer(clientHandler);
+    archive(winner.getStone() == Stone.BLACK ? "B+F" : "W+F");
+    server.sendWinner(this, winner);
   }
 
   private OnlinePlayer createPlayer(String username, Stone mark) {
@@ -179,12 +493,21 @@ public class ServerGameAdapter {
   }
 
   public OnlinePlayer getOtherPlayer(ClientHandler clientHandler) {
-    return clientHandler.getUsername().equals(player1.getName()) ? player2 : player1;
+    return clientHandler.getUsername().equalsIgnoreCase(player1.getName()) ? player2 : player1;
   }
 
   private boolean isYourTurn(ClientHandler clientHandler) {
-    return ((OnlinePlayer) game.getTurn()).getName()
-        .equals(clientHandler.getUsername());
+    return getTurn().getName().equalsIgnoreCase(clientHandler.getUsername());
+  }
+
+  /**
+   * Get the client playing as the given player.
+   *
+   * @param player One of the players of this game.
+   * @return The client behind the player.
+   */
+  public ClientHandler getClient(OnlinePlayer player) {
+    return player.getName().equals(player1.getName()) ? client1 : client2;
   }
 
   public ClientHandler getOtherClient(ClientHandler clientHandler) {
@@ -0,0 +1,322 @@
+package com.nedap.go.networking.server;
+
+import com.nedap.go.networking.protocol.Protocol;
+import com.nedap.go.networking.server.logging.Log;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the metrics of one GameServer.
+ *
+ * <p>
+ * Counters are LongAdders and the message handling times are kept in a LatencyHistogram per
+ * message type, so recording never takes a lock on the connection threads. Gauges such as the
+ * number of connected clients are read from the server when the metrics are queried. The metrics
+ * are exported over JMX and as plain text (see scrape), which MetricsEndpoint serves over HTTP.
+ * </p>
+ */
+public class ServerMetrics implements ServerMetricsMXBean {
+
+  private static final Log LOG = Log.getLog(ServerMetrics.class);
+
+  private static final Set<String> MESSAGE_TYPES = Set.of(Protocol.LOGIN, Protocol.LIST,
+      Protocol.QUEUE, Protocol.MOVE, Protocol.PASS, Protocol.RESIGN, Protocol.ERROR);
+  private static final String OTHER_MESSAGE = "OTHER";
+  private static final int RATE_SECONDS = 16;
+  private static final int RATE_WINDOW = 10;
+  // a rate slot packs the second it counts in the high bits and the moves in the low COUNT_BITS
+  private static final int COUNT_BITS = 32;
+  private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+  private final IntSupplier connectedClients;
+  private final IntSupplier queueDepth;
+  private final IntSupplier activeGames;
+  private final LongAdder movesPlayed = new LongAdder();
+  private final LongAdder bytesIn = new LongAdder();
+  private final LongAdder bytesOut = new LongAdder();
+  private final LongAdder timeoutResigns = new LongAdder();
+  private final LongAdder spectatorsShed = new LongAdder();
+  private final Map<String, LatencyHistogram> messageHandling = new ConcurrentHashMap<>();
+  private final AtomicLongArray movesPerSecond = new AtomicLongArray(RATE_SECONDS);
+  private ObjectName objectName;
+
+  /**
+   * Construct the metrics of a server.
+   *
+   * @param connectedClients Supplies the number of logged in clients.
+   * @param queueDepth       Supplies the number of clients waiting for a game.
+   * @param activeGames      Supplies the number of games in progress.
+   */
+  public ServerMetrics(IntSupplier connectedClients, IntSupplier queueDepth,
+      IntSupplier activeGames) {
+    this.connectedClients = connectedClients;
+    this.queueDepth = queueDepth;
+    this.activeGames = activeGames;
+  }
+
+  //--------------------RECORDING
+
+  /**
+   * Record a move or pass accepted by a game. The slot of the second is reset and counted in one
+   * compare-and-set, so no move counted by another thread at the turn of a second is lost.
+   */
+  public void moveHandled() {
+    movesPlayed.increment();
+    long second = System.nanoTime() / 1_000_000_000L;
+    int slot = slot(second);
+    long tag = second << COUNT_BITS;
+    long current;
+    long next;
+    do {
+      current = movesPerSecond.get(slot);
+      if ((current & ~COUNT_MASK) != tag) {
+        next = tag | 1;
+      } else if ((current & COUNT_MASK) == COUNT_MASK) {
+        return;
+      } else {
+        next = current + 1;
+      }
+    } while (!movesPerSecond.compareAndSet(slot, current, next));
+  }
+
+  private static int slot(long second) {
+    return (int) Math.floorMod(second, (long) RATE_SECONDS);
+  }
+
+  /**
+   * Record a received message.
+   *
+   * @param message The message as received, without the line ending.
+   * @param nanos   The time spent handling the message.
+   */
+  public void messageReceived(String message, long nanos) {
+    bytesIn.add(encodedLength(message));
+    messageHandling.computeIfAbsent(messageType(message), type -> new LatencyHistogram())
+        .record(nanos);
+  }
+
+  /**
+   * Record a sent message.
+   *
+   * @param message The message as sent, without the line ending.
+   */
+  public void messageSent(String message) {
+    messageSent(encodedLength(message));
+  }
+
+  /**
+   * Record a sent message that was encoded already.
+   *
+   * @param length The length of the encoded line in bytes, with the line ending.
+   */
+  public void messageSent(int length) {
+    bytesOut.add(length);
+  }
+
+  /**
+   * Count the bytes a message takes on the connection, in UTF-8 with the line ending, without
+   * encoding it.
+   *
+   * @param message The message without the line ending.
+   * @return The length in bytes.
+   */
+  static int encodedLength(String message) {
+    int length = message.length() + 1;
+    for (int i = 0; i < message.length(); i++) {
+      char c = message.charAt(i);
+      if (c >= 0x800 && !Character.isSurrogate(c)) {
+        length += 2;
+      } else if (c >= 0x80) {
+        // two bytes, or half of the four bytes of a surrogate pair
+        length++;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Record a game lost because a player ran out of time.
+   */
+  public void timeoutResign() {
+    timeoutResigns.increment();
+  }
+
+  /**
+   * Record a spectator dropped because it could not keep up with its game.
+   */
+  public void spectatorShed() {
+    spectatorsShed.increment();
+  }
+
+  private static String messageType(String message) {
+    int end = message.indexOf(Protocol.SEPARATOR);
+    String type = (end < 0 ? message : message.substring(0, end)).toUpperCase(Locale.ROOT);
+    return MESSAGE_TYPES.contains(type) ? type : OTHER_MESSAGE;
+  }
+
+  //--------------------QUERIES
+
+  @Override
+  public int getConnectedClients() {
+    return connectedClients.getAsInt();
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return queueDepth.getAsInt();
+  }
+
+  @Override
+  public int getActiveGames() {
+    return activeGames.getAsInt();
+  }
+
+  @Override
+  public long getMovesPlayed() {
+    return movesPlayed.sum();
+  }
+
+  /**
+   * Get the average number of moves per second over the last ten complete seconds.
+   *
+   * @return The moves per second.
+   */
+  @Override
+  public double getMovesPerSecond() {
+    long current = System.nanoTime() / 1_000_000_000L;
+    long moves = 0;
+    for (long second = current - RATE_WINDOW; second < current; second++) {
+      long packed = movesPerSecond.get(slot(second));
+      if ((packed & ~COUNT_MASK) == second << COUNT_BITS) {
+        moves += packed & COUNT_MASK;
+      }
+    }
+    return (double) moves / RATE_WINDOW;
+  }
+
+  @Override
+  public long getBytesIn() {
+    return bytesIn.sum();
+  }
+
+  @Override
+  public long getBytesOut() {
+    return bytesOut.sum();
+  }
+
+  @Override
+  public long getTimeoutResigns() {
+    return timeoutResigns.sum();
+  }
+
+  @Override
+  public long getSpectatorsShed() {
+    return spectatorsShed.sum();
+  }
+
+  @Override
+  public Map<String, Long> getMessageHandlingP99Micros() {
+    Map<String, Long> percentiles = new LinkedHashMap<>();
+    messageHandling.forEach((type, histogram) ->
+        percentiles.put(type, histogram.getValueAtPercentile(0.99) / 1000));
+    return percentiles;
+  }
+
+  @Override
+  public Map<String, Long> getMessageCounts() {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    messageHandling.forEach((type, histogram) -> counts.put(type, histogram.getCount()));
+    return counts;
+  }
+
+  /**
+   * Get the handling time histogram of a message type.
+   *
+   * @param type The message type, e.g. Protocol.MOVE.
+   * @return The histogram, or null if no message of the type was received.
+   */
+  public LatencyHistogram getMessageHandling(String type) {
+    return messageHandling.get(type);
+  }
+
+  /**
+   * Render all the metrics in the plain text exposition format used by Prometheus.
+   *
+   * @return The metrics, one sample per line.
+   */
+  public String scrape() {
+    StringBuilder sb = new StringBuilder();
+    appendSample(sb, "go_connected_clients", getConnectedClients());
+    appendSample(sb, "go_queue_depth", getQueueDepth());
+    appendSample(sb, "go_active_games", getActiveGames());
+    appendSample(sb, "go_moves_total", getMovesPlayed());
+    appendSample(sb, "go_moves_per_second", getMovesPerSecond());
+    appendSample(sb, "go_bytes_in_total", getBytesIn());
+    appendSample(sb, "go_bytes_out_total", getBytesOut());
+    appendSample(sb, "go_timeout_resigns_total", getTimeoutResigns());
+    appendSample(sb, "go_spectators_shed_total", getSpectatorsShed());
+    messageHandling.forEach((type, histogram) -> {
+      for (double quantile : new double[]{0.5, 0.99, 0.999}) {
+        appendSample(sb, "go_message_handling_seconds{message=\"" + type + "\",quantile=\""
+            + quantile + "\"}", histogram.getValueAtPercentile(quantile) / 1e9);
+      }
+      appendSample(sb, "go_message_handling_seconds_max{message=\"" + type + "\"}",
+          histogram.getMax() / 1e9);
+      appendSample(sb, "go_message_handling_seconds_count{message=\"" + type + "\"}",
+          histogram.getCount());
+    });
+    return sb.toString();
+  }
+
+  private static void appendSample(StringBuilder sb, String name, double value) {
+    sb.append(name).append(' ').append(value).append('\n');
+  }
+
+  private static void appendSample(StringBuilder sb, String name, long value) {
+    sb.append(name).append(' ').append(value).append('\n');
+  }
+
+  //--------------------JMX
+
+  /**
+   * Register the metrics with the platform MBean server.
+   *
+   * @param port The port of the server, used to tell servers in one JVM apart.
+   */
+  public synchronized void registerJmx(int port) {
+    try {
+      MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+      objectName = new ObjectName("com.nedap.go:type=GameServer,port=" + port);
+      if (!mbeanServer.isRegistered(objectName)) {
+        mbeanServer.registerMBean(this, objectName);
+      }
+    } catch (JMException e) {
+      LOG.warn("jmx-registration-failed", "reason", e.getMessage());
+    }
+  }
+
+  /**
+   * Remove the metrics from the platform MBean server.
+   */
+  public synchronized void unregisterJmx() {
+    if (objectName == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (JMException e) {
+      // already gone
+    }
+    objectName = null;
+  }
+}
@@ -0,0 +1,41 @@
+package com.nedap.go.networking.server;
+
+import java.util.Map;
+
+/**
+ * The view of the server metrics exported over JMX.
+ */
+public interface ServerMetricsMXBean {
+
+  int getConnectedClients();
+
+  int getQueueDepth();
+
+  int getActiveGames();
+
+  long getMovesPlayed();
+
+  double getMovesPerSecond();
+
+  long getBytesIn();
+
+  long getBytesOut();
+
+  long getTimeoutResigns();
+
+  long getSpectatorsShed();
+
+  /**
+   * Get the 99th percentile of the time spent handling each message type.
+   *
+   * @return The percentile in microseconds per message type.
+   */
+  Map<String, Long> getMessageHandlingP99Micros();
+
+  /**
+   * Get the number of messages handled per message type.
+   *
+   * @return The count per message type.
+   */
+  Map<String, Long> getMessageCounts();
+}
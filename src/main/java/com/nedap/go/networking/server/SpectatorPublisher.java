@@ -0,0 +1,153 @@
+package com.nedap.go.networking.server;
+
+import com.nedap.go.networking.server.logging.Log;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sends the messages of one game to its spectators.
+ *
+ * <p>
+ * A message is encoded once and the same bytes are queued for every spectator. Each spectator has
+ * its own bounded queue and a virtual thread writing it to the socket, so publishing never waits
+ * for the network and a slow spectator never delays the players or the other spectators. A
+ * spectator whose queue is full is shed: its pending messages are dropped and it is told it stopped
+ * spectating.
+ * </p>
+ */
+public class SpectatorPublisher {
+
+  private static final Log LOG = Log.getLog(SpectatorPublisher.class);
+  public static final int QUEUE_CAPACITY = 64;
+  private static final byte[] STOP = new byte[0];
+
+  private final String gameId;
+  private final ServerMetrics metrics;
+  private final int queueCapacity;
+  private final List<Spectator> spectators = new CopyOnWriteArrayList<>();
+
+  /**
+   * Construct the publisher of a game.
+   *
+   * @param gameId        The id of the game.
+   * @param metrics       The metrics to count shed spectators in.
+   * @param queueCapacity The number of messages a spectator may lag behind before it is shed.
+   */
+  public SpectatorPublisher(String gameId, ServerMetrics metrics, int queueCapacity) {
+    this.gameId = gameId;
+    this.metrics = metrics;
+    this.queueCapacity = queueCapacity;
+  }
+
+  static byte[] encode(String message) {
+    return (message + "\n").getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Add a spectator. The first message it gets is the given state of the game, so no move is missed
+   * or sent twice as long as the caller holds the lock the moves are published under.
+   *
+   * @param clientHandler The client watching.
+   * @param state         The GAME STATE message describing the game so far.
+   */
+  public void subscribe(ClientHandler clientHandler, String state) {
+    Spectator spectator = new Spectator(clientHandler, queueCapacity);
+    spectator.queue.add(encode(state));
+    spectators.add(spectator);
+    Thread.ofVirtual().name("spectator-" + clientHandler.getUsername()).start(spectator::write);
+  }
+
+  /**
+   * Remove a spectator, e.g. because it disconnected or asked to stop.
+   *
+   * @param clientHandler The client watching.
+   */
+  public void unsubscribe(ClientHandler clientHandler) {
+    for (Spectator spectator : spectators) {
+      if (spectator.client == clientHandler) {
+        stop(spectator, null);
+      }
+    }
+  }
+
+  /**
+   * Queue a message for every spectator. Never blocks.
+   *
+   * @param message The message, without the line ending.
+   */
+  public void publish(String message) {
+    if (spectators.isEmpty()) {
+      return;
+    }
+    byte[] encoded = encode(message);
+    for (Spectator spectator : spectators) {
+      if (spectator.queue.remainingCapacity() <= 2 || !spectator.queue.offer(encoded)) {
+        metrics.spectatorShed();
+        LOG.info("spectator-shed", "client", spectator.client.getUsername(), "game", gameId);
+        stop(spectator, encode(ServerConnection.errorMessage("Too slow, stopped spectating")));
+      }
+    }
+  }
+
+  /**
+   * Send a last message, such as the result, to every spectator and remove them all.
+   *
+   * @param message The message, without the line ending.
+   */
+  public void finish(String message) {
+    publish(message);
+    for (Spectator spectator : spectators) {
+      stop(spectator, null);
+    }
+  }
+
+  public int size() {
+    return spectators.size();
+  }
+
+  private void stop(Spectator spectator, byte[] farewell) {
+    if (!spectators.remove(spectator)) {
+      return;
+    }
+    if (farewell != null) {
+      spectator.queue.clear();
+      spectator.queue.offer(farewell);
+    }
+    if (!spectator.queue.offer(STOP)) {
+      spectator.queue.clear();
+      spectator.queue.offer(STOP);
+    }
+    spectator.client.stopSpectating();
+  }
+
+  /**
+   * A client watching the game, with the messages not written to it yet.
+   */
+  private static final class Spectator {
+
+    private final ClientHandler client;
+    private final BlockingQueue<byte[]> queue;
+
+    private Spectator(ClientHandler client, int capacity) {
+      this.client = client;
+      // room for the farewell and the stop marker next to a full queue of messages
+      this.queue = new ArrayBlockingQueue<>(capacity + 2);
+    }
+
+    private void write() {
+      try {
+        byte[] message;
+        while ((message = queue.take()) != STOP) {
+          if (!client.sendEncoded(message)) {
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
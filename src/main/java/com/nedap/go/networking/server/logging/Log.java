@@ -0,0 +1,102 @@
+package com.nedap.go.networking.server.logging;
+
+import java.io.PrintStream;
+
+/**
+ * Structured, asynchronous log of one class of the server.
+ *
+ * <p>
+ * An event is a short name followed by key value pairs, e.g.
+ * {@code LOG.info("game-started", "black", name1, "white", name2)}, written as
+ * {@code 2024-01-01T12:00:00Z INFO GameServer game-started black=alex white=nick}. Events below
+ * the level are dropped before anything is allocated beyond the arguments. Accepted events go
+ * into a lock-free ring buffer and are formatted and written by a background thread, so logging
+ * never blocks a game thread; when the buffer is full events are dropped and counted instead.
+ * Values are turned into text on the logging thread, so only pass immutable values. Anything
+ * expensive to render, such as a board, should be guarded with isEnabled.
+ * </p>
+ *
+ * <p>
+ * The level is INFO unless set with the system property go.log.level or setLevel.
+ * </p>
+ */
+public final class Log {
+
+  private final String source;
+
+  private Log(String source) {
+    this.source = source;
+  }
+
+  /**
+   * Get the log of a class.
+   *
+   * @param source The class logging.
+   * @return The log, named after the simple name of the class.
+   */
+  public static Log getLog(Class<?> source) {
+    return new Log(source.getSimpleName());
+  }
+
+  /**
+   * Set the level of all the logs.
+   *
+   * @param level The lowest level that is written.
+   */
+  public static void setLevel(LogLevel level) {
+    LogPipeline.INSTANCE.setLevel(level);
+  }
+
+  /**
+   * Redirect the output of all the logs.
+   *
+   * @param output The stream to write to, null to write to System.out.
+   */
+  public static void setOutput(PrintStream output) {
+    LogPipeline.INSTANCE.setOutput(output);
+  }
+
+  /**
+   * Wait until every event logged so far has been written.
+   */
+  public static void flush() {
+    LogPipeline.INSTANCE.flush();
+  }
+
+  /**
+   * Check whether events of a level are written.
+   *
+   * @param level The level.
+   * @return True if the events would be written.
+   */
+  public boolean isEnabled(LogLevel level) {
+    return level.compareTo(LogPipeline.INSTANCE.getLevel()) >= 0 && level != LogLevel.OFF;
+  }
+
+  public void trace(String event, Object... fields) {
+    log(LogLevel.TRACE, event, fields);
+  }
+
+  public void debug(String event, Object... fields) {
+    log(LogLevel.DEBUG, event, fields);
+  }
+
+  public void info(String event, Object... fields) {
+    log(LogLevel.INFO, event, fields);
+  }
+
+  public void warn(String event, Object... fields) {
+    log(LogLevel.WARN, event, fields);
+  }
+
+  public void error(String event, Object... fields) {
+    log(LogLevel.ERROR, event, fields);
+  }
+
+  private void log(LogLevel level, String event, Object[] fields) {
+    if (isEnabled(level)) {
+      LogPipeline.INSTANCE.publish(
+          new LogEvent(System.currentTimeMillis(), level, source, event, fields));
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.nedap.go.networking.server.logging;
+
+/**
+ * One structured log event: an event name with key value pairs. The event is only formatted on
+ * the logging thread, the game threads just capture the references.
+ */
+class LogEvent {
+
+  final long timestamp;
+  final LogLevel level;
+  final String source;
+  final String event;
+  final Object[] fields;
+
+  LogEvent(long timestamp, LogLevel level, String source, String event, Object[] fields) {
+    this.timestamp = timestamp;
+    this.level = level;
+    this.source = source;
+    this.event = event;
+    this.fields = fields;
+  }
+}
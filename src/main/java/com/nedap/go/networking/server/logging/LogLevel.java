@@ -0,0 +1,8 @@
+package com.nedap.go.networking.server.logging;
+
+/**
+ * The severity of a log event. A log only passes on events at or above its configured level.
+ */
+public enum LogLevel {
+  TRACE, DEBUG, INFO, WARN, ERROR, OFF
+}
@@ -0,0 +1,163 @@
+package com.nedap.go.networking.server.logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The single logging thread of the process. It drains the ring buffer, formats the events and
+ * writes them to System.out, so formatting and I/O never happen on the game threads.
+ *
+ * <p>
+ * When the buffer is empty the thread parks until a producer wakes it. Producers only unpark it
+ * when it announced it is idle, so a busy logger costs them nothing beyond the offer.
+ * </p>
+ */
+class LogPipeline {
+
+  static final LogPipeline INSTANCE = new LogPipeline(8192);
+
+  private final LogRingBuffer buffer;
+  private final Thread thread;
+  private volatile boolean idle;
+  private final AtomicLong dropped = new AtomicLong();
+  // dropped since the last log-events-dropped warning
+  private final AtomicLong unreported = new AtomicLong();
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong accepted = new AtomicLong();
+  private volatile LogLevel level;
+  private volatile PrintStream output;
+
+  LogPipeline(int capacity) {
+    buffer = new LogRingBuffer(capacity);
+    level = parseLevel(System.getProperty("go.log.level"));
+    thread = new Thread(this::drainForever, "go-logger");
+    thread.setDaemon(true);
+    thread.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(this::drain));
+  }
+
+  private static LogLevel parseLevel(String value) {
+    try {
+      return value == null ? LogLevel.INFO : LogLevel.valueOf(value.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      return LogLevel.INFO;
+    }
+  }
+
+  LogLevel getLevel() {
+    return level;
+  }
+
+  void setLevel(LogLevel level) {
+    this.level = level;
+  }
+
+  void setOutput(PrintStream output) {
+    this.output = output;
+  }
+
+  /**
+   * Get the number of events dropped because the buffer was full, since the start.
+   *
+   * @return The number of dropped events.
+   */
+  long getDropped() {
+    return dropped.get();
+  }
+
+  void publish(LogEvent event) {
+    if (buffer.offer(event)) {
+      accepted.incrementAndGet();
+    } else {
+      dropped.incrementAndGet();
+      unreported.incrementAndGet();
+    }
+    if (idle) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Block until every event accepted so far has been written.
+   */
+  synchronized void flush() {
+    long target = accepted.get();
+    while (written.get() < target) {
+      LockSupport.unpark(thread);
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void drainForever() {
+    while (true) {
+      if (!drain()) {
+        // announce before checking again, so a producer either sees the flag or its event is seen
+        idle = true;
+        if (isEmpty()) {
+          LockSupport.park(this);
+        }
+        idle = false;
+      }
+    }
+  }
+
+  private synchronized boolean isEmpty() {
+    return buffer.isEmpty() && unreported.get() == 0;
+  }
+
+  private synchronized boolean drain() {
+    PrintStream out = output != null ? output : System.out;
+    boolean any = false;
+    LogEvent event;
+    while ((event = buffer.poll()) != null) {
+      out.println(format(event));
+      written.incrementAndGet();
+      any = true;
+    }
+    long lost = unreported.getAndSet(0);
+    if (lost > 0) {
+      out.println(format(new LogEvent(System.currentTimeMillis(), LogLevel.WARN,
+          "LogPipeline", "log-events-dropped", new Object[]{"count", lost})));
+      any = true;
+    }
+    if (any) {
+      out.flush();
+      notifyAll();
+    }
+    return any;
+  }
+
+  static String format(LogEvent event) {
+    StringBuilder sb = new StringBuilder(64);
+    sb.append(Instant.ofEpochMilli(event.timestamp)).append(' ')
+        .append(event.level).append(' ')
+        .append(event.source).append(' ')
+        .append(event.event);
+    Object[] fields = event.fields;
+    for (int i = 0; i + 1 < fields.length; i += 2) {
+      sb.append(' ').append(fields[i]).append('=');
+      appendValue(sb, String.valueOf(fields[i + 1]));
+    }
+    return sb.toString();
+  }
+
+  private static void appendValue(StringBuilder sb, String value) {
+    boolean quote = value.isEmpty();
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = Character.isWhitespace(c) || c == '"' || c == '=';
+    }
+    if (quote) {
+      sb.append('"').append(value.replace("\"", "\\\"")).append('"');
+    } else {
+      sb.append(value);
+    }
+  }
+}
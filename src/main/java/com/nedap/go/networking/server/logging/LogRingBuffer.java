@@ -0,0 +1,91 @@
+package com.nedap.go.networking.server.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of log events for many producers and a single consumer.
+ *
+ * <p>
+ * Every slot carries a sequence number telling whether it is free for the producer at a given
+ * position or holds an event for the consumer. Producers claim a position with a single CAS and
+ * never wait: when the buffer is full the event is refused and the caller counts it as dropped.
+ * </p>
+ */
+class LogRingBuffer {
+
+  private final LogEvent[] slots;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  private long head;
+
+  /**
+   * Create a ring buffer.
+   *
+   * @param capacity The number of slots, must be a power of two.
+   */
+  LogRingBuffer(int capacity) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two");
+    }
+    slots = new LogEvent[capacity];
+    sequences = new AtomicLongArray(capacity);
+    mask = capacity - 1;
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Add an event, from any thread.
+   *
+   * @param event The event.
+   * @return False if the buffer was full and the event was not added.
+   */
+  boolean offer(LogEvent event) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots[index] = event;
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Check for events to take. May only be called from the consuming thread.
+   *
+   * @return True if poll would return null.
+   */
+  boolean isEmpty() {
+    return sequences.get((int) (head & mask)) != head + 1;
+  }
+
+  /**
+   * Take the oldest event. May only be called from the consuming thread.
+   *
+   * @return The event, or null if the buffer is empty.
+   */
+  LogEvent poll() {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return null;
+    }
+    LogEvent event = slots[index];
+    slots[index] = null;
+    sequences.set(index, head + slots.length);
+    head++;
+    return event;
+  }
+}
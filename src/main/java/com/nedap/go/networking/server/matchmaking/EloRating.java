@@ -0,0 +1,26 @@
+package com.nedap.go.networking.server.matchmaking;
+
+/**
+ * Elo rating calculation used to keep the ratings of the matchmaking up to date.
+ */
+public final class EloRating {
+
+  public static final int INITIAL_RATING = 1500;
+  private static final int K_FACTOR = 32;
+
+  private EloRating() {
+  }
+
+  /**
+   * Calculate the new rating of a player after a game.
+   *
+   * @param rating         The rating of the player.
+   * @param opponentRating The rating of the opponent.
+   * @param score          1 for a win, 0.5 for a draw and 0 for a loss.
+   * @return The new rating of the player.
+   */
+  public static int update(int rating, int opponentRating, double score) {
+    double expected = 1 / (1 + Math.pow(10, (opponentRating - rating) / 400.0));
+    return (int) Math.round(rating + K_FACTOR * (score - expected));
+  }
+}
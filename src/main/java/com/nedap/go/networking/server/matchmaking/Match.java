@@ -0,0 +1,47 @@
+package com.nedap.go.networking.server.matchmaking;
+
+/**
+ * Two requests that were paired for a game. The first request plays with black.
+ */
+public class Match {
+
+  private final MatchRequest black;
+  private final MatchRequest white;
+
+  /**
+   * Pair two requests.
+   *
+   * @param black The request of the player with the black stones.
+   * @param white The request of the player with the white stones.
+   */
+  public Match(MatchRequest black, MatchRequest white) {
+    this.black = black;
+    this.white = white;
+  }
+
+  public MatchRequest getBlack() {
+    return black;
+  }
+
+  public MatchRequest getWhite() {
+    return white;
+  }
+
+  /**
+   * Get the board dimension of the game, which both requests agree on.
+   *
+   * @return The dimension of the board.
+   */
+  public int getBoardDim() {
+    return black.getBoardDim();
+  }
+
+  /**
+   * Get the time per move of the game, which both requests agree on.
+   *
+   * @return The time per move in milliseconds.
+   */
+  public long getTimePerMove() {
+    return black.getTimePerMove();
+  }
+}
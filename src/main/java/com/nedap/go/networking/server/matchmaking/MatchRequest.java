@@ -0,0 +1,56 @@
+package com.nedap.go.networking.server.matchmaking;
+
+import com.nedap.go.networking.server.ClientHandler;
+
+/**
+ * The request of a client to be matched for a game with certain terms.
+ */
+public class MatchRequest {
+
+  private final ClientHandler client;
+  private final int boardDim;
+  private final long timePerMove;
+  private final int rating;
+  private final long enqueuedAt;
+
+  /**
+   * Construct a new request, timestamped at the moment of creation.
+   *
+   * @param client      The client wanting to play.
+   * @param boardDim    The dimension of the board of the game.
+   * @param timePerMove The time each player has per move in milliseconds.
+   * @param rating      The rating of the client at the moment of queueing.
+   */
+  public MatchRequest(ClientHandler client, int boardDim, long timePerMove, int rating) {
+    this.client = client;
+    this.boardDim = boardDim;
+    this.timePerMove = timePerMove;
+    this.rating = rating;
+    this.enqueuedAt = System.nanoTime();
+  }
+
+  public ClientHandler getClient() {
+    return client;
+  }
+
+  public int getBoardDim() {
+    return boardDim;
+  }
+
+  public long getTimePerMove() {
+    return timePerMove;
+  }
+
+  public int getRating() {
+    return rating;
+  }
+
+  /**
+   * Get the moment the request was made.
+   *
+   * @return The value of System.nanoTime() at creation.
+   */
+  public long getEnqueuedAt() {
+    return enqueuedAt;
+  }
+}
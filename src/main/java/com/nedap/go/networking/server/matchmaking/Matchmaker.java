@@ -0,0 +1,53 @@
+package com.nedap.go.networking.server.matchmaking;
+
+import com.nedap.go.networking.server.ClientHandler;
+import java.util.List;
+
+/**
+ * Pairs queued clients into games. Implementations decide which clients are considered a fair
+ * match; the server only hands in requests and starts the games that come out.
+ *
+ * <p>
+ * Implementations do not need to be thread-safe, the server calls them while holding its own
+ * lock.
+ * </p>
+ */
+public interface Matchmaker {
+
+  /**
+   * Add a request to the queues.
+   *
+   * @param request The request of the client wanting to play.
+   * @return The matches that could be made right away, possibly none.
+   */
+  List<Match> enqueue(MatchRequest request);
+
+  /**
+   * Remove the request of a client, e.g. because it left the queue or disconnected.
+   *
+   * @param client The client leaving the queue.
+   * @return True if the client was queued.
+   */
+  boolean remove(ClientHandler client);
+
+  /**
+   * Go over all the queues and make every match that is possible at this moment.
+   *
+   * @return The matches made.
+   */
+  List<Match> pairUp();
+
+  /**
+   * Get the number of clients currently waiting.
+   *
+   * @return The number of queued requests over all the queues.
+   */
+  int size();
+
+  /**
+   * Get the time between two calls of pairUp the server should schedule.
+   *
+   * @return The interval in milliseconds, 0 if no periodic pass is needed.
+   */
+  long getPassInterval();
+}
@@ -0,0 +1,69 @@
+package com.nedap.go.networking.server.matchmaking;
+
+/**
+ * The settings of the RatingMatchmaker.
+ */
+public class MatchmakingConfig {
+
+  private final int ratingWindow;
+  private final int windowGrowthPerSecond;
+  private final int ratingBandWidth;
+  private final boolean pairOnArrival;
+  private final long passInterval;
+  private final int maxPairsPerPass;
+
+  /**
+   * Construct a configuration.
+   *
+   * @param ratingWindow          The largest rating difference of a fair match at the start.
+   * @param windowGrowthPerSecond How much the window widens for every second a client waits.
+   * @param ratingBandWidth       The width of a rating band, 0 to keep all ratings in one band.
+   * @param pairOnArrival         True to try pairing a request as soon as it arrives, false to
+   *                              collect the arrivals and pair them in batches on every pass.
+   * @param passInterval          The time between two passes in milliseconds.
+   * @param maxPairsPerPass       The most matches made in a single pass, 0 for no limit.
+   */
+  public MatchmakingConfig(int ratingWindow, int windowGrowthPerSecond, int ratingBandWidth,
+      boolean pairOnArrival, long passInterval, int maxPairsPerPass) {
+    this.ratingWindow = ratingWindow;
+    this.windowGrowthPerSecond = windowGrowthPerSecond;
+    this.ratingBandWidth = ratingBandWidth;
+    this.pairOnArrival = pairOnArrival;
+    this.passInterval = passInterval;
+    this.maxPairsPerPass = maxPairsPerPass;
+  }
+
+  /**
+   * The default configuration: pair on arrival within 200 rating points, widening by 50 points a
+   * second, a single rating band and a pass every second.
+   *
+   * @return The default configuration.
+   */
+  public static MatchmakingConfig defaults() {
+    return new MatchmakingConfig(200, 50, 0, true, 1000, 0);
+  }
+
+  public int getRatingWindow() {
+    return ratingWindow;
+  }
+
+  public int getWindowGrowthPerSecond() {
+    return windowGrowthPerSecond;
+  }
+
+  public int getRatingBandWidth() {
+    return ratingBandWidth;
+  }
+
+  public boolean isPairOnArrival() {
+    return pairOnArrival;
+  }
+
+  public long getPassInterval() {
+    return passInterval;
+  }
+
+  public int getMaxPairsPerPass() {
+    return maxPairsPerPass;
+  }
+}
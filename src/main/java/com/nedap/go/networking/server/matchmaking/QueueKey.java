@@ -0,0 +1,57 @@
+package com.nedap.go.networking.server.matchmaking;
+
+import java.util.Objects;
+
+/**
+ * Identifies one queue: only requests with an equal key can be paired with each other.
+ */
+public class QueueKey {
+
+  private final int boardDim;
+  private final long timePerMove;
+  private final int ratingBand;
+
+  /**
+   * Construct the key of a queue.
+   *
+   * @param boardDim    The dimension of the board.
+   * @param timePerMove The time per move in milliseconds.
+   * @param ratingBand  The number of the rating band.
+   */
+  public QueueKey(int boardDim, long timePerMove, int ratingBand) {
+    this.boardDim = boardDim;
+    this.timePerMove = timePerMove;
+    this.ratingBand = ratingBand;
+  }
+
+  public int getBoardDim() {
+    return boardDim;
+  }
+
+  public long getTimePerMove() {
+    return timePerMove;
+  }
+
+  public int getRatingBand() {
+    return ratingBand;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof QueueKey key) {
+      return boardDim == key.boardDim && timePerMove == key.timePerMove
+          && ratingBand == key.ratingBand;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(boardDim, timePerMove, ratingBand);
+  }
+
+  @Override
+  public String toString() {
+    return boardDim + "x" + boardDim + "/" + timePerMove + "ms/band " + ratingBand;
+  }
+}
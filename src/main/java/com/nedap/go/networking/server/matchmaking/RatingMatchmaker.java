@@ -0,0 +1,208 @@
+package com.nedap.go.networking.server.matchmaking;
+
+import com.nedap.go.networking.server.ClientHandler;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Matchmaker with one queue per board size, time per move and rating band.
+ *
+ * <p>
+ * Every queue keeps its requests sorted on rating, so the closest opponent of a request is found
+ * in O(log n) by looking at its two neighbours instead of scanning the queue. Two requests are a
+ * fair match when their ratings differ less than the window, which widens the longer the older
+ * of the two has been waiting. Passes go over the requests oldest first, so long waiting clients
+ * get their opponent before newcomers.
+ * </p>
+ *
+ * <p>
+ * The bands only split up the queues: a request looks for its opponent in every band its window
+ * reaches, so two close ratings on either side of a band boundary are still paired, and the
+ * search reaches further bands the longer the request waits.
+ * </p>
+ */
+public class RatingMatchmaker implements Matchmaker {
+
+  private static final Comparator<Entry> BY_RATING = Comparator
+      .comparingInt((Entry entry) -> entry.request.getRating())
+      .thenComparingLong(entry -> entry.sequence);
+
+  private final MatchmakingConfig config;
+  private final Map<QueueKey, RatingQueue> queues;
+  private final Map<ClientHandler, Entry> entries;
+  private long sequence;
+
+  /**
+   * Construct a matchmaker with the default configuration.
+   */
+  public RatingMatchmaker() {
+    this(MatchmakingConfig.defaults());
+  }
+
+  /**
+   * Construct a matchmaker.
+   *
+   * @param config The settings of the matchmaker.
+   */
+  public RatingMatchmaker(MatchmakingConfig config) {
+    this.config = config;
+    this.queues = new HashMap<>();
+    this.entries = new HashMap<>();
+  }
+
+  @Override
+  public List<Match> enqueue(MatchRequest request) {
+    remove(request.getClient());
+    QueueKey key = keyOf(request);
+    RatingQueue queue = queues.computeIfAbsent(key, k -> new RatingQueue());
+    Entry entry = new Entry(request, key, sequence++);
+    queue.add(entry);
+    entries.put(request.getClient(), entry);
+
+    List<Match> matches = new ArrayList<>();
+    if (config.isPairOnArrival()) {
+      tryPair(entry, System.nanoTime(), matches);
+    }
+    return matches;
+  }
+
+  @Override
+  public boolean remove(ClientHandler client) {
+    Entry entry = entries.remove(client);
+    if (entry == null) {
+      return false;
+    }
+    RatingQueue queue = queues.get(entry.key);
+    queue.remove(entry);
+    if (queue.isEmpty()) {
+      queues.remove(entry.key);
+    }
+    return true;
+  }
+
+  @Override
+  public List<Match> pairUp() {
+    List<Match> matches = new ArrayList<>();
+    long now = System.nanoTime();
+    for (RatingQueue queue : new ArrayList<>(queues.values())) {
+      Iterator<Entry> oldestFirst = new ArrayList<>(queue.byAge).iterator();
+      while (oldestFirst.hasNext() && !isPassFull(matches)) {
+        Entry entry = oldestFirst.next();
+        if (entries.get(entry.request.getClient()) == entry) {
+          tryPair(entry, now, matches);
+        }
+      }
+    }
+    return matches;
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public long getPassInterval() {
+    return config.getPassInterval();
+  }
+
+  private boolean isPassFull(List<Match> matches) {
+    return config.getMaxPairsPerPass() > 0 && matches.size() >= config.getMaxPairsPerPass();
+  }
+
+  private void tryPair(Entry entry, long now, List<Match> matches) {
+    int rating = entry.request.getRating();
+    long window = window(entry.request.getEnqueuedAt(), now);
+    int lowestBand = band(rating - window);
+    int highestBand = band(rating + window);
+    Entry best = null;
+    for (Map.Entry<QueueKey, RatingQueue> queue : queues.entrySet()) {
+      QueueKey key = queue.getKey();
+      if (key.getBoardDim() == entry.key.getBoardDim()
+          && key.getTimePerMove() == entry.key.getTimePerMove()
+          && key.getRatingBand() >= lowestBand && key.getRatingBand() <= highestBand) {
+        Entry below = queue.getValue().byRating.lower(entry);
+        Entry above = queue.getValue().byRating.higher(entry);
+        best = closest(entry, best, closest(entry, below, above));
+      }
+    }
+    if (best != null && isFair(entry, best, now)) {
+      remove(entry.request.getClient());
+      remove(best.request.getClient());
+      matches.add(entry.sequence < best.sequence
+          ? new Match(entry.request, best.request)
+          : new Match(best.request, entry.request));
+    }
+  }
+
+  private static Entry closest(Entry entry, Entry first, Entry second) {
+    if (first == null) {
+      return second;
+    } else if (second == null) {
+      return first;
+    }
+    int rating = entry.request.getRating();
+    return Math.abs(rating - first.request.getRating())
+        <= Math.abs(second.request.getRating() - rating) ? first : second;
+  }
+
+  private boolean isFair(Entry entry, Entry other, long now) {
+    long oldest = Math.min(entry.request.getEnqueuedAt(), other.request.getEnqueuedAt());
+    return Math.abs(entry.request.getRating() - other.request.getRating())
+        <= window(oldest, now);
+  }
+
+  private long window(long enqueuedAt, long now) {
+    long waitedSeconds = (now - enqueuedAt) / 1_000_000_000L;
+    return config.getRatingWindow() + waitedSeconds * config.getWindowGrowthPerSecond();
+  }
+
+  private int band(long rating) {
+    int width = config.getRatingBandWidth();
+    return width > 0 ? (int) Math.floorDiv(rating, width) : 0;
+  }
+
+  private QueueKey keyOf(MatchRequest request) {
+    return new QueueKey(request.getBoardDim(), request.getTimePerMove(),
+        band(request.getRating()));
+  }
+
+  private static class Entry {
+
+    private final MatchRequest request;
+    private final QueueKey key;
+    private final long sequence;
+
+    Entry(MatchRequest request, QueueKey key, long sequence) {
+      this.request = request;
+      this.key = key;
+      this.sequence = sequence;
+    }
+  }
+
+  private static class RatingQueue {
+
+    private final TreeSet<Entry> byRating = new TreeSet<>(BY_RATING);
+    private final LinkedHashSet<Entry> byAge = new LinkedHashSet<>();
+
+    void add(Entry entry) {
+      byRating.add(entry);
+      byAge.add(entry);
+    }
+
+    void remove(Entry entry) {
+      byRating.remove(entry);
+      byAge.remove(entry);
+    }
+
+    boolean isEmpty() {
+      return byAge.isEmpty();
+    }
+  }
+}
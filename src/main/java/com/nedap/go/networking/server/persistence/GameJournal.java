@@ -0,0 +1,283 @@
+package com.nedap.go.networking.server.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only, memory-mapped journal of the moves of one game.
+ *
+ * <p>
+ * The file starts with a header (magic, version, board dimension, time per move, start time and
+ * the two player names) followed by one two byte record per move: the index of the move plus one,
+ * PASS for a pass, and FINISHED once the game is over. The file is zero filled beyond the last
+ * record, so a record of 0 marks the end. Appending is a single write into the mapped buffer;
+ * the GameStore forces dirty journals to disk in batches so the game threads never wait for
+ * an fsync. The file is only open while it is being mapped; the mapping stays valid after that,
+ * so the number of journals is not limited by the number of open files.
+ * </p>
+ */
+public class GameJournal implements AutoCloseable {
+
+  static final int MAGIC = 0x474F4A31;
+  static final byte VERSION = 1;
+  static final short PASS = 0x7FFF;
+  static final short FINISHED = 0x7FFE;
+  private static final int INITIAL_SIZE = 4096;
+
+  private final Path path;
+  private final String gameId;
+  private final int boardDim;
+  private final long timePerMove;
+  private final long startedAt;
+  private final String black;
+  private final String white;
+  private final int movesOffset;
+  private MappedByteBuffer buffer;
+  private boolean dirty;
+  private int position;
+  private int moveCount;
+  private boolean finished;
+
+  private GameJournal(Path path, String gameId, int boardDim, long timePerMove, long startedAt,
+      String black, String white, int movesOffset) {
+    this.path = path;
+    this.gameId = gameId;
+    this.boardDim = boardDim;
+    this.timePerMove = timePerMove;
+    this.startedAt = startedAt;
+    this.black = black;
+    this.white = white;
+    this.movesOffset = movesOffset;
+    this.position = movesOffset;
+  }
+
+  /**
+   * Create the journal of a new game.
+   *
+   * @param path        The file of the journal, which must not exist yet.
+   * @param gameId      The id of the game.
+   * @param boardDim    The dimension of the board.
+   * @param timePerMove The time per move in milliseconds.
+   * @param black       The name of the player with black.
+   * @param white       The name of the player with white.
+   * @return The journal, ready for appending.
+   * @throws IOException If the file cannot be created or mapped.
+   */
+  static GameJournal create(Path path, String gameId, int boardDim, long timePerMove,
+      String black, String white) throws IOException {
+    FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+    byte[] blackBytes = black.getBytes(StandardCharsets.UTF_8);
+    byte[] whiteBytes = white.getBytes(StandardCharsets.UTF_8);
+    int movesOffset = 4 + 1 + 1 + 8 + 8 + 2 + blackBytes.length + 2 + whiteBytes.length;
+    GameJournal journal = new GameJournal(path, gameId, boardDim, timePerMove,
+        System.currentTimeMillis(), black, white, movesOffset);
+    journal.map(Math.max(INITIAL_SIZE, Integer.highestOneBit(movesOffset) * 4));
+    MappedByteBuffer header = journal.buffer;
+    header.putInt(0, MAGIC);
+    header.put(4, VERSION);
+    header.put(5, (byte) boardDim);
+    header.putLong(6, timePerMove);
+    header.putLong(14, journal.startedAt);
+    header.putShort(22, (short) blackBytes.length);
+    header.put(24, blackBytes);
+    header.putShort(24 + blackBytes.length, (short) whiteBytes.length);
+    header.put(26 + blackBytes.length, whiteBytes);
+    journal.dirty = true;
+    return journal;
+  }
+
+  /**
+   * Open an existing journal, e.g. after a restart, and position it after the last record.
+   *
+   * @param path   The file of the journal.
+   * @param gameId The id of the game.
+   * @return The journal, ready for appending.
+   * @throws IOException If the file cannot be read or is not a journal.
+   */
+  static GameJournal open(Path path, String gameId) throws IOException {
+    MappedByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      mapped = channel.map(MapMode.READ_WRITE, 0, channel.size());
+    }
+    if (mapped.capacity() < 26 || mapped.getInt(0) != MAGIC || mapped.get(4) != VERSION) {
+      throw new IOException(path + " is not a game journal");
+    }
+    int boardDim = mapped.get(5);
+    long timePerMove = mapped.getLong(6);
+    long startedAt = mapped.getLong(14);
+    int blackLength = Short.toUnsignedInt(mapped.getShort(22));
+    if (mapped.capacity() < 26 + blackLength) {
+      throw new IOException(path + " has a truncated header");
+    }
+    String black = readString(mapped, 24, blackLength);
+    int whiteLength = Short.toUnsignedInt(mapped.getShort(24 + blackLength));
+    if (mapped.capacity() < 26 + blackLength + whiteLength) {
+      throw new IOException(path + " has a truncated header");
+    }
+    String white = readString(mapped, 26 + blackLength, whiteLength);
+    GameJournal journal = new GameJournal(path, gameId, boardDim, timePerMove, startedAt, black,
+        white, 26 + blackLength + whiteLength);
+    journal.buffer = mapped;
+    while (journal.position + 2 <= mapped.capacity() && mapped.getShort(journal.position) != 0) {
+      if (mapped.getShort(journal.position) == FINISHED) {
+        journal.finished = true;
+      } else {
+        journal.moveCount++;
+      }
+      journal.position += 2;
+    }
+    return journal;
+  }
+
+  private static String readString(ByteBuffer buffer, int offset, int length) {
+    byte[] bytes = new byte[length];
+    buffer.get(offset, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private void map(int size) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      buffer = channel.map(MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  /**
+   * Append a move.
+   *
+   * @param index The index of the intersection played.
+   * @throws IllegalStateException If the journal is closed.
+   */
+  public synchronized void appendMove(int index) {
+    append((short) (index + 1));
+    moveCount++;
+  }
+
+  /**
+   * Append a pass.
+   *
+   * @throws IllegalStateException If the journal is closed.
+   */
+  public synchronized void appendPass() {
+    append(PASS);
+    moveCount++;
+  }
+
+  /**
+   * Mark the game as over, so it is not resumed after a restart.
+   */
+  synchronized void markFinished() {
+    if (!finished) {
+      append(FINISHED);
+      finished = true;
+    }
+  }
+
+  private void append(short record) {
+    if (buffer == null) {
+      throw new IllegalStateException("The journal of game " + gameId + " is closed");
+    }
+    if (position + 2 > buffer.capacity()) {
+      try {
+        map(buffer.capacity() * 2);
+      } catch (IOException e) {
+        throw new IllegalStateException("Could not grow journal " + path, e);
+      }
+    }
+    buffer.putShort(position, record);
+    position += 2;
+    dirty = true;
+  }
+
+  /**
+   * Write the changes since the last force to disk. Called by the flusher of the GameStore, not
+   * by the game threads, which only wait for the lock while the state is read, not for the disk.
+   */
+  void force() {
+    MappedByteBuffer mapped;
+    synchronized (this) {
+      if (!dirty || buffer == null) {
+        return;
+      }
+      mapped = buffer;
+      dirty = false;
+    }
+    mapped.force();
+  }
+
+  /**
+   * Read the moves back from the journal.
+   *
+   * @return The moves in order; an index on the board or -1 for a pass.
+   * @throws IllegalStateException If the journal is closed.
+   */
+  public synchronized int[] readMoves() {
+    if (buffer == null) {
+      throw new IllegalStateException("The journal of game " + gameId + " is closed");
+    }
+    int[] moves = new int[moveCount];
+    int count = 0;
+    for (int offset = movesOffset; offset < position; offset += 2) {
+      short record = buffer.getShort(offset);
+      if (record == PASS) {
+        moves[count++] = -1;
+      } else if (record != FINISHED) {
+        moves[count++] = record - 1;
+      }
+    }
+    return Arrays.copyOf(moves, count);
+  }
+
+  /**
+   * Stop using the journal; appending to it or reading it fails from now on. The mapping itself is
+   * released once the journal is garbage collected.
+   */
+  @Override
+  public synchronized void close() {
+    buffer = null;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public String getGameId() {
+    return gameId;
+  }
+
+  public int getBoardDim() {
+    return boardDim;
+  }
+
+  public long getTimePerMove() {
+    return timePerMove;
+  }
+
+  public long getStartedAt() {
+    return startedAt;
+  }
+
+  public String getBlack() {
+    return black;
+  }
+
+  public String getWhite() {
+    return white;
+  }
+
+  public synchronized int getMoveCount() {
+    return moveCount;
+  }
+
+  public synchronized boolean isFinished() {
+    return finished;
+  }
+}
@@ -0,0 +1,200 @@
+package com.nedap.go.networking.server.persistence;
+
+import com.nedap.go.networking.server.logging.Log;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the move journals of the games in progress and archives finished games as SGF.
+ *
+ * <p>
+ * Journals live in {@code <dataDir>/journal}, one file per game. A flusher thread forces the
+ * dirty journals to disk every flush interval, so many moves share one fsync. When a game ends
+ * its journal is marked finished and handed to the archiver thread, which writes
+ * {@code <dataDir>/sgf/<date>/<gameId>.sgf} and then deletes the journal. None of this happens
+ * on the game threads.
+ * </p>
+ *
+ * <p>
+ * After a crash the journals left behind are the games that were in progress; see recover.
+ * </p>
+ */
+public class GameStore {
+
+  private static final Log LOG = Log.getLog(GameStore.class);
+  public static final long DEFAULT_FLUSH_INTERVAL = 50;
+  static final String JOURNAL_SUFFIX = ".goj";
+  private static final DateTimeFormatter DAY = DateTimeFormatter.ISO_LOCAL_DATE
+      .withZone(ZoneOffset.UTC);
+
+  private final Path journalDirectory;
+  private final Path sgfDirectory;
+  private final Set<GameJournal> openJournals = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService flusher;
+  private final ExecutorService archiver;
+
+  /**
+   * Open a store with the default flush interval.
+   *
+   * @param dataDirectory The directory holding the journal and sgf directories.
+   * @throws IOException If the directories cannot be created.
+   */
+  public GameStore(Path dataDirectory) throws IOException {
+    this(dataDirectory, DEFAULT_FLUSH_INTERVAL);
+  }
+
+  /**
+   * Open a store.
+   *
+   * @param dataDirectory The directory holding the journal and sgf directories.
+   * @param flushInterval The time between two forces of the journals to disk in milliseconds.
+   * @throws IOException If the directories cannot be created.
+   */
+  public GameStore(Path dataDirectory, long flushInterval) throws IOException {
+    journalDirectory = Files.createDirectories(dataDirectory.resolve("journal"));
+    sgfDirectory = Files.createDirectories(dataDirectory.resolve("sgf"));
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable,
+        "journal-flusher"));
+    flusher.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval,
+        TimeUnit.MILLISECONDS);
+    archiver = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "sgf-archiver"));
+  }
+
+  private static Thread daemon(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * Start the journal of a new game.
+   *
+   * @param gameId      The unique id of the game, used as file name.
+   * @param boardDim    The dimension of the board.
+   * @param timePerMove The time per move in milliseconds.
+   * @param black       The name of the player with black.
+   * @param white       The name of the player with white.
+   * @return The journal of the game.
+   * @throws IOException If the journal cannot be created.
+   */
+  public GameJournal open(String gameId, int boardDim, long timePerMove, String black,
+      String white) throws IOException {
+    GameJournal journal = GameJournal.create(journalDirectory.resolve(gameId + JOURNAL_SUFFIX),
+        gameId, boardDim, timePerMove, black, white);
+    openJournals.add(journal);
+    return journal;
+  }
+
+  /**
+   * Open the journals left in the journal directory by a previous run. Journals of games that
+   * ended but were not archived yet are archived with an unknown result.
+   *
+   * @return The journals of the games that were still in progress.
+   * @throws IOException If the journal directory cannot be listed.
+   */
+  public List<GameJournal> recover() throws IOException {
+    List<Path> paths;
+    try (Stream<Path> files = Files.list(journalDirectory)) {
+      paths = files.filter(path -> path.getFileName().toString().endsWith(JOURNAL_SUFFIX))
+          .toList();
+    }
+    List<GameJournal> inProgress = new ArrayList<>();
+    for (Path path : paths) {
+      String fileName = path.getFileName().toString();
+      String gameId = fileName.substring(0, fileName.length() - JOURNAL_SUFFIX.length());
+      try {
+        GameJournal journal = GameJournal.open(path, gameId);
+        if (journal.isFinished()) {
+          archiver.execute(() -> archive(journal, "?"));
+        } else {
+          openJournals.add(journal);
+          inProgress.add(journal);
+        }
+      } catch (IOException e) {
+        LOG.warn("journal-unreadable", "path", path, "reason", e.getMessage());
+      }
+    }
+    return inProgress;
+  }
+
+  /**
+   * Mark a game as over and archive it in the background.
+   *
+   * @param journal The journal of the game.
+   * @param result  The SGF result of the game, e.g. "B+R".
+   * @throws IllegalStateException If the journal was closed, e.g. by closing the store.
+   */
+  public void finish(GameJournal journal, String result) {
+    journal.markFinished();
+    openJournals.remove(journal);
+    archiver.execute(() -> archive(journal, result));
+  }
+
+  private void archive(GameJournal journal, String result) {
+    try {
+      String sgf = SgfWriter.toSgf(journal.getBoardDim(), journal.getBlack(), journal.getWhite(),
+          journal.readMoves(), result);
+      Path directory = Files.createDirectories(
+          sgfDirectory.resolve(DAY.format(Instant.ofEpochMilli(journal.getStartedAt()))));
+      Path temporary = directory.resolve(journal.getGameId() + ".sgf.tmp");
+      Files.writeString(temporary, sgf, StandardCharsets.UTF_8);
+      Files.move(temporary, directory.resolve(journal.getGameId() + ".sgf"),
+          StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      journal.close();
+      Files.deleteIfExists(journal.getPath());
+    } catch (IOException e) {
+      LOG.error("archive-failed", "game", journal.getGameId(), "reason", e.getMessage());
+    }
+  }
+
+  /**
+   * Force every journal with new moves to disk.
+   */
+  public void flush() {
+    for (GameJournal journal : openJournals) {
+      journal.force();
+    }
+  }
+
+  public Path getJournalDirectory() {
+    return journalDirectory;
+  }
+
+  public Path getSgfDirectory() {
+    return sgfDirectory;
+  }
+
+  /**
+   * Flush the open journals, finish the pending archiving and stop the background threads.
+   * Games still in progress keep their journals.
+   */
+  public void close() {
+    flusher.shutdownNow();
+    flush();
+    archiver.shutdown();
+    try {
+      archiver.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (GameJournal journal : openJournals) {
+      journal.close();
+    }
+    openJournals.clear();
+  }
+}
@@ -0,0 +1,47 @@
+package com.nedap.go.networking.server.persistence;
+
+/**
+ * Renders a game in the Smart Game Format (SGF, FF[4]), the common format of Go game records.
+ */
+public final class SgfWriter {
+
+  private SgfWriter() {
+  }
+
+  /**
+   * Render a game record.
+   *
+   * @param boardDim The dimension of the board.
+   * @param black    The name of the player with black.
+   * @param white    The name of the player with white.
+   * @param moves    The moves in order, black first; an index on the board or -1 for a pass.
+   * @param result   The SGF result, e.g. "B+R", "W+" or "0", null if unknown.
+   * @return The SGF text.
+   */
+  public static String toSgf(int boardDim, String black, String white, int[] moves,
+      String result) {
+    StringBuilder sb = new StringBuilder(32 + moves.length * 6);
+    sb.append("(;GM[1]FF[4]CA[UTF-8]AP[JavaGo]SZ[").append(boardDim).append(']');
+    sb.append("PB[").append(escape(black)).append(']');
+    sb.append("PW[").append(escape(white)).append(']');
+    if (result != null) {
+      sb.append("RE[").append(escape(result)).append(']');
+    }
+    for (int i = 0; i < moves.length; i++) {
+      sb.append(';').append(i % 2 == 0 ? 'B' : 'W').append('[');
+      if (moves[i] >= 0) {
+        sb.append(coordinate(moves[i] % boardDim)).append(coordinate(moves[i] / boardDim));
+      }
+      sb.append(']');
+    }
+    return sb.append(")\n").toString();
+  }
+
+  private static char coordinate(int value) {
+    return (char) ('a' + value);
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("]", "\\]");
+  }
+}
@@ -1,9 +1,9 @@
 package com.nedap.go.networking.server.utils;
 
 /**
- * A player can be in 4 distinct states. Useful for ignoring
+ * A player can be in 5 distinct states. Useful for ignoring
  * incoming messages not appropriate for each state
  */
 public enum PlayerState {
-    FRESH, PREGAME, IN_QUEUE, IN_GAME
+    FRESH, PREGAME, IN_QUEUE, IN_GAME, SPECTATING
 }
@@ -92,7 +92,9 @@ public class GameClientTui implements Runnable {
             1. for human player via the TUI.\s
             2. for Naive AI player.\s
             3. for Smart AI player.\s
-            3. for Smarter AI player.\s
+            4. for Smarter AI player.\s
+            5. for Alpha-beta search AI player.\s
+            6. for Monte Carlo tree search AI player.\s
         """;
     println(selectPlayerText);
     return getIntMenuChoice();
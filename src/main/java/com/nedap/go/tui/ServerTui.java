@@ -2,6 +2,7 @@ package com.nedap.go.tui;
 
 import com.nedap.go.networking.server.GameServer;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
@@ -23,6 +24,20 @@ public class ServerTui {
       try {
         gameServer = new GameServer(portNumber, boardDim);
         System.out.println("Connecting via port: " + gameServer.getPort());
+        Integer metricsPort = Integer.getInteger("go.metrics.port");
+        if (metricsPort != null) {
+          System.out.println("Metrics on http://localhost:"
+              + gameServer.startMetricsEndpoint(metricsPort) + "/metrics");
+        }
+        Long gracePeriod = Long.getLong("go.reconnect.grace");
+        if (gracePeriod != null) {
+          gameServer.setReconnectGracePeriod(gracePeriod);
+        }
+        String dataDirectory = System.getProperty("go.data.dir");
+        if (dataDirectory != null) {
+          gameServer.enablePersistence(Path.of(dataDirectory));
+          System.out.println("Saving games in " + dataDirectory);
+        }
         gameServer.acceptConnections();
       } catch (IOException e) {
         System.out.println("Could not connect to port" + portNumber);
@@ -0,0 +1,91 @@
+package com.nedap.go.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.InvalidMoveException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AlphaBetaStrategyTest {
+
+  private Player player1, player2;
+
+  @BeforeEach
+  public void setUp() {
+    player1 = () -> Stone.BLACK;
+    player2 = () -> Stone.WHITE;
+  }
+
+  @Test
+  public void testFindsCapture() {
+    Board board = new Board(5);
+    board.setField(12, Stone.WHITE);
+    board.setField(7, Stone.BLACK);
+    board.setField(11, Stone.BLACK);
+    board.setField(13, Stone.BLACK);
+    GoGame game = new GoGame(player1, player2, board);
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(Evaluator.areaScore(), 500,
+        new TranspositionTable(1 << 16));
+
+    assertEquals(new GoMove(player1, 17), strategy.determineMove(game));
+    assertTrue(strategy.getCompletedDepth() >= 2);
+    assertTrue(strategy.getTable().getStores() > 0);
+  }
+
+  @Test
+  public void testKeepsToTimeBudget() {
+    GoGame game = new GoGame(player1, player2, 9);
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(Evaluator.areaScore(), 200,
+        new TranspositionTable(1 << 16));
+    long start = System.nanoTime();
+    GoMove move = (GoMove) strategy.determineMove(game);
+    long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+    assertTrue(elapsed < 1000, "searched for " + elapsed + " ms");
+    assertTrue(game.isValidMove(move));
+  }
+
+  @Test
+  public void testOutOfTimeBeforeFirstDepthDoesNotPass() {
+    GoGame game = new GoGame(player1, player2, 19);
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(Evaluator.areaScore(), 200,
+        new TranspositionTable(1 << 16));
+    SearchControl control = SearchControl.within(0);
+    GoMove move = (GoMove) strategy.determineMove(game, control);
+
+    assertEquals(0, strategy.getCompletedDepth());
+    assertFalse(move.isPass());
+    assertEquals(move, control.bestSoFar());
+  }
+
+  @Test
+  public void testPassIsPartOfKey() throws InvalidMoveException {
+    // the same stones with black on turn, once right after a pass of white and once not
+    GoGame afterPass = new GoGame(player1, player2, 9);
+    afterPass.doMove(new GoMove(player1, 0));
+    afterPass.doMove(new GoMove(player2, 80));
+    afterPass.doMove(new GoMove(player1, 40));
+    afterPass.doMove(new GoMove(player2));
+    GoGame afterMove = new GoGame(player1, player2, 9);
+    afterMove.doMove(new GoMove(player1, 0));
+    afterMove.doMove(new GoMove(player2));
+    afterMove.doMove(new GoMove(player1, 40));
+    afterMove.doMove(new GoMove(player2, 80));
+
+    assertEquals(afterPass.getBoard(), afterMove.getBoard());
+    assertNotEquals(AlphaBetaStrategy.key(afterPass), AlphaBetaStrategy.key(afterMove));
+
+    // a pass of black ends only the first game; a shared table must not mix them up
+    TranspositionTable table = new TranspositionTable(1 << 16);
+    new AlphaBetaStrategy(Evaluator.areaScore(), 300, table).determineMove(afterMove);
+    assertEquals(TranspositionTable.MISS, table.probe(AlphaBetaStrategy.key(afterPass)));
+  }
+}
@@ -0,0 +1,209 @@
+package com.nedap.go.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.model.Game;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Move;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ComputerPlayerTest {
+
+  private ComputerPlayer computer;
+  private GoGame game;
+
+  @BeforeEach
+  public void setUp() {
+    computer = new ComputerPlayer(new NaiveStrategy(), Stone.BLACK);
+    Player other = () -> Stone.WHITE;
+    game = new GoGame(computer, other, 9);
+    computer.setTimeBudget(200);
+  }
+
+  private long millisToAnswer(Strategy strategy, Move expected) {
+    computer.setStrategy(strategy);
+    long start = System.nanoTime();
+    assertEquals(expected, computer.determineMove(game));
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  @Test
+  public void testAnytimeMoveOnDeadline() {
+    Strategy searching = new Strategy() {
+      @Override
+      public String getName() {
+        return "Searching";
+      }
+
+      @Override
+      public Move determineMove(Game game) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Move determineMove(Game game, SearchControl control) {
+        control.offer(new GoMove(game.getTurn(), 40));
+        while (!control.isCancelled()) {
+          Thread.onSpinWait();
+        }
+        return new GoMove(game.getTurn(), 41);
+      }
+    };
+    long elapsed = millisToAnswer(searching, new GoMove(computer, 40));
+    assertTrue(elapsed < 1000, "answered after " + elapsed + " ms");
+  }
+
+  @Test
+  public void testStubbornStrategyIsCutOff() {
+    Strategy stubborn = new Strategy() {
+      @Override
+      public String getName() {
+        return "Stubborn";
+      }
+
+      @Override
+      public Move determineMove(Game game) {
+        try {
+          Thread.sleep(5000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return new GoMove(game.getTurn(), 40);
+      }
+    };
+    long elapsed = millisToAnswer(stubborn, new GoMove(computer));
+    assertTrue(elapsed < 1000, "answered after " + elapsed + " ms");
+  }
+
+  @Test
+  public void testSmartStrategyAnswersInTime() {
+    computer.setStrategy(new SmartStrategy());
+    long start = System.nanoTime();
+    Move move = computer.determineMove(game);
+    long elapsed = (System.nanoTime() - start) / 1_000_000;
+    assertTrue(elapsed < 1000, "answered after " + elapsed + " ms");
+    assertTrue(game.isValidMove(move));
+  }
+
+  @Test
+  public void testPonderingFillsTable() throws Exception {
+    TranspositionTable table = new TranspositionTable(1 << 20);
+    computer.setStrategy(new AlphaBetaStrategy(Evaluator.areaScore(), 200, table));
+    computer.setPondering(true);
+    game.doMove(new GoMove(computer, 40));
+
+    computer.startPondering(game);
+    Thread.sleep(300);
+    long start = System.nanoTime();
+    computer.stopPondering();
+    long elapsed = (System.nanoTime() - start) / 1_000_000;
+    assertTrue(elapsed < 1000, "stopped after " + elapsed + " ms");
+    long pondered = table.getStores();
+    assertTrue(pondered > 0);
+
+    computer.setPondering(false);
+    computer.startPondering(game);
+    Thread.sleep(100);
+    assertEquals(pondered, table.getStores());
+  }
+
+  @Test
+  public void testPassesOnceDecided() {
+    // a living black group with eyes in the corners at 0 and 72, holding five columns of nine
+    for (int index = 0; index < 81; index++) {
+      if (index % 9 < 5 && index != 0 && index != 72) {
+        game.getBoard().setField(index, Stone.BLACK);
+      }
+    }
+    assertTrue(game.isDecided());
+    assertEquals(new GoMove(computer), computer.determineMove(game));
+  }
+
+  @Test
+  public void testSearchesOfOneStrategyDoNotOverlap() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger mostRunning = new AtomicInteger();
+    Strategy slowToStop = new Strategy() {
+      @Override
+      public String getName() {
+        return "SlowToStop";
+      }
+
+      @Override
+      public Move determineMove(Game game) {
+        mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(700);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        return new GoMove(game.getTurn(), 40);
+      }
+    };
+    computer.setStrategy(slowToStop);
+    for (int i = 0; i < 3; i++) {
+      computer.determineMove(game);
+    }
+    assertEquals(1, mostRunning.get());
+  }
+
+  @Test
+  public void testCancelPonderingDoesNotWait() throws Exception {
+    List<Move> observed = new CopyOnWriteArrayList<>();
+    Strategy slowToStop = new Strategy() {
+      @Override
+      public String getName() {
+        return "SlowToStop";
+      }
+
+      @Override
+      public Move determineMove(Game game) {
+        return new GoMove(game.getTurn(), 40);
+      }
+
+      @Override
+      public void ponder(Game game, SearchControl control) {
+        while (!control.isCancelled()) {
+          Thread.onSpinWait();
+        }
+        try {
+          Thread.sleep(1000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      @Override
+      public void observeMove(Move move) {
+        observed.add(move);
+      }
+    };
+    computer.setStrategy(slowToStop);
+    computer.setPondering(true);
+    game.doMove(new GoMove(computer, 40));
+    computer.startPondering(game);
+    Thread.sleep(100);
+
+    long start = System.nanoTime();
+    computer.cancelPondering();
+    GoMove reply = new GoMove(game.getTurn(), 41);
+    computer.observeMove(reply);
+    long elapsed = (System.nanoTime() - start) / 1_000_000;
+    assertTrue(elapsed < 500, "returned after " + elapsed + " ms");
+
+    // the move reaches the strategy once pondering let go of it
+    computer.setTimeBudget(2000);
+    game.doMove(reply);
+    computer.determineMove(game);
+    assertEquals(List.of(reply), observed);
+  }
+}
@@ -0,0 +1,97 @@
+package com.nedap.go.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.InvalidMoveException;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MctsStrategyTest {
+
+  private Player player1, player2;
+
+  @BeforeEach
+  public void setUp() {
+    player1 = () -> Stone.BLACK;
+    player2 = () -> Stone.WHITE;
+  }
+
+  private static MctsStrategy strategy(long poolBytes, int simulations) {
+    MctsStrategy strategy = new MctsStrategy(new PatternPolicy(), new SplittableRandom(1), 60_000,
+        poolBytes);
+    strategy.setMaxSimulations(simulations);
+    return strategy;
+  }
+
+  @Test
+  public void testFindsCapture() {
+    Board board = new Board(5);
+    board.setField(12, Stone.WHITE);
+    board.setField(7, Stone.BLACK);
+    board.setField(11, Stone.BLACK);
+    board.setField(13, Stone.BLACK);
+    GoGame game = new GoGame(player1, player2, board);
+
+    assertEquals(new GoMove(player1, 17), strategy(1 << 20, 1000).determineMove(game));
+  }
+
+  @Test
+  public void testReusesTreeAfterObservedMoves() throws InvalidMoveException {
+    GoGame game = new GoGame(player1, player2, 5);
+    MctsStrategy strategy = strategy(1 << 20, 500);
+    strategy.determineMove(game);
+    assertEquals(0, strategy.getReusedVisits());
+    for (int move = 0; move < 3; move++) {
+      GoMove chosen = (GoMove) strategy.determineMove(game);
+      game.doMove(chosen);
+      strategy.observeMove(chosen);
+      strategy.determineMove(game);
+      assertTrue(strategy.getReusedVisits() > 0);
+    }
+  }
+
+  @Test
+  public void testFindsPositionWithoutObservedMoves() throws InvalidMoveException {
+    GoGame game = new GoGame(player1, player2, 5);
+    MctsStrategy strategy = strategy(1 << 20, 1000);
+    GoMove black = (GoMove) strategy.determineMove(game);
+    game.doMove(black);
+    GoMove white = (GoMove) strategy.determineMove(game);
+    assertTrue(strategy.getReusedVisits() > 0);
+    game.doMove(white);
+    strategy.determineMove(game);
+    assertTrue(strategy.getReusedVisits() > 0);
+  }
+
+  @Test
+  public void testUnknownMoveStartsNewTree() throws InvalidMoveException {
+    GoGame game = new GoGame(player1, player2, 5);
+    MctsStrategy strategy = strategy(1 << 20, 200);
+    strategy.determineMove(game);
+    GoMove elsewhere = new GoMove(player1, 0);
+    game.doMove(elsewhere);
+    game.doMove(new GoMove(player2, 24));
+    strategy.observeMove(elsewhere);
+    strategy.determineMove(game);
+    assertEquals(0, strategy.getReusedVisits());
+  }
+
+  @Test
+  public void testPlaysOnWithFullPool() throws InvalidMoveException {
+    GoGame game = new GoGame(player1, player2, 9);
+    MctsStrategy strategy = strategy(NodePool.BYTES_PER_NODE * 500L, 300);
+    for (int move = 0; move < 4; move++) {
+      GoMove chosen = (GoMove) strategy.determineMove(game);
+      assertTrue(game.isValidMove(chosen));
+      game.doMove(chosen);
+      strategy.observeMove(chosen);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.nedap.go.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class NodePoolTest {
+
+  /**
+   * Build a root with three children, the second of which has two children itself.
+   */
+  private static NodePool tree() {
+    NodePool pool = new NodePool(NodePool.BYTES_PER_NODE * 100L);
+    int root = pool.allocate(1);
+    int children = pool.allocate(3);
+    pool.setChildren(root, children, 3);
+    int grandchildren = pool.allocate(2);
+    pool.setChildren(children + 1, grandchildren, 2);
+    for (int node = 0; node < pool.size(); node++) {
+      pool.setMove(node, node * 10);
+      pool.visit(node, node % 2);
+      pool.visitAmaf(node, 1);
+    }
+    return pool;
+  }
+
+  @Test
+  public void testWinsKeepCountingPastFloatPrecision() {
+    NodePool pool = new NodePool(NodePool.BYTES_PER_NODE * 16L);
+    int node = pool.allocate(1);
+    // a float stops growing by 1 at 2^24
+    for (int i = 0; i < (1 << 24) + 10; i++) {
+      pool.visit(node, 1);
+    }
+    assertEquals((1 << 24) + 10, pool.getWins(node));
+  }
+
+  @Test
+  public void testAllocateUntilFull() {
+    NodePool pool = new NodePool(NodePool.BYTES_PER_NODE * 20L);
+    assertEquals(20, pool.capacity());
+    assertEquals(0, pool.allocate(15));
+    assertEquals(NodePool.NONE, pool.allocate(6));
+    assertEquals(15, pool.allocate(5));
+    pool.clear();
+    assertEquals(0, pool.allocate(20));
+  }
+
+  @Test
+  public void testCopySubtree() {
+    NodePool pool = tree();
+    NodePool target = new NodePool(NodePool.BYTES_PER_NODE * 100L);
+    int copy = pool.copySubtree(2, target);
+
+    assertEquals(0, copy);
+    assertEquals(3, target.size());
+    assertEquals(20, target.getMove(copy));
+    assertEquals(1, target.getVisits(copy));
+    assertEquals(2, target.getChildCount(copy));
+    int first = target.getFirstChild(copy);
+    assertEquals(40, target.getMove(first));
+    assertEquals(50, target.getMove(first + 1));
+    assertEquals(1, target.getWins(first + 1));
+    assertEquals(NodePool.NONE, target.getFirstChild(first));
+  }
+
+  @Test
+  public void testCopyIntoSmallPoolDropsDeepestNodes() {
+    NodePool pool = tree();
+    int children = pool.allocate(12);
+    pool.setChildren(3, children, 12);
+    NodePool target = new NodePool(0);
+    assertEquals(16, target.capacity());
+    pool.copySubtree(0, target);
+
+    // the twelve children of node 3 do not fit next to the other six nodes
+    assertEquals(6, target.size());
+    assertEquals(4, target.getFirstChild(2));
+    assertEquals(NodePool.NONE, target.getFirstChild(3));
+    assertEquals(0, target.getChildCount(3));
+  }
+}
@@ -0,0 +1,161 @@
+package com.nedap.go.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.nedap.go.model.Game;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Move;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.InvalidMoveException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OpeningBookTest {
+
+  private Player player1, player2;
+  private OpeningBook book;
+
+  @BeforeEach
+  public void setUp() {
+    player1 = () -> Stone.BLACK;
+    player2 = () -> Stone.WHITE;
+    book = new OpeningBook(16);
+  }
+
+  private GoGame gameAfter(int blackMove) throws InvalidMoveException {
+    GoGame game = new GoGame(player1, player2, 9);
+    game.doMove(new GoMove(player1, blackMove));
+    return game;
+  }
+
+  @Test
+  public void testSymmetricPositionsShareEntry() throws InvalidMoveException {
+    // black on (1,1), white answers on (2,2)
+    book.store(gameAfter(10), new GoMove(player2, 20));
+
+    // the same position mirrored left to right: black on (1,7), white on (2,6)
+    assertEquals(new GoMove(player2, 24), book.lookup(gameAfter(16)));
+    // and mirrored along the diagonal it is the same move
+    assertEquals(new GoMove(player2, 20), book.lookup(gameAfter(10)));
+    // turned a half turn: black on (7,7), white on (6,6)
+    assertEquals(new GoMove(player2, 60), book.lookup(gameAfter(70)));
+    assertNull(book.lookup(gameAfter(11)));
+    assertNull(book.lookup(new GoGame(player1, player2, 9)));
+    assertEquals(1, book.size());
+  }
+
+  @Test
+  public void testPassesAreNotStored() throws InvalidMoveException {
+    book.store(gameAfter(10), new GoMove(player2));
+    assertEquals(0, book.size());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() throws InvalidMoveException {
+    book = new OpeningBook(2);
+    book.store(gameAfter(10), new GoMove(player2, 20));
+    book.store(gameAfter(11), new GoMove(player2, 21));
+    book.lookup(gameAfter(10));
+    book.store(gameAfter(12), new GoMove(player2, 22));
+
+    assertEquals(2, book.size());
+    assertEquals(new GoMove(player2, 20), book.lookup(gameAfter(10)));
+    assertNull(book.lookup(gameAfter(11)));
+  }
+
+  @Test
+  public void testSaveAndLoad(@TempDir Path directory) throws InvalidMoveException, IOException {
+    book.store(gameAfter(10), new GoMove(player2, 20));
+    book.store(gameAfter(40), new GoMove(player2, 41));
+    Path file = directory.resolve("Smart.book");
+    book.save(file);
+
+    OpeningBook loaded = OpeningBook.load(file, 16);
+    assertEquals(2, loaded.size());
+    assertEquals(new GoMove(player2, 20), loaded.lookup(gameAfter(10)));
+    assertEquals(new GoMove(player2, 41), loaded.lookup(gameAfter(40)));
+    assertEquals(0, OpeningBook.load(directory.resolve("missing.book"), 16).size());
+  }
+
+  @Test
+  public void testBookStrategyAsksOnce() throws InvalidMoveException {
+    int[] asked = new int[1];
+    BookStrategy strategy = new BookStrategy(counting(asked), book);
+    strategy.determineMove(gameAfter(10));
+    strategy.determineMove(gameAfter(10));
+    assertEquals(1, asked[0]);
+    assertEquals(new GoMove(player2, 24), strategy.determineMove(gameAfter(16)));
+    assertEquals(1, asked[0]);
+  }
+
+  private static Strategy counting(int[] asked) {
+    return new Strategy() {
+      @Override
+      public String getName() {
+        return "Counting";
+      }
+
+      @Override
+      public GoMove determineMove(Game game) {
+        asked[0]++;
+        return new GoMove(game.getTurn(), 20);
+      }
+    };
+  }
+
+  @Test
+  public void testBookStrategyForwardsObservedMoves() {
+    List<Move> observed = new ArrayList<>();
+    BookStrategy strategy = new BookStrategy(new Strategy() {
+      @Override
+      public String getName() {
+        return "Observing";
+      }
+
+      @Override
+      public Move determineMove(Game game) {
+        return new GoMove(game.getTurn());
+      }
+
+      @Override
+      public void observeMove(Move move) {
+        observed.add(move);
+      }
+    }, book);
+    strategy.observeMove(new GoMove(player1, 10));
+    assertEquals(List.of(new GoMove(player1, 10)), observed);
+  }
+
+  @Test
+  public void testBookOnlyCoversOpening() throws InvalidMoveException {
+    int[] asked = new int[1];
+    BookStrategy strategy = new BookStrategy(counting(asked), book, 1);
+    book.store(gameAfter(10), new GoMove(player2, 30));
+    assertEquals(new GoMove(player2, 20), strategy.determineMove(gameAfter(10)));
+    assertEquals(new GoMove(player2, 20), strategy.determineMove(gameAfter(40)));
+    assertEquals(2, asked[0]);
+    assertNull(book.lookup(gameAfter(40)));
+  }
+
+  @Test
+  public void testBookNotUsedAfterPass() throws InvalidMoveException {
+    int[] asked = new int[1];
+    BookStrategy strategy = new BookStrategy(counting(asked), book, 20);
+    GoGame passed = new GoGame(player1, player2, 9);
+    passed.doMove(new GoMove(player1));
+    book.store(passed, new GoMove(player2, 30));
+    int stored = book.size();
+
+    assertEquals(new GoMove(player2, 20), strategy.determineMove(passed));
+    assertEquals(1, asked[0]);
+    assertEquals(stored, book.size());
+  }
+}
@@ -0,0 +1,69 @@
+package com.nedap.go.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.InvalidMoveException;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+public class PatternPolicyTest {
+
+  private final Player black = () -> Stone.BLACK;
+  private final Player white = () -> Stone.WHITE;
+  private final PatternPolicy policy = new PatternPolicy();
+
+  @Test
+  public void testSwapColors() {
+    for (int pattern = 0; pattern < PatternPolicy.PATTERNS; pattern += 97) {
+      assertEquals(pattern, PatternPolicy.swapColors(PatternPolicy.swapColors(pattern)));
+      assertEquals(policy.weight(pattern, Stone.BLACK),
+          policy.weight(PatternPolicy.swapColors(pattern), Stone.WHITE));
+    }
+  }
+
+  @Test
+  public void testContactOverEmptySpace() {
+    Board board = new Board(9);
+    board.setField(40, Stone.WHITE);
+    assertTrue(policy.weight(board.getPattern(39), Stone.BLACK)
+        > policy.weight(board.getPattern(20), Stone.BLACK));
+    assertTrue(policy.weight(board.getPattern(20), Stone.BLACK)
+        > policy.weight(board.getPattern(4), Stone.BLACK));
+  }
+
+  @Test
+  public void testDoesNotFillOwnEyes() {
+    // a black wall on the first two columns with eyes at 5 and 15
+    Board board = new Board(5);
+    for (int index : new int[]{0, 1, 6, 10, 11, 16, 20, 21}) {
+      board.setField(index, Stone.BLACK);
+    }
+    GoGame game = new GoGame(black, white, board);
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < 50; i++) {
+      GoMove move = policy.choose(game.deepCopy(), random);
+      assertFalse(!move.isPass() && (move.getIndex() == 5 || move.getIndex() == 15));
+    }
+  }
+
+  @Test
+  public void testPlaysValidGamesToTheEnd() throws InvalidMoveException {
+    GoGame game = new GoGame(black, white, 9);
+    SplittableRandom random = new SplittableRandom(2);
+    int moves = 0;
+    while (!game.isGameover() && moves < 1000) {
+      GoMove move = policy.choose(game, random);
+      assertTrue(game.isValidMove(move));
+      game.doMove(move);
+      moves++;
+    }
+    assertTrue(game.isGameover());
+  }
+}
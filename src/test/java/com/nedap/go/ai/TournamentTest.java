@@ -0,0 +1,73 @@
+package com.nedap.go.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.ai.Tournament.Results;
+import com.nedap.go.ai.Tournament.Standing;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+public class TournamentTest {
+
+  @Test
+  public void testPlaysEveryPair() {
+    Map<String, Function<RandomGenerator, Strategy>> entrants = new LinkedHashMap<>();
+    entrants.put("Naive", NaiveStrategy::new);
+    entrants.put("Pass", random -> new PassStrategy());
+    entrants.put("Naive2", NaiveStrategy::new);
+    Tournament tournament = new Tournament(entrants);
+    tournament.setGamesPerPair(6);
+    tournament.setBoardDim(5);
+    tournament.setThreads(3);
+    tournament.setTimeBudget(500);
+    Results results = tournament.run();
+
+    assertEquals(18, results.games());
+    assertEquals(3, results.standings().size());
+    Standing naiveVsPass = results.standings().getFirst();
+    assertEquals("Naive", naiveVsPass.first());
+    assertEquals("Pass", naiveVsPass.second());
+    assertEquals(6, naiveVsPass.games());
+    // a player that only passes never has a stone on the board
+    assertEquals(0, naiveVsPass.losses());
+    assertTrue(results.gamesPerSecond() > 0);
+  }
+
+  @Test
+  public void testSameSeedSameGames() {
+    Map<String, Function<RandomGenerator, Strategy>> entrants = new LinkedHashMap<>();
+    entrants.put("Naive", NaiveStrategy::new);
+    entrants.put("Naive2", NaiveStrategy::new);
+    Results[] runs = new Results[3];
+    for (int run = 0; run < runs.length; run++) {
+      Tournament tournament = new Tournament(entrants);
+      tournament.setGamesPerPair(8);
+      tournament.setBoardDim(5);
+      tournament.setThreads(run + 1);
+      tournament.setSeed(run < 2 ? 7 : 8);
+      runs[run] = tournament.run();
+    }
+    assertEquals(runs[0].moves(), runs[1].moves());
+    assertEquals(runs[0].standings(), runs[1].standings());
+    assertNotEquals(runs[0].moves(), runs[2].moves());
+  }
+
+  @Test
+  public void testElo() {
+    Standing even = new Standing("A", "B", 10, 0, 10);
+    assertEquals(0, even.elo(), 1e-9);
+    Standing better = new Standing("A", "B", 75, 0, 25);
+    assertEquals(190.8, better.elo(), 0.1);
+    double[] interval = better.eloInterval();
+    assertTrue(interval[0] < better.elo() && better.elo() < interval[1]);
+    assertTrue(interval[0] > 0);
+    Standing more = new Standing("A", "B", 750, 0, 250);
+    assertTrue(more.eloInterval()[1] - more.eloInterval()[0]
+        < interval[1] - interval[0]);
+  }
+}
@@ -0,0 +1,71 @@
+package com.nedap.go.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+
+  @Test
+  public void testStoreAndProbe() {
+    TranspositionTable table = new TranspositionTable(1 << 10);
+    assertEquals(64, table.getCapacity());
+    assertEquals(TranspositionTable.MISS, table.probe(42L));
+
+    table.store(42L, 7, -1234, -1, TranspositionTable.LOWER_BOUND);
+    long entry = table.probe(42L);
+    assertEquals(7, TranspositionTable.depth(entry));
+    assertEquals(-1234, TranspositionTable.score(entry));
+    assertEquals(-1, TranspositionTable.move(entry));
+    assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+    assertEquals(TranspositionTable.MISS, table.probe(42L + 64));
+    assertEquals(1.0 / 3, table.getHitRate(), 1e-9);
+  }
+
+  @Test
+  public void testDeepResultsSurvive() {
+    TranspositionTable table = new TranspositionTable(16 * 16);
+    int capacity = table.getCapacity();
+    // fill every slot near the home slot 3 with deep results
+    for (int i = 0; i < 4; i++) {
+      table.store(3 + (long) i * capacity, 10, i, i, TranspositionTable.EXACT);
+    }
+    table.store(3 + 4L * capacity, 2, 0, 0, TranspositionTable.EXACT);
+    assertEquals(TranspositionTable.MISS, table.probe(3 + 4L * capacity));
+    assertEquals(0, table.getReplacements());
+
+    table.store(3 + 5L * capacity, 12, 0, 0, TranspositionTable.EXACT);
+    assertEquals(12, TranspositionTable.depth(table.probe(3 + 5L * capacity)));
+    assertEquals(1, table.getReplacements());
+  }
+
+  @Test
+  public void testConcurrentWritersNeverTear() throws InterruptedException {
+    TranspositionTable table = new TranspositionTable(16 * 64);
+    AtomicInteger torn = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int seed = t;
+      threads.add(Thread.ofPlatform().start(() -> {
+        for (int i = 0; i < 200_000; i++) {
+          long key = (i * 31L + seed) % 1000 + 1;
+          table.store(key, (int) (key % 200), (int) key, (int) key, TranspositionTable.EXACT);
+          long entry = table.probe((i * 17L + seed) % 1000 + 1);
+          if (entry != TranspositionTable.MISS
+              && TranspositionTable.score(entry) != TranspositionTable.move(entry)) {
+            torn.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(0, torn.get());
+    assertTrue(table.getHits() > 0);
+  }
+}
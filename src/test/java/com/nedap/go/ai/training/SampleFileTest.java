@@ -0,0 +1,138 @@
+package com.nedap.go.ai.training;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.ai.NaiveStrategy;
+import com.nedap.go.model.Board;
+import com.nedap.go.model.Stone;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SampleFileTest {
+
+  @TempDir
+  Path dir;
+
+  private static List<Sample> randomSamples(int count, int dim) {
+    Random random = new Random(3);
+    List<Sample> samples = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Board board = new Board(dim);
+      for (int index = 0; index < dim * dim; index++) {
+        int stone = random.nextInt(3);
+        if (stone > 0) {
+          board.setField(index, stone == 1 ? Stone.BLACK : Stone.WHITE);
+        }
+      }
+      samples.add(Sample.of(board, i % 2 == 0 ? Stone.BLACK : Stone.WHITE,
+          random.nextInt(dim * dim + 1) - 1, random.nextInt(3) - 1));
+    }
+    return samples;
+  }
+
+  private static void assertSameSample(Sample expected, Sample actual) {
+    assertArrayEquals(expected.black(), actual.black());
+    assertArrayEquals(expected.white(), actual.white());
+    assertEquals(expected.toMove(), actual.toMove());
+    assertEquals(expected.move(), actual.move());
+    assertEquals(expected.result(), actual.result());
+  }
+
+  @Test
+  public void testPlanes() {
+    Board board = new Board(9);
+    board.setField(0, Stone.BLACK);
+    board.setField(80, Stone.WHITE);
+    Sample sample = Sample.of(board, Stone.WHITE, 40, -1);
+    assertEquals(11, sample.black().length);
+    assertEquals(Stone.BLACK, sample.stone(0));
+    assertEquals(Stone.WHITE, sample.stone(80));
+    assertEquals(Stone.EMPTY, sample.stone(40));
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    Path file = dir.resolve("samples.bin");
+    List<Sample> samples = randomSamples(10, 19);
+    try (SampleWriter writer = new SampleWriter(file, 19, 3)) {
+      writer.writeAll(samples);
+      assertEquals(10, writer.getCount());
+    }
+    try (SampleReader reader = new SampleReader(file)) {
+      assertEquals(19, reader.getDim());
+      assertEquals(10, reader.size());
+      for (int i = 0; i < samples.size(); i++) {
+        assertSameSample(samples.get(i), reader.get(i));
+      }
+      assertThrows(IndexOutOfBoundsException.class, () -> reader.get(10));
+    }
+  }
+
+  @Test
+  public void testCutShortFileKeepsCompleteChunks() throws IOException {
+    Path file = dir.resolve("samples.bin");
+    List<Sample> samples = randomSamples(10, 9);
+    try (SampleWriter writer = new SampleWriter(file, 9, 4)) {
+      writer.writeAll(samples);
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 1);
+    }
+    try (SampleReader reader = new SampleReader(file)) {
+      assertEquals(8, reader.size());
+      assertSameSample(samples.get(7), reader.get(7));
+    }
+  }
+
+  @Test
+  public void testNotASampleFile() throws IOException {
+    Path file = dir.resolve("other.bin");
+    Files.write(file, new byte[32]);
+    assertThrows(IOException.class, () -> new SampleReader(file));
+  }
+
+  @Test
+  public void testSelfPlay() throws IOException {
+    Path file = dir.resolve("selfplay.bin");
+    SelfPlay selfPlay = new SelfPlay(NaiveStrategy::new);
+    selfPlay.setGames(6);
+    selfPlay.setBoardDim(5);
+    selfPlay.setThreads(2);
+    SelfPlay.Stats stats = selfPlay.run(file);
+    assertEquals(6, stats.games());
+    assertEquals(0, stats.unfinished());
+    assertTrue(stats.samples() > 0);
+    try (SampleReader reader = new SampleReader(file)) {
+      assertEquals(stats.samples(), reader.size());
+      for (long i = 0; i < reader.size(); i++) {
+        Sample sample = reader.get(i);
+        assertTrue(sample.move() == Sample.PASS || sample.stone(sample.move()) == Stone.EMPTY);
+        assertTrue(Math.abs(sample.result()) <= 1);
+      }
+    }
+  }
+
+  @Test
+  public void testSelfPlayLeavesOutUnfinishedGames() throws IOException {
+    Path file = dir.resolve("unfinished.bin");
+    SelfPlay selfPlay = new SelfPlay(NaiveStrategy::new);
+    selfPlay.setGames(3);
+    selfPlay.setBoardDim(5);
+    selfPlay.setThreads(2);
+    selfPlay.setMaxMoves(6);
+    SelfPlay.Stats stats = selfPlay.run(file);
+    assertEquals(3, stats.unfinished());
+    assertEquals(0, stats.samples());
+  }
+}
@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -132,6 +133,23 @@ public class BoardTest {
     assertEquals(25, board.getScore(Stone.WHITE));
   }
 
+  @Test
+  public void testScoreMarginMatchesScores() {
+    assertEquals(0, board.getScoreMargin());
+    Random random = new Random(3);
+    for (int round = 0; round < 50; round++) {
+      board.reset();
+      for (int index = 0; index < 81; index++) {
+        int color = random.nextInt(4);
+        if (color > 1) {
+          board.setField(index, color == 2 ? Stone.BLACK : Stone.WHITE);
+        }
+      }
+      assertEquals(board.getScore(Stone.BLACK) - board.getScore(Stone.WHITE),
+          board.getScoreMargin());
+    }
+  }
+
   @Test
   public void testCapture() {
     int[] black = new int[]{21, 22, 23, 29, 33, 39, 43, 49, 53, 58, 61, 68, 69};
@@ -191,4 +209,64 @@ public class BoardTest {
     assertNotEquals(board.getScore(Stone.BLACK), copiedBoard.getScore(Stone.BLACK));
     assertEquals(board.getScore(Stone.WHITE), copiedBoard.getScore(Stone.WHITE));
   }
+
+  @Test
+  public void testPositionHash() {
+    assertEquals(0L, board.positionHash());
+    int[] black = new int[]{1, 9, 11};
+    for (int index : black) {
+      board.setField(index, Stone.BLACK);
+    }
+    board.setField(10, Stone.WHITE);
+    board.setField(19, Stone.BLACK);
+    board.calculateCaptures(Stone.WHITE);
+
+    Stone[] fields = new Stone[81];
+    Arrays.fill(fields, Stone.EMPTY);
+    for (int index : new int[]{1, 9, 11, 19}) {
+      fields[index] = Stone.BLACK;
+    }
+    Board rebuilt = new Board(fields);
+    assertEquals(rebuilt.positionHash(), board.positionHash());
+    assertEquals(rebuilt, board);
+    assertEquals(rebuilt.hashCode(), board.hashCode());
+    assertEquals(board.positionHash(), board.deepCopy().positionHash());
+
+    rebuilt.setField(10, Stone.WHITE);
+    assertNotEquals(rebuilt.positionHash(), board.positionHash());
+    assertNotEquals(rebuilt, board);
+    assertNotEquals(new Board(9), new Board(13));
+  }
+
+  @Test
+  public void testPatternsFollowCaptures() {
+    Random random = new Random(7);
+    Board played = new Board(5);
+    for (int move = 0; move < 200; move++) {
+      Stone stone = move % 2 == 0 ? Stone.BLACK : Stone.WHITE;
+      played.setField(random.nextInt(25), stone);
+      played.calculateCaptures(stone.other());
+      Board copy = played.deepCopy();
+      Stone[] fields = new Stone[25];
+      for (int i = 0; i < fields.length; i++) {
+        fields[i] = played.getField(i);
+      }
+      Board rebuilt = new Board(fields);
+      for (int i = 0; i < fields.length; i++) {
+        assertEquals(rebuilt.getPattern(i), played.getPattern(i));
+        assertEquals(rebuilt.getPattern(i), copy.getPattern(i));
+      }
+    }
+  }
+
+  @Test
+  public void testPatternOfCorner() {
+    board.setField(1, Stone.BLACK);
+    board.setField(10, Stone.WHITE);
+    // north-west, north, north-east, west and south-west are off the board
+    int edge = Board.patternCode(null);
+    int expected = edge | edge << 2 | edge << 4 | edge << 6 | Board.patternCode(Stone.BLACK) << 8
+        | edge << 10 | Board.patternCode(Stone.WHITE) << 14;
+    assertEquals(expected, board.getPattern(0));
+  }
 }
@@ -0,0 +1,110 @@
+package com.nedap.go.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.model.utils.InvalidMoveException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CompactGameTest {
+
+  private CompactGame game;
+
+  @BeforeEach
+  public void setUp() {
+    game = new CompactGame(9);
+  }
+
+  @Test
+  public void testKoRule() throws InvalidMoveException {
+    int[] black = new int[]{29, 37, 47, 39};
+    int[] white = new int[]{30, 40, 48, 38};
+    for (int i = 0; i < black.length; i++) {
+      game.play(black[i]);
+      game.play(white[i]);
+    }
+    assertFalse(game.isValidMove(39));
+    assertThrows(InvalidMoveException.class, () -> game.play(39));
+    assertEquals(Stone.BLACK, game.getTurn());
+  }
+
+  @Test
+  public void testSingleSuicideKoRule() throws InvalidMoveException {
+    int[] white = new int[]{30, 38, 40, 48};
+    for (int index : white) {
+      game.pass();
+      game.play(index);
+    }
+    assertFalse(game.isValidMove(39));
+    assertTrue(game.isValidMove(0));
+    assertFalse(game.isValidMove(30));
+    assertFalse(game.isValidMove(81));
+  }
+
+  @Test
+  public void testCountsAndSamePosition() throws InvalidMoveException {
+    game.play(0);
+    game.play(40);
+    game.play(1);
+    assertEquals(2, game.countStones(Stone.BLACK));
+    assertEquals(1, game.countStones(Stone.WHITE));
+    assertEquals(3, game.countLiberties(Stone.BLACK));
+    assertEquals(4, game.countLiberties(Stone.WHITE));
+
+    CompactGame other = new CompactGame(9);
+    other.play(1);
+    other.play(40);
+    assertFalse(game.samePosition(other));
+    other.play(0);
+    assertTrue(game.samePosition(other));
+  }
+
+  @Test
+  public void testPassesEndGame() {
+    game.pass();
+    assertFalse(game.isGameOver());
+    game.pass();
+    assertTrue(game.isGameOver());
+    assertArrayEquals(new int[]{CompactGame.PASS, CompactGame.PASS}, game.getMoves());
+  }
+
+  @Test
+  public void testMatchesGoGame() throws InvalidMoveException {
+    Player player1 = () -> Stone.BLACK;
+    Player player2 = () -> Stone.WHITE;
+    for (long seed = 0; seed < 5; seed++) {
+      GoGame goGame = new GoGame(player1, player2, 9);
+      CompactGame compact = new CompactGame(9);
+      Random random = new Random(seed);
+      for (int i = 0; i < 200 && !goGame.isGameover(); i++) {
+        List<Integer> valid = new ArrayList<>();
+        for (int index = 0; index < 81; index++) {
+          boolean isValid = goGame.isValidMove(new GoMove(goGame.getTurn(), index));
+          assertEquals(isValid, compact.isValidMove(index), "seed " + seed + " move " + i);
+          if (isValid) {
+            valid.add(index);
+          }
+        }
+        if (valid.isEmpty() || random.nextInt(20) == 0) {
+          goGame.doMove(new GoMove(goGame.getTurn()));
+          compact.pass();
+        } else {
+          int index = valid.get(random.nextInt(valid.size()));
+          goGame.doMove(new GoMove(goGame.getTurn(), index));
+          compact.play(index);
+        }
+        assertEquals(goGame.getBoard(), compact.toBoard());
+        assertEquals(goGame.getBoard().positionHash(), compact.positionHash());
+        assertEquals(goGame.getTurn().getStone(), compact.getTurn());
+        assertEquals(goGame.isGameover(), compact.isGameOver());
+      }
+    }
+  }
+}
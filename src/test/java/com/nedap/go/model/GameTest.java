@@ -9,7 +9,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.nedap.go.model.utils.BoardList;
 import com.nedap.go.model.utils.InvalidMoveException;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -99,6 +103,52 @@ public class GameTest {
     assertNotEquals(game.getValidMoves().size(), gameCopy.getValidMoves().size());
   }
 
+  @Test
+  public void testDeepCopyIsIndependent() throws InvalidMoveException {
+    game.doMove(new GoMove(player1, 0));
+    GoGame gameCopy = game.deepCopy();
+    gameCopy.doMove(new GoMove(player2, 1));
+    game.doMove(new GoMove(player2, 2));
+
+    assertTrue(gameCopy.getBoard().isEmpty(2));
+    assertFalse(gameCopy.getBoard().isEmpty(1));
+    assertTrue(game.getBoard().isEmpty(1));
+    assertFalse(game.getBoard().isEmpty(2));
+    assertNotEquals(game.getBoard(), gameCopy.getBoard());
+  }
+
+  @Test
+  public void testKoRuleInCopies() throws InvalidMoveException {
+    int[] black = new int[]{29, 37, 47, 39};
+    int[] white = new int[]{30, 40, 48, 38};
+    for (int i = 0; i < black.length; i++) {
+      game.doMove(new GoMove(player1, black[i]));
+      game = game.deepCopy();
+      game.doMove(new GoMove(player2, white[i]));
+      game = game.deepCopy();
+    }
+    GoGame gameCopy = game.deepCopy();
+    assertFalse(game.isValidMove(new GoMove(player1, 39)));
+    assertFalse(gameCopy.isValidMove(new GoMove(player1, 39)));
+  }
+
+  @Test
+  public void testForkedBoardListIsACollection() {
+    BoardList boards = new BoardList();
+    Board first = new Board(5);
+    first.setField(0, Stone.BLACK);
+    boards.add(first);
+    BoardList fork = boards.fork();
+    Board second = new Board(5);
+    second.setField(1, Stone.BLACK);
+    fork.add(second);
+
+    assertEquals(2, fork.size());
+    assertTrue(fork.containsAll(List.of(first, second)));
+    assertEquals(Set.of(first, second), new HashSet<>(fork));
+    assertEquals(Set.of(first), new HashSet<>(boards));
+  }
+
   @Test
   public void testDoMove() throws InvalidMoveException {
     assertEquals(82, game.getValidMoves().size());
@@ -241,4 +291,18 @@ public class GameTest {
     assertTrue(game.isGameover());
     System.out.println(game);
   }
+
+  @Test
+  public void testReplayMatchesDoMove() throws InvalidMoveException {
+    GoGame replayed = new GoGame(player1, player2, new Board());
+    Random random = new Random(42);
+    for (int i = 0; i < 150 && !game.isGameover(); i++) {
+      List<? extends Move> validMoves = game.getValidMoves();
+      GoMove move = (GoMove) validMoves.get(random.nextInt(validMoves.size()));
+      game.doMove(move);
+      replayed.replayMove(move);
+      assertEquals(game.getBoard(), replayed.getBoard());
+      assertEquals(game.getTurn(), replayed.getTurn());
+    }
+  }
 }
@@ -0,0 +1,83 @@
+package com.nedap.go.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class PassAliveTest {
+
+  /**
+   * Build a board from rows of B, W and dots.
+   */
+  private static Board board(String... rows) {
+    Stone[] fields = new Stone[rows.length * rows.length];
+    for (int i = 0; i < fields.length; i++) {
+      char c = rows[i / rows.length].charAt(i % rows.length);
+      fields[i] = c == 'B' ? Stone.BLACK : c == 'W' ? Stone.WHITE : Stone.EMPTY;
+    }
+    return new Board(fields);
+  }
+
+  @Test
+  public void testTwoEyesLive() {
+    PassAlive settled = PassAlive.of(board(
+        ".B...",
+        "BB...",
+        "BB...",
+        "BB...",
+        ".B..."));
+    assertEquals(Stone.BLACK, settled.getOwner(0));
+    assertEquals(Stone.BLACK, settled.getOwner(20));
+    assertEquals(Stone.BLACK, settled.getOwner(11));
+    assertFalse(settled.isSettled(2));
+    assertEquals(10, settled.getSettledArea(Stone.BLACK));
+    assertEquals(0, settled.getSettledArea(Stone.WHITE));
+    assertNull(settled.getDecidedWinner());
+  }
+
+  @Test
+  public void testOneEyeDoesNotLive() {
+    PassAlive settled = PassAlive.of(board(
+        ".B...",
+        "BB...",
+        "BB...",
+        "BB...",
+        "BB..."));
+    assertEquals(0, settled.getSettledArea(Stone.BLACK));
+  }
+
+  @Test
+  public void testDeadStonesInTerritory() {
+    Board board = board(
+        "WB...",
+        ".B...",
+        "BB...",
+        "BB...",
+        ".B...");
+    PassAlive settled = PassAlive.of(board);
+    assertEquals(Stone.BLACK, settled.getOwner(0));
+    assertEquals(Stone.BLACK, settled.getOwner(5));
+    assertEquals(25, board.getSettledScore(Stone.BLACK));
+    assertEquals(0, board.getSettledScore(Stone.WHITE));
+    // plain area scoring leaves the white stone alive
+    assertEquals(23, board.getScore(Stone.BLACK));
+    assertEquals(1, board.getScore(Stone.WHITE));
+  }
+
+  @Test
+  public void testDecided() {
+    Board board = board(
+        ".BB..",
+        "BBB..",
+        "BBB.W",
+        "BBB..",
+        ".BB..");
+    assertEquals(Stone.BLACK, PassAlive.of(board).getDecidedWinner());
+    GoGame game = new GoGame(() -> Stone.BLACK, () -> Stone.WHITE, board);
+    assertTrue(game.isDecided());
+    assertFalse(new GoGame(() -> Stone.BLACK, () -> Stone.WHITE, 5).isDecided());
+  }
+}
@@ -0,0 +1,116 @@
+package com.nedap.go.model.utils;
+
+import com.nedap.go.model.Board;
+import com.nedap.go.model.CompactGame;
+import com.nedap.go.model.Stone;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Speed benchmark of the board operations on the Vector API against the plain loops.
+ *
+ * <p>
+ * Plays a random game to fill a board about halfway, then times counting stones, comparing two
+ * equal boards and finding the freedoms of a color with each implementation, after a warm-up
+ * round so both are compiled. Must run with {@code --add-modules jdk.incubator.vector} (see the
+ * vector profile in the pom).
+ * </p>
+ *
+ * <p>
+ * Options (all optional): {@code --board N --rounds N --seed N}
+ * </p>
+ */
+public class KernelBenchmark {
+
+  private static final byte EMPTY = 0;
+  private static final byte BLACK = 1;
+  private static final byte WHITE = 2;
+
+  private int boardDim = 19;
+  private int rounds = 2_000_000;
+  private long seed = 42;
+  // keeps the results alive so the work is not optimized away
+  private long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args The command line options.
+   */
+  public static void main(String[] args) {
+    KernelBenchmark benchmark = new KernelBenchmark();
+    benchmark.parseArguments(args);
+    benchmark.run(System.out);
+  }
+
+  private void parseArguments(String[] args) {
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--board" -> boardDim = Integer.parseInt(value);
+        case "--rounds" -> rounds = Integer.parseInt(value);
+        case "--seed" -> seed = Long.parseLong(value);
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+  }
+
+  /**
+   * Times both implementations and prints the report.
+   *
+   * @param console The stream the report is printed on.
+   */
+  public void run(PrintStream console) {
+    byte[] fields = randomBoard();
+    byte[] copy = fields.clone();
+    byte[] mask = new byte[fields.length];
+    StoneKernels scalar = new ScalarKernels();
+    StoneKernels vector = new VectorKernels();
+    console.printf(Locale.ROOT, "==== %d rounds on %dx%d ====%n", rounds, boardDim, boardDim);
+    for (boolean warmUp : new boolean[]{true, false}) {
+      for (StoneKernels kernels : new StoneKernels[]{scalar, vector}) {
+        String name = kernels.getClass().getSimpleName();
+        long count = time(() -> sink += kernels.count(fields, BLACK));
+        long equal = time(() -> sink += kernels.equal(fields, copy) ? 1 : 0);
+        long liberties = time(
+            () -> sink += kernels.liberties(fields, boardDim, EMPTY, BLACK, mask));
+        if (!warmUp) {
+          console.printf(Locale.ROOT, "%-14s count %6.1f ns   equal %6.1f ns   liberties %6.1f ns%n",
+              name, (double) count / rounds, (double) equal / rounds,
+              (double) liberties / rounds);
+        }
+      }
+    }
+    if (sink == 42) {
+      console.println();
+    }
+  }
+
+  private long time(Runnable operation) {
+    long start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      operation.run();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private byte[] randomBoard() {
+    CompactGame game = new CompactGame(boardDim);
+    Random random = new Random(seed);
+    int fields = boardDim * boardDim;
+    for (int i = 0; i < fields / 2; i++) {
+      int candidate = random.nextInt(fields);
+      if (game.isValidMove(candidate)) {
+        game.replay(candidate);
+      }
+    }
+    Board board = game.toBoard();
+    byte[] bytes = new byte[fields];
+    for (int i = 0; i < fields; i++) {
+      bytes[i] = board.getField(i) == Stone.EMPTY ? EMPTY
+          : board.getField(i) == Stone.BLACK ? BLACK : WHITE;
+    }
+    return bytes;
+  }
+}
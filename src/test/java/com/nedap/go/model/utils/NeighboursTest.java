@@ -0,0 +1,48 @@
+package com.nedap.go.model.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class NeighboursTest {
+
+  @Test
+  public void testSharedPerDimension() {
+    assertSame(Neighbours.of(9), Neighbours.of(9));
+    assertSame(Neighbours.of(7), Neighbours.of(7));
+    assertEquals(7, Neighbours.of(7).getDim());
+  }
+
+  @Test
+  public void testCornersEdgesAndCenter() {
+    Neighbours neighbours = Neighbours.of(9);
+    assertEquals(Set.of(1, 9), neighboursOf(neighbours, 0));
+    assertEquals(Set.of(7, 17), neighboursOf(neighbours, 8));
+    assertEquals(Set.of(3, 5, 13), neighboursOf(neighbours, 4));
+    assertEquals(Set.of(27, 45, 37), neighboursOf(neighbours, 36));
+    assertEquals(Set.of(31, 49, 39, 41), neighboursOf(neighbours, 40));
+    assertEquals(Set.of(71, 79), neighboursOf(neighbours, 80));
+  }
+
+  @Test
+  public void testSentinelPadding() {
+    Neighbours neighbours = Neighbours.of(5);
+    for (int index = 0; index < 25; index++) {
+      for (int i = neighbours.count(index); i < Neighbours.SLOTS; i++) {
+        assertEquals(Neighbours.NONE, neighbours.get(index, i));
+      }
+    }
+    assertEquals(2, neighbours.count(24));
+  }
+
+  private static Set<Integer> neighboursOf(Neighbours neighbours, int index) {
+    Set<Integer> result = new HashSet<>();
+    for (int i = 0; i < neighbours.count(index); i++) {
+      result.add(neighbours.get(index, i));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,58 @@
+package com.nedap.go.model.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class StoneKernelsTest {
+
+  private final StoneKernels scalar = new ScalarKernels();
+  private final StoneKernels vector = new VectorKernels();
+
+  @Test
+  public void testVectorChosenWithModule() {
+    // only built and run by the vector profile, which adds the module
+    assertInstanceOf(VectorKernels.class, StoneKernels.get());
+  }
+
+  @Test
+  public void testLibertiesOnSmallBoard() {
+    byte[] fields = {
+        1, 0, 0,
+        0, 2, 0,
+        0, 0, 1};
+    byte[] mask = new byte[9];
+    assertEquals(4, vector.liberties(fields, 3, (byte) 0, (byte) 1, mask));
+    assertArrayEquals(new byte[]{0, 1, 0, 1, 0, 1, 0, 1, 0}, mask);
+  }
+
+  @Test
+  public void testSameAsScalar() {
+    Random random = new Random(7);
+    for (int dim : new int[]{2, 5, 9, 13, 19, 25}) {
+      for (int round = 0; round < 20; round++) {
+        byte[] fields = new byte[dim * dim];
+        for (int i = 0; i < fields.length; i++) {
+          fields[i] = (byte) random.nextInt(3);
+        }
+        for (byte color = 0; color < 3; color++) {
+          assertEquals(scalar.count(fields, color), vector.count(fields, color));
+          byte[] scalarMask = new byte[fields.length];
+          byte[] vectorMask = new byte[fields.length];
+          assertEquals(scalar.liberties(fields, dim, (byte) 0, color, scalarMask),
+              vector.liberties(fields, dim, (byte) 0, color, vectorMask));
+          assertArrayEquals(scalarMask, vectorMask);
+        }
+        byte[] copy = fields.clone();
+        assertTrue(vector.equal(fields, copy));
+        copy[random.nextInt(copy.length)] ^= 3;
+        assertFalse(vector.equal(fields, copy));
+      }
+    }
+  }
+}
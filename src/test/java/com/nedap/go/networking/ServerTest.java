@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.nedap.go.networking.protocol.Protocol;
 import com.nedap.go.networking.server.GameServer;
+import com.nedap.go.networking.server.persistence.GameJournal;
+import com.nedap.go.networking.server.persistence.GameStore;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -12,8 +14,10 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.file.Path;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class ServerTest {
 
@@ -137,4 +141,233 @@ public class ServerTest {
             server.close();
         }
     }
+
+    @Test
+    public void testQueueWithBoardSize() throws IOException {
+        new Thread(this::acceptConnections).start();
+        String s;
+        Socket socket = new Socket(InetAddress.getLocalHost(), server.getPort());
+        Socket socket2 = new Socket(InetAddress.getLocalHost(), server.getPort());
+
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
+            socket.getInputStream()));
+            PrintWriter printWriter = new PrintWriter(
+                new OutputStreamWriter(socket.getOutputStream()), true);
+            BufferedReader bufferedReader2 = new BufferedReader(new InputStreamReader(
+                socket2.getInputStream()));
+            PrintWriter printWriter2 = new PrintWriter(
+                new OutputStreamWriter(socket2.getOutputStream()), true)) {
+
+            dummyClient(printWriter, "Alex");
+            dummyClient(printWriter2, "Nick");
+            skipInitialization(bufferedReader, bufferedReader2);
+
+            printWriter.println(Protocol.QUEUE + Protocol.SEPARATOR + 13);
+            assertEquals(Protocol.QUEUED, bufferedReader.readLine());
+            printWriter2.println(Protocol.QUEUE + Protocol.SEPARATOR + 13);
+            assertEquals(Protocol.QUEUED, bufferedReader2.readLine());
+
+            s = bufferedReader.readLine();
+            assertTrue(s.startsWith(Protocol.NEW_GAME));
+            assertTrue(s.endsWith(Protocol.SEPARATOR + 13));
+            s = bufferedReader2.readLine();
+            assertTrue(s.startsWith(Protocol.NEW_GAME));
+            assertTrue(s.endsWith(Protocol.SEPARATOR + 13));
+
+            socket.close();
+            socket2.close();
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testResumeRecoveredGame(@TempDir Path dataDirectory) throws IOException {
+        GameStore store = new GameStore(dataDirectory);
+        GameJournal journal = store.open("crashed", 9, 60000, "Alex", "Nick");
+        journal.appendMove(40);
+        journal.appendPass();
+        store.close();
+
+        server.enablePersistence(dataDirectory);
+        new Thread(this::acceptConnections).start();
+        Socket socket = new Socket(InetAddress.getLocalHost(), server.getPort());
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
+            socket.getInputStream())); PrintWriter printWriter = new PrintWriter(
+            new OutputStreamWriter(socket.getOutputStream()), true)) {
+            bufferedReader.readLine();
+            dummyClient(printWriter, "alex");
+            assertEquals("ACCEPTED~alex", bufferedReader.readLine());
+            assertEquals(Protocol.NEW_GAME + "~Alex,Nick~9", bufferedReader.readLine());
+            assertEquals("MOVE~40~BLACK", bufferedReader.readLine());
+            assertEquals("PASS~WHITE", bufferedReader.readLine());
+            assertEquals(Protocol.MAKE_MOVE, bufferedReader.readLine());
+            socket.close();
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testReconnectWithinGracePeriod() throws IOException {
+        server.setReconnectGracePeriod(10000);
+        new Thread(this::acceptConnections).start();
+        Socket socket = new Socket(InetAddress.getLocalHost(), server.getPort());
+        Socket socket2 = new Socket(InetAddress.getLocalHost(), server.getPort());
+        Socket socket3 = new Socket(InetAddress.getLocalHost(), server.getPort());
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
+            socket.getInputStream()));
+            PrintWriter printWriter = new PrintWriter(
+                new OutputStreamWriter(socket.getOutputStream()), true);
+            BufferedReader bufferedReader2 = new BufferedReader(new InputStreamReader(
+                socket2.getInputStream()));
+            PrintWriter printWriter2 = new PrintWriter(
+                new OutputStreamWriter(socket2.getOutputStream()), true);
+            BufferedReader bufferedReader3 = new BufferedReader(new InputStreamReader(
+                socket3.getInputStream()));
+            PrintWriter printWriter3 = new PrintWriter(
+                new OutputStreamWriter(socket3.getOutputStream()), true)) {
+            bufferedReader.readLine();
+            dummyClient(printWriter, "Alex");
+            String[] accepted = bufferedReader.readLine().split(Protocol.SEPARATOR);
+            assertEquals(3, accepted.length);
+            String token = accepted[2];
+            bufferedReader2.readLine();
+            dummyClient(printWriter2, "Nick");
+            bufferedReader2.readLine();
+
+            printWriter.println(Protocol.QUEUE);
+            assertEquals(Protocol.QUEUED, bufferedReader.readLine());
+            printWriter2.println(Protocol.QUEUE);
+            assertEquals(Protocol.QUEUED, bufferedReader2.readLine());
+            String newGame = bufferedReader.readLine();
+            bufferedReader2.readLine();
+            boolean alexIsBlack = newGame.startsWith(Protocol.NEW_GAME + "~Alex");
+            BufferedReader nickReader = bufferedReader2;
+            if (alexIsBlack) {
+                assertEquals(Protocol.MAKE_MOVE, bufferedReader.readLine());
+                printWriter.println(Protocol.MOVE + Protocol.SEPARATOR + 40);
+                bufferedReader.readLine();
+                nickReader.readLine();
+                assertEquals(Protocol.MAKE_MOVE, nickReader.readLine());
+            }
+
+            socket.close();
+            bufferedReader3.readLine();
+            printWriter3.println(Protocol.RECONNECT + Protocol.SEPARATOR + token);
+            assertEquals(Protocol.ACCEPTED + "~Alex~" + token, bufferedReader3.readLine());
+            String state = bufferedReader3.readLine();
+            assertTrue(state.startsWith(Protocol.GAME_STATE + Protocol.SEPARATOR));
+            assertTrue(state.endsWith(alexIsBlack ? "~9~40" : "~9~"));
+            if (!alexIsBlack) {
+                assertEquals(Protocol.MAKE_MOVE, bufferedReader3.readLine());
+            }
+
+            socket2.close();
+            socket3.close();
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testSpectate() throws IOException {
+        new Thread(this::acceptConnections).start();
+        Socket socket = new Socket(InetAddress.getLocalHost(), server.getPort());
+        Socket socket2 = new Socket(InetAddress.getLocalHost(), server.getPort());
+        Socket socket3 = new Socket(InetAddress.getLocalHost(), server.getPort());
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
+            socket.getInputStream()));
+            PrintWriter printWriter = new PrintWriter(
+                new OutputStreamWriter(socket.getOutputStream()), true);
+            BufferedReader bufferedReader2 = new BufferedReader(new InputStreamReader(
+                socket2.getInputStream()));
+            PrintWriter printWriter2 = new PrintWriter(
+                new OutputStreamWriter(socket2.getOutputStream()), true);
+            BufferedReader bufferedReader3 = new BufferedReader(new InputStreamReader(
+                socket3.getInputStream()));
+            PrintWriter printWriter3 = new PrintWriter(
+                new OutputStreamWriter(socket3.getOutputStream()), true)) {
+            bufferedReader.readLine();
+            dummyClient(printWriter, "Alex");
+            bufferedReader.readLine();
+            bufferedReader2.readLine();
+            dummyClient(printWriter2, "Nick");
+            bufferedReader2.readLine();
+            bufferedReader3.readLine();
+            dummyClient(printWriter3, "Sam");
+            bufferedReader3.readLine();
+
+            printWriter.println(Protocol.QUEUE);
+            assertEquals(Protocol.QUEUED, bufferedReader.readLine());
+            printWriter2.println(Protocol.QUEUE);
+            assertEquals(Protocol.QUEUED, bufferedReader2.readLine());
+            String newGame = bufferedReader.readLine();
+            bufferedReader2.readLine();
+            boolean alexIsBlack = newGame.startsWith(Protocol.NEW_GAME + "~Alex");
+            BufferedReader blackReader = alexIsBlack ? bufferedReader : bufferedReader2;
+            PrintWriter blackWriter = alexIsBlack ? printWriter : printWriter2;
+            assertEquals(Protocol.MAKE_MOVE, blackReader.readLine());
+
+            printWriter3.println(Protocol.GAMES);
+            String[] games = bufferedReader3.readLine().split(Protocol.SEPARATOR);
+            assertEquals(2, games.length);
+            String gameId = games[1].substring(0, games[1].indexOf(':'));
+            printWriter3.println(Protocol.SPECTATE + Protocol.SEPARATOR + "nope");
+            assertTrue(bufferedReader3.readLine().startsWith(Protocol.ERROR));
+            printWriter3.println(Protocol.SPECTATE + Protocol.SEPARATOR + gameId);
+            assertTrue(bufferedReader3.readLine().endsWith("~9~"));
+
+            blackWriter.println(Protocol.MOVE + Protocol.SEPARATOR + 40);
+            assertEquals(Protocol.MOVE + "~40~" + Protocol.BLACK, bufferedReader3.readLine());
+            blackWriter.println(Protocol.RESIGN);
+            assertTrue(bufferedReader3.readLine().startsWith(Protocol.GAME_OVER));
+
+            printWriter3.println(Protocol.LIST);
+            assertTrue(bufferedReader3.readLine().startsWith(Protocol.LIST));
+        } finally {
+            socket.close();
+            socket2.close();
+            socket3.close();
+            server.close();
+        }
+    }
+
+    @Test
+    public void testSeatExpires() throws IOException {
+        server.setReconnectGracePeriod(200);
+        new Thread(this::acceptConnections).start();
+        Socket socket = new Socket(InetAddress.getLocalHost(), server.getPort());
+        Socket socket2 = new Socket(InetAddress.getLocalHost(), server.getPort());
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
+            socket.getInputStream()));
+            PrintWriter printWriter = new PrintWriter(
+                new OutputStreamWriter(socket.getOutputStream()), true);
+            BufferedReader bufferedReader2 = new BufferedReader(new InputStreamReader(
+                socket2.getInputStream()));
+            PrintWriter printWriter2 = new PrintWriter(
+                new OutputStreamWriter(socket2.getOutputStream()), true)) {
+            bufferedReader.readLine();
+            dummyClient(printWriter, "Alex");
+            bufferedReader.readLine();
+            bufferedReader2.readLine();
+            dummyClient(printWriter2, "Nick");
+            bufferedReader2.readLine();
+            printWriter.println(Protocol.QUEUE);
+            bufferedReader.readLine();
+            printWriter2.println(Protocol.QUEUE);
+            bufferedReader2.readLine();
+            bufferedReader2.readLine();
+
+            socket.close();
+            String s = bufferedReader2.readLine();
+            while (!s.startsWith(Protocol.GAME_OVER)) {
+                s = bufferedReader2.readLine();
+            }
+            assertEquals(Protocol.GAME_OVER + "~" + Protocol.WINNER + "~Nick", s);
+            socket2.close();
+        } finally {
+            server.close();
+        }
+    }
 }
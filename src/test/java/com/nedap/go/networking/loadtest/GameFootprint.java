@@ -0,0 +1,144 @@
+package com.nedap.go.networking.loadtest;
+
+import com.nedap.go.model.CompactGame;
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Heap benchmark for the game state the server keeps per game.
+ *
+ * <p>
+ * Plays the same random games into GoGame, as the server used to keep them, and into
+ * CompactGame, as ServerGameAdapter keeps them now, keeps them all alive and measures the heap
+ * they take after a garbage collection. Reports the bytes per game and how many games fit in 1 GiB
+ * of heap (see the footprint profile in the pom).
+ * </p>
+ *
+ * <p>
+ * Options (all optional): {@code --games N --board N --moves N --seed N}
+ * </p>
+ */
+public class GameFootprint {
+
+  private static final long GIB = 1L << 30;
+
+  private int games = 200;
+  private int boardDim = 19;
+  private int moves = 250;
+  private long seed = 42;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args The command line options.
+   */
+  public static void main(String[] args) {
+    GameFootprint footprint = new GameFootprint();
+    footprint.parseArguments(args);
+    footprint.run(System.out);
+  }
+
+  private void parseArguments(String[] args) {
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--games" -> games = Integer.parseInt(value);
+        case "--board" -> boardDim = Integer.parseInt(value);
+        case "--moves" -> moves = Integer.parseInt(value);
+        case "--seed" -> seed = Long.parseLong(value);
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+  }
+
+  /**
+   * Measures both representations and prints the report.
+   *
+   * @param console The stream the report is printed on.
+   */
+  public void run(PrintStream console) {
+    int[][] moveLists = new int[games][];
+    Random random = new Random(seed);
+    for (int i = 0; i < games; i++) {
+      moveLists[i] = randomGame(random);
+    }
+    Player black = () -> Stone.BLACK;
+    Player white = () -> Stone.WHITE;
+    console.printf(Locale.ROOT, "==== %d games of %d moves on %dx%d ====%n", games, moves,
+        boardDim, boardDim);
+    report(console, "GoGame", measure(i -> {
+      GoGame game = new GoGame(black, white, boardDim);
+      for (int index : moveLists[i]) {
+        game.replayMove(index < 0 ? new GoMove(game.getTurn())
+            : new GoMove(game.getTurn(), index));
+      }
+      return game;
+    }));
+    report(console, "CompactGame", measure(i -> {
+      CompactGame game = new CompactGame(boardDim);
+      for (int index : moveLists[i]) {
+        game.replay(index);
+      }
+      return game;
+    }));
+  }
+
+  private int[] randomGame(Random random) {
+    CompactGame game = new CompactGame(boardDim);
+    int fields = boardDim * boardDim;
+    for (int i = 0; i < moves; i++) {
+      int index = CompactGame.PASS;
+      for (int attempt = 0; attempt < 20; attempt++) {
+        int candidate = random.nextInt(fields);
+        if (game.isValidMove(candidate)) {
+          index = candidate;
+          break;
+        }
+      }
+      // avoid two passes in a row, which would end the game
+      if (index == CompactGame.PASS && game.getMoveCount() > 0
+          && game.getMoves()[game.getMoveCount() - 1] == CompactGame.PASS) {
+        break;
+      }
+      game.replay(index);
+    }
+    return game.getMoves();
+  }
+
+  private long measure(IntFunction<Object> build) {
+    long before = usedHeap();
+    List<Object> retained = new ArrayList<>(games);
+    for (int i = 0; i < games; i++) {
+      retained.add(build.apply(i));
+    }
+    long after = usedHeap();
+    if (retained.size() != games) {
+      throw new IllegalStateException();
+    }
+    return (after - before) / games;
+  }
+
+  private void report(PrintStream console, String name, long bytesPerGame) {
+    console.printf(Locale.ROOT, "%-12s %10d bytes/game %12d games/GiB%n", name, bytesPerGame,
+        GIB / Math.max(1, bytesPerGame));
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    long used = Long.MAX_VALUE;
+    // a few rounds, as a single System.gc may leave garbage behind
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+    }
+    return used;
+  }
+}
@@ -0,0 +1,177 @@
+package com.nedap.go.networking.loadtest;
+
+import com.nedap.go.networking.server.GameServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator and latency benchmark for the GameServer.
+ *
+ * <p>
+ * Starts a GameServer in-process on a free port, connects a number of simulated clients that
+ * play random legal games against each other and reports the throughput in moves per second
+ * together with the p50/p99/p999 latency between sending a MOVE and receiving its broadcast.
+ * When thresholds are given the process exits with status 1 if they are not met, so it can be
+ * used as a regression gate (see the loadtest profile in the pom).
+ * </p>
+ *
+ * <p>
+ * Options (all optional): {@code --clients N --games N --board N[,N...] --moves N --seed N
+ * --min-moves-per-sec X --max-p99-ms X}
+ * </p>
+ */
+public class LoadTest {
+
+  private int clients = 1000;
+  private int gamesPerClient = 3;
+  private int[] boardDims = {9};
+  private int maxMovesPerGame = 30;
+  private long seed = 42;
+  private double minMovesPerSecond = 0;
+  private double maxP99Millis = Double.MAX_VALUE;
+
+  /**
+   * Runs the load test.
+   *
+   * @param args The command line options.
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    LoadTest loadTest = new LoadTest();
+    loadTest.parseArguments(args);
+    PrintStream console = System.out;
+    // The server traces every message on System.out; keep that out of the report.
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    boolean passed = loadTest.run(console);
+    System.exit(passed ? 0 : 1);
+  }
+
+  private void parseArguments(String[] args) {
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--clients" -> clients = Integer.parseInt(value);
+        case "--games" -> gamesPerClient = Integer.parseInt(value);
+        case "--board" -> boardDims = parseBoardDims(value);
+        case "--moves" -> maxMovesPerGame = Integer.parseInt(value);
+        case "--seed" -> seed = Long.parseLong(value);
+        case "--min-moves-per-sec" -> minMovesPerSecond = Double.parseDouble(value);
+        case "--max-p99-ms" -> maxP99Millis = Double.parseDouble(value);
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    if (clients % 2 != 0) {
+      throw new IllegalArgumentException("The number of clients must be even");
+    }
+  }
+
+  private static int[] parseBoardDims(String value) {
+    String[] dims = value.split(",");
+    int[] boardDims = new int[dims.length];
+    for (int i = 0; i < dims.length; i++) {
+      boardDims[i] = Integer.parseInt(dims[i].trim());
+    }
+    return boardDims;
+  }
+
+  /**
+   * Starts the server, plays all games and prints the report.
+   *
+   * @param console The stream the report is printed on.
+   * @return True if the configured thresholds were met.
+   */
+  public boolean run(PrintStream console) throws IOException, InterruptedException {
+    GameServer server = new GameServer(0, boardDims[0]);
+    Thread acceptThread = new Thread(() -> {
+      try {
+        server.acceptConnections();
+      } catch (IOException e) {
+        System.err.println("Server stopped: " + e.getMessage());
+      }
+    });
+    acceptThread.setDaemon(true);
+    acceptThread.start();
+
+    InetAddress host = InetAddress.getLoopbackAddress();
+    List<SimulatedClient> simulatedClients = new ArrayList<>();
+    for (int i = 0; i < clients; i++) {
+      // Consecutive clients share a board size so every queue has an even number of clients.
+      int boardDim = boardDims[(i / 2) % boardDims.length];
+      simulatedClients.add(new SimulatedClient(host, server.getPort(), "bot" + i, boardDim,
+          gamesPerClient, maxMovesPerGame, seed + i));
+    }
+
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      simulatedClients.forEach(executor::submit);
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.HOURS);
+    } finally {
+      server.close();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    boolean passed = report(simulatedClients, seconds, console);
+    console.println("==== Server metrics ====");
+    console.print(server.getMetrics().scrape());
+    return passed;
+  }
+
+  private boolean report(List<SimulatedClient> simulatedClients, double seconds,
+      PrintStream console) {
+    long[] latencies = new long[0];
+    int games = 0;
+    int errors = 0;
+    int failures = 0;
+    for (SimulatedClient client : simulatedClients) {
+      long[] clientLatencies = client.getLatencies();
+      int offset = latencies.length;
+      latencies = Arrays.copyOf(latencies, offset + clientLatencies.length);
+      System.arraycopy(clientLatencies, 0, latencies, offset, clientLatencies.length);
+      games += client.getGamesPlayed();
+      errors += client.getErrors();
+      if (client.getFailure() != null) {
+        failures++;
+        if (failures <= 5) {
+          System.err.println("Client failed: " + client.getFailure());
+        }
+      }
+    }
+    Arrays.sort(latencies);
+    double movesPerSecond = latencies.length / seconds;
+    double p99 = percentileMillis(latencies, 0.99);
+
+    console.println("==== Load test report ====");
+    console.printf(Locale.ROOT, "clients          %d (boards %s)%n", clients,
+        Arrays.toString(boardDims));
+    console.printf(Locale.ROOT, "games finished   %d%n", games / 2);
+    console.printf(Locale.ROOT, "moves            %d in %.2f s%n", latencies.length, seconds);
+    console.printf(Locale.ROOT, "moves/second     %.1f%n", movesPerSecond);
+    console.printf(Locale.ROOT, "latency p50      %.3f ms%n", percentileMillis(latencies, 0.5));
+    console.printf(Locale.ROOT, "latency p99      %.3f ms%n", p99);
+    console.printf(Locale.ROOT, "latency p999     %.3f ms%n",
+        percentileMillis(latencies, 0.999));
+    console.printf(Locale.ROOT, "latency max      %.3f ms%n", percentileMillis(latencies, 1));
+    console.printf(Locale.ROOT, "server errors    %d%n", errors);
+    console.printf(Locale.ROOT, "failed clients   %d%n", failures);
+
+    boolean passed = failures == 0 && movesPerSecond >= minMovesPerSecond && p99 <= maxP99Millis;
+    console.println(passed ? "RESULT: PASS" : "RESULT: FAIL");
+    return passed;
+  }
+
+  private static double percentileMillis(long[] sortedLatencies, double percentile) {
+    if (sortedLatencies.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+    return sortedLatencies[Math.max(0, index)] / 1e6;
+  }
+}
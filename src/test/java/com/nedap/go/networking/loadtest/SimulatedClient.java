@@ -0,0 +1,213 @@
+package com.nedap.go.networking.loadtest;
+
+import com.nedap.go.model.GoGame;
+import com.nedap.go.model.GoMove;
+import com.nedap.go.model.Player;
+import com.nedap.go.model.Stone;
+import com.nedap.go.model.utils.InvalidMoveException;
+import com.nedap.go.networking.protocol.Protocol;
+import com.nedap.go.networking.server.OnlinePlayer;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A headless client speaking the Go protocol, used by the load test.
+ *
+ * <p>
+ * The client logs in, queues, and plays random legal moves on a local mirror of the game until
+ * it has played its share of games. Every own MOVE or PASS is timestamped when sent and again
+ * when the server broadcasts it back, giving the MOVE to broadcast latency.
+ * </p>
+ */
+class SimulatedClient implements Runnable {
+
+  private static final int SOCKET_TIMEOUT = 60000;
+  private static final int MOVE_ATTEMPTS = 10;
+
+  private final InetAddress host;
+  private final int port;
+  private final String username;
+  private final int boardDim;
+  private final int games;
+  private final int maxMovesPerGame;
+  private final Random random;
+
+  private BufferedReader in;
+  private BufferedWriter out;
+  private GoGame game;
+  private Player myPlayer;
+  private Player otherPlayer;
+  private int myMoves;
+  private long sentAt;
+
+  private long[] latencies = new long[256];
+  private int latencyCount;
+  private int gamesPlayed;
+  private int errors;
+  private Exception failure;
+
+  /**
+   * Creates a simulated client.
+   *
+   * @param host            The address of the server.
+   * @param port            The port of the server.
+   * @param username        The unique username to log in with.
+   * @param boardDim        The board dimension to queue for.
+   * @param games           The number of games to play before disconnecting.
+   * @param maxMovesPerGame The number of own moves after which the client only passes.
+   * @param seed            The seed of the random move selection.
+   */
+  SimulatedClient(InetAddress host, int port, String username, int boardDim, int games,
+      int maxMovesPerGame, long seed) {
+    this.host = host;
+    this.port = port;
+    this.username = username;
+    this.boardDim = boardDim;
+    this.games = games;
+    this.maxMovesPerGame = maxMovesPerGame;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public void run() {
+    try (Socket socket = new Socket(host, port)) {
+      socket.setSoTimeout(SOCKET_TIMEOUT);
+      socket.setTcpNoDelay(true);
+      in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+      out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+      send(Protocol.LOGIN + Protocol.SEPARATOR + username);
+      String line;
+      while (gamesPlayed < games && (line = in.readLine()) != null) {
+        handleMessage(line);
+      }
+      if (gamesPlayed < games) {
+        throw new IOException(username + ": connection closed after " + gamesPlayed + " games");
+      }
+    } catch (IOException | InvalidMoveException | RuntimeException e) {
+      failure = e;
+    }
+  }
+
+  private void handleMessage(String message) throws IOException, InvalidMoveException {
+    String[] messageArray = message.split(Protocol.SEPARATOR);
+    switch (messageArray[0]) {
+      case Protocol.ACCEPTED -> send(Protocol.QUEUE + Protocol.SEPARATOR + boardDim);
+      case Protocol.REJECTED -> throw new IOException(username + ": login rejected");
+      case Protocol.NEW_GAME -> startGame(messageArray);
+      case Protocol.MAKE_MOVE -> playMove();
+      case Protocol.MOVE -> receiveMove(messageArray);
+      case Protocol.PASS -> receivePass(messageArray);
+      case Protocol.GAME_OVER -> endGame();
+      case Protocol.ERROR -> errors++;
+      default -> {
+        // HELLO, QUEUED and LIST carry nothing the client needs.
+      }
+    }
+  }
+
+  private void startGame(String[] messageArray) {
+    String[] players = messageArray[1].split(Protocol.ROW_COL_SEPARATOR);
+    int gameBoardDim = Integer.parseInt(messageArray[2]);
+    Player black = new OnlinePlayer(players[0], Stone.BLACK);
+    Player white = new OnlinePlayer(players[1], Stone.WHITE);
+    myPlayer = username.equals(players[0]) ? black : white;
+    otherPlayer = myPlayer == black ? white : black;
+    game = new GoGame(black, white, gameBoardDim);
+    myMoves = 0;
+  }
+
+  private void playMove() throws IOException {
+    if (game == null || game.getTurn() != myPlayer) {
+      return;
+    }
+    int index = myMoves < maxMovesPerGame ? pickMove() : -1;
+    myMoves++;
+    sentAt = System.nanoTime();
+    if (index < 0) {
+      send(Protocol.PASS);
+    } else {
+      send(Protocol.MOVE + Protocol.SEPARATOR + index);
+    }
+  }
+
+  private int pickMove() {
+    int fields = game.getBoard().getDim() * game.getBoard().getDim();
+    for (int i = 0; i < MOVE_ATTEMPTS; i++) {
+      int index = random.nextInt(fields);
+      if (game.isValidMove(new GoMove(myPlayer, index))) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private void receiveMove(String[] messageArray) throws InvalidMoveException {
+    Player player = getPlayerFromColor(messageArray[2]);
+    recordLatency(player);
+    game.doMove(new GoMove(player, Integer.parseInt(messageArray[1])));
+  }
+
+  private void receivePass(String[] messageArray) throws InvalidMoveException {
+    Player player = getPlayerFromColor(messageArray[1]);
+    recordLatency(player);
+    game.doMove(new GoMove(player));
+  }
+
+  private void endGame() throws IOException {
+    game = null;
+    gamesPlayed++;
+    if (gamesPlayed < games) {
+      send(Protocol.QUEUE + Protocol.SEPARATOR + boardDim);
+    }
+  }
+
+  private Player getPlayerFromColor(String color) {
+    Stone stone = color.equals(Protocol.BLACK) ? Stone.BLACK : Stone.WHITE;
+    return myPlayer.getStone() == stone ? myPlayer : otherPlayer;
+  }
+
+  private void recordLatency(Player player) {
+    if (player != myPlayer || sentAt == 0) {
+      return;
+    }
+    if (latencyCount == latencies.length) {
+      latencies = Arrays.copyOf(latencies, latencies.length * 2);
+    }
+    latencies[latencyCount++] = System.nanoTime() - sentAt;
+    sentAt = 0;
+  }
+
+  private void send(String message) throws IOException {
+    out.write(message);
+    out.newLine();
+    out.flush();
+  }
+
+  /**
+   * Get the MOVE to broadcast latencies measured by this client.
+   *
+   * @return The latencies in nanoseconds, in the order they were measured.
+   */
+  long[] getLatencies() {
+    return Arrays.copyOf(latencies, latencyCount);
+  }
+
+  int getGamesPlayed() {
+    return gamesPlayed;
+  }
+
+  int getErrors() {
+    return errors;
+  }
+
+  Exception getFailure() {
+    return failure;
+  }
+}
@@ -0,0 +1,110 @@
+package com.nedap.go.networking.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.networking.protocol.Protocol;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class ServerMetricsTest {
+
+  @Test
+  public void testHistogramPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    assertEquals(500_000, histogram.getValueAtPercentile(0.5), 500_000 * 0.02);
+    assertEquals(990_000, histogram.getValueAtPercentile(0.99), 990_000 * 0.02);
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(0.99));
+  }
+
+  @Test
+  public void testHistogramBucketsAreContiguous() {
+    for (long value = 0; value < 1 << 20; value++) {
+      int index = LatencyHistogram.indexOf(value);
+      assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+      assertTrue(index == 0 || LatencyHistogram.highestEquivalentValue(index - 1) < value);
+    }
+  }
+
+  @Test
+  public void testScrape() {
+    ServerMetrics metrics = new ServerMetrics(() -> 4, () -> 2, () -> 1);
+    metrics.messageReceived(Protocol.MOVE + Protocol.SEPARATOR + 12, 2000);
+    metrics.messageReceived("nonsense", 1000);
+    metrics.messageSent(Protocol.QUEUED);
+    metrics.moveHandled();
+    metrics.timeoutResign();
+
+    String scrape = metrics.scrape();
+    assertTrue(scrape.contains("go_connected_clients 4\n"));
+    assertTrue(scrape.contains("go_queue_depth 2\n"));
+    assertTrue(scrape.contains("go_active_games 1\n"));
+    assertTrue(scrape.contains("go_moves_total 1\n"));
+    assertTrue(scrape.contains("go_bytes_in_total 17\n"));
+    assertTrue(scrape.contains("go_bytes_out_total 7\n"));
+    assertTrue(scrape.contains("go_timeout_resigns_total 1\n"));
+    assertTrue(scrape.contains("go_message_handling_seconds_count{message=\"MOVE\"} 1\n"));
+    assertTrue(scrape.contains("go_message_handling_seconds_count{message=\"OTHER\"} 1\n"));
+  }
+
+  @Test
+  public void testMovesPerSecondCountsEveryMove() throws InterruptedException {
+    ServerMetrics metrics = new ServerMetrics(() -> 0, () -> 0, () -> 0);
+    // record from several threads across the turn of a second
+    long until = System.nanoTime() + 1_200_000_000L;
+    Thread[] threads = new Thread[4];
+    long[] counts = new long[threads.length];
+    for (int i = 0; i < threads.length; i++) {
+      int thread = i;
+      threads[i] = new Thread(() -> {
+        while (System.nanoTime() < until) {
+          metrics.moveHandled();
+          counts[thread]++;
+        }
+      });
+      threads[i].start();
+    }
+    long total = 0;
+    for (int i = 0; i < threads.length; i++) {
+      threads[i].join();
+      total += counts[i];
+    }
+    // wait for the last second recorded in to be complete
+    long nanosIntoSecond = System.nanoTime() % 1_000_000_000L;
+    Thread.sleep((1_000_000_000L - nanosIntoSecond) / 1_000_000 + 20);
+
+    assertEquals(total, metrics.getMovesPerSecond() * 10, 1e-6);
+  }
+
+  @Test
+  public void testEndpoint() throws IOException {
+    GameServer server = new GameServer(0, 9);
+    try {
+      int port = server.startMetricsEndpoint(0);
+      try (InputStream in = URI.create("http://localhost:" + port + "/metrics").toURL()
+          .openStream()) {
+        String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("go_connected_clients 0"));
+      }
+    } finally {
+      server.close();
+    }
+  }
+
+  @Test
+  public void testBytesAreCountedEncoded() {
+    String[] messages = {"MOVE~12", "LOGIN~Zo\u00EB", "LOGIN~\u56F2\u7881", "LOGIN~\uD83D\uDE00"};
+    for (String message : messages) {
+      assertEquals((message + "\n").getBytes(StandardCharsets.UTF_8).length,
+          ServerMetrics.encodedLength(message));
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.nedap.go.networking.server.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class LogTest {
+
+  private static LogEvent event(String name, Object... fields) {
+    return new LogEvent(0, LogLevel.INFO, "LogTest", name, fields);
+  }
+
+  @Test
+  public void testRingBufferRefusesWhenFull() {
+    LogRingBuffer buffer = new LogRingBuffer(4);
+    LogEvent first = event("first");
+    assertTrue(buffer.offer(first));
+    for (int i = 0; i < 3; i++) {
+      assertTrue(buffer.offer(event("filler")));
+    }
+    assertFalse(buffer.offer(event("dropped")));
+
+    assertSame(first, buffer.poll());
+    assertTrue(buffer.offer(event("wrapped")));
+    for (int i = 0; i < 3; i++) {
+      assertEquals("filler", buffer.poll().event);
+    }
+    assertEquals("wrapped", buffer.poll().event);
+    assertNull(buffer.poll());
+  }
+
+  @Test
+  public void testRingBufferManyProducers() throws InterruptedException {
+    LogRingBuffer buffer = new LogRingBuffer(1 << 16);
+    Thread[] producers = new Thread[4];
+    for (int t = 0; t < producers.length; t++) {
+      producers[t] = new Thread(() -> {
+        for (int i = 0; i < 10000; i++) {
+          buffer.offer(event("e"));
+        }
+      });
+      producers[t].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    int count = 0;
+    while (buffer.poll() != null) {
+      count++;
+    }
+    assertEquals(40000, count);
+  }
+
+  @Test
+  public void testFormat() {
+    String line = LogPipeline.format(event("game-ended", "black", "alex", "winner", "the cat",
+        "moves", 12));
+    assertEquals("1970-01-01T00:00:00Z INFO LogTest game-ended black=alex winner=\"the cat\" "
+        + "moves=12", line);
+  }
+
+  @Test
+  public void testLevelFilterAndOutput() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Log log = Log.getLog(LogTest.class);
+    Log.setOutput(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+    Log.setLevel(LogLevel.INFO);
+    try {
+      assertFalse(log.isEnabled(LogLevel.DEBUG));
+      log.debug("hidden");
+      log.info("shown", "key", "value");
+      Log.flush();
+      String output = bytes.toString(StandardCharsets.UTF_8);
+      assertTrue(output.contains("INFO LogTest shown key=value"));
+      assertFalse(output.contains("hidden"));
+    } finally {
+      Log.setOutput(null);
+    }
+  }
+
+  @Test
+  public void testDroppedEventsAreCountedInTotal() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    LogPipeline pipeline = new LogPipeline(2);
+    pipeline.setOutput(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+    for (int i = 0; i < 1000; i++) {
+      pipeline.publish(event("e"));
+    }
+    pipeline.flush();
+    long written = bytes.toString(StandardCharsets.UTF_8).lines()
+        .filter(line -> line.endsWith("LogTest e"))
+        .count();
+    assertEquals(1000, written + pipeline.getDropped());
+  }
+}
@@ -0,0 +1,114 @@
+package com.nedap.go.networking.server.matchmaking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nedap.go.networking.server.ClientHandler;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RatingMatchmakerTest {
+
+  private static MatchRequest request(int boardDim, int rating) {
+    return new MatchRequest(new ClientHandler(null), boardDim, 1000, rating);
+  }
+
+  @Test
+  public void testPairOnArrival() {
+    Matchmaker matchmaker = new RatingMatchmaker();
+    MatchRequest first = request(9, 1500);
+    MatchRequest second = request(9, 1550);
+    assertTrue(matchmaker.enqueue(first).isEmpty());
+    List<Match> matches = matchmaker.enqueue(second);
+
+    assertEquals(1, matches.size());
+    assertSame(first, matches.getFirst().getBlack());
+    assertSame(second, matches.getFirst().getWhite());
+    assertEquals(0, matchmaker.size());
+  }
+
+  @Test
+  public void testBoardSizesDoNotMix() {
+    Matchmaker matchmaker = new RatingMatchmaker();
+    assertTrue(matchmaker.enqueue(request(9, 1500)).isEmpty());
+    assertTrue(matchmaker.enqueue(request(19, 1500)).isEmpty());
+    assertEquals(2, matchmaker.size());
+
+    List<Match> matches = matchmaker.enqueue(request(19, 1500));
+    assertEquals(1, matches.size());
+    assertEquals(19, matches.getFirst().getBoardDim());
+    assertEquals(1, matchmaker.size());
+  }
+
+  @Test
+  public void testClosestRatingIsChosen() {
+    Matchmaker matchmaker = new RatingMatchmaker();
+    matchmaker.enqueue(request(9, 1200));
+    MatchRequest close = request(9, 1480);
+    matchmaker.enqueue(close);
+    matchmaker.enqueue(request(9, 1700));
+
+    List<Match> matches = matchmaker.enqueue(request(9, 1500));
+    assertEquals(1, matches.size());
+    assertSame(close, matches.getFirst().getBlack());
+  }
+
+  @Test
+  public void testOutsideWindowWaits() {
+    Matchmaker matchmaker = new RatingMatchmaker();
+    matchmaker.enqueue(request(9, 1000));
+    assertTrue(matchmaker.enqueue(request(9, 2000)).isEmpty());
+    assertTrue(matchmaker.pairUp().isEmpty());
+    assertEquals(2, matchmaker.size());
+  }
+
+  @Test
+  public void testBatchedPairUp() {
+    Matchmaker matchmaker = new RatingMatchmaker(
+        new MatchmakingConfig(200, 50, 0, false, 1000, 0));
+    for (int i = 0; i < 6; i++) {
+      assertTrue(matchmaker.enqueue(request(9, 1500 + i)).isEmpty());
+    }
+    assertEquals(3, matchmaker.pairUp().size());
+    assertEquals(0, matchmaker.size());
+  }
+
+  @Test
+  public void testRemove() {
+    Matchmaker matchmaker = new RatingMatchmaker();
+    MatchRequest first = request(9, 1500);
+    matchmaker.enqueue(first);
+    assertTrue(matchmaker.remove(first.getClient()));
+    assertFalse(matchmaker.remove(first.getClient()));
+    assertTrue(matchmaker.enqueue(request(9, 1500)).isEmpty());
+  }
+
+  @Test
+  public void testTimeControlsDoNotMix() {
+    Matchmaker matchmaker = new RatingMatchmaker();
+    matchmaker.enqueue(new MatchRequest(new ClientHandler(null), 9, 1000, 1500));
+    assertTrue(matchmaker.enqueue(
+        new MatchRequest(new ClientHandler(null), 9, 30000, 1500)).isEmpty());
+
+    List<Match> matches = matchmaker.enqueue(
+        new MatchRequest(new ClientHandler(null), 9, 30000, 1500));
+    assertEquals(1, matches.size());
+    assertEquals(30000, matches.getFirst().getTimePerMove());
+  }
+
+  @Test
+  public void testPairsAcrossBandBoundary() {
+    Matchmaker matchmaker = new RatingMatchmaker(
+        new MatchmakingConfig(200, 50, 100, true, 1000, 0));
+    MatchRequest below = request(9, 1599);
+    matchmaker.enqueue(below);
+    matchmaker.enqueue(request(9, 1900));
+
+    List<Match> matches = matchmaker.enqueue(request(9, 1600));
+    assertEquals(1, matches.size());
+    assertSame(below, matches.getFirst().getBlack());
+    assertEquals(1, matchmaker.size());
+  }
+}
@@ -0,0 +1,124 @@
+package com.nedap.go.networking.server.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GameStoreTest {
+
+  @TempDir
+  Path dataDirectory;
+
+  @Test
+  public void testSgf() {
+    assertEquals("(;GM[1]FF[4]CA[UTF-8]AP[JavaGo]SZ[9]PB[alex]PW[ni\\]ck]RE[B+R]"
+            + ";B[ca];W[])\n",
+        SgfWriter.toSgf(9, "alex", "ni]ck", new int[]{2, -1}, "B+R"));
+  }
+
+  @Test
+  public void testJournalReopens() throws IOException {
+    GameStore store = new GameStore(dataDirectory);
+    GameJournal journal = store.open("game-1", 19, 1000, "alex", "nick");
+    for (int i = 0; i < 5000; i++) {
+      journal.appendMove(i % 361);
+    }
+    journal.appendPass();
+    store.close();
+
+    GameJournal reopened = GameJournal.open(journal.getPath(), "game-1");
+    assertEquals(19, reopened.getBoardDim());
+    assertEquals(1000, reopened.getTimePerMove());
+    assertEquals("alex", reopened.getBlack());
+    assertEquals("nick", reopened.getWhite());
+    assertEquals(5001, reopened.getMoveCount());
+    assertFalse(reopened.isFinished());
+    int[] moves = reopened.readMoves();
+    assertEquals(360, moves[360]);
+    assertEquals(-1, moves[5000]);
+    reopened.appendMove(7);
+    assertEquals(7, reopened.readMoves()[5001]);
+    reopened.close();
+  }
+
+  @Test
+  public void testClosedJournalRefusesMoves() throws IOException {
+    GameStore store = new GameStore(dataDirectory);
+    GameJournal journal = store.open("game-3", 9, 1000, "alex", "nick");
+    journal.appendMove(40);
+    store.close();
+
+    assertThrows(IllegalStateException.class, () -> journal.appendMove(41));
+    assertThrows(IllegalStateException.class, journal::appendPass);
+    assertEquals(1, journal.getMoveCount());
+    try (GameJournal reopened = GameJournal.open(journal.getPath(), "game-3")) {
+      assertEquals(1, reopened.getMoveCount());
+    }
+  }
+
+  @Test
+  public void testTruncatedHeaderIsNotAJournal() throws IOException {
+    GameStore store = new GameStore(dataDirectory);
+    GameJournal journal = store.open("game-4", 9, 1000, "alex", "nick");
+    store.close();
+    byte[] header = Files.readAllBytes(journal.getPath());
+    Path truncated = dataDirectory.resolve("truncated.journal");
+    Files.write(truncated, Arrays.copyOf(header, 27));
+
+    assertThrows(IOException.class, () -> GameJournal.open(truncated, "game-4"));
+  }
+
+  @Test
+  public void testFinishedGameIsArchived() throws IOException {
+    GameStore store = new GameStore(dataDirectory);
+    GameJournal journal = store.open("game-2", 9, 1000, "alex", "nick");
+    journal.appendMove(40);
+    journal.appendMove(0);
+    journal.appendPass();
+    journal.appendPass();
+    store.finish(journal, "B+3");
+    store.close();
+
+    assertFalse(Files.exists(journal.getPath()));
+    List<Path> archived;
+    try (Stream<Path> files = Files.walk(store.getSgfDirectory())) {
+      archived = files.filter(Files::isRegularFile).toList();
+    }
+    assertEquals(1, archived.size());
+    assertEquals("game-2.sgf", archived.getFirst().getFileName().toString());
+    String sgf = Files.readString(archived.getFirst());
+    assertTrue(sgf.contains("SZ[9]"));
+    assertTrue(sgf.contains("RE[B+3]"));
+    assertTrue(sgf.endsWith(";B[ee];W[aa];B[];W[])\n"));
+  }
+
+  @Test
+  public void testRecover() throws IOException {
+    GameStore store = new GameStore(dataDirectory);
+    store.open("in-progress", 9, 1000, "alex", "nick").appendMove(40);
+    GameJournal finished = store.open("finished", 9, 1000, "bob", "carl");
+    finished.appendPass();
+    finished.markFinished();
+    Files.writeString(store.getJournalDirectory().resolve("broken.goj"), "");
+    store.close();
+
+    GameStore restarted = new GameStore(dataDirectory);
+    List<GameJournal> recovered = restarted.recover();
+    assertEquals(1, recovered.size());
+    assertEquals("in-progress", recovered.getFirst().getGameId());
+    assertArrayEquals(new int[]{40}, recovered.getFirst().readMoves());
+    restarted.close();
+    assertFalse(Files.exists(finished.getPath()));
+  }
+}